@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
+import org.jivesoftware.openfire.plugin.rest.entity.MUCRoomEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.MUCRoomEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of serializing and parsing lists of users and chat rooms in the data formats that are supported
+ * by this plugin (JSON, XML, CBOR and Smile). The payload sizes are logged when the benchmark starts.
+ *
+ * The baseline variants use a mapper without generated property accessors, and a new JAXB marshaller for every
+ * entity, for comparison with the way in which this plugin writes entities.
+ *
+ * This is not a unit test, and is not compiled by a regular build. Run it with the 'benchmark' profile:
+ * {@code mvn -Pbenchmark test-compile exec:exec}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+    @Param({ "users", "chatrooms" })
+    public String list;
+
+    @Param({ "1000" })
+    public int size;
+
+    private Object entity;
+    private Class<?> type;
+
+    private JAXBContext jaxbContext;
+    private ObjectMapper json;
+    private ObjectMapper jsonBaseline;
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+
+    private byte[] jsonBytes;
+    private byte[] xmlBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("users".equals(list)) {
+            entity = createUsers(size);
+            type = UserEntities.class;
+        } else {
+            entity = createChatRooms(size);
+            type = MUCRoomEntities.class;
+        }
+
+        jaxbContext = JAXBContext.newInstance(type);
+        json = new CustomJacksonMapperProvider().getContext(type);
+        jsonBaseline = new ObjectMapper();
+        jsonBaseline.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        jsonBaseline.registerModule(new JaxbAnnotationModule().setPriority(JaxbAnnotationModule.Priority.SECONDARY));
+        jsonWriter = json.writerFor(type);
+        jsonReader = json.readerFor(type);
+        cbor = CustomJacksonMapperProvider.createObjectMapper(new CBORFactory());
+        smile = CustomJacksonMapperProvider.createObjectMapper(new SmileFactory());
+
+        jsonBytes = json.writeValueAsBytes(entity);
+        xmlBytes = writeXmlBaseline();
+        cborBytes = cbor.writeValueAsBytes(entity);
+        smileBytes = smile.writeValueAsBytes(entity);
+        LOG.info("{} {}: JSON {} bytes, XML {} bytes, CBOR {} bytes, Smile {} bytes", size, list, jsonBytes.length, xmlBytes.length, cborBytes.length, smileBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return json.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] writeJsonBaseline() throws IOException {
+        return jsonBaseline.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] writeJsonCachedWriter() throws IOException {
+        return jsonWriter.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] writeXml() throws JAXBException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PooledJaxbProvider.marshal(entity, out, StandardCharsets.UTF_8, false);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeXmlBaseline() throws JAXBException {
+        // Like the default JAXB provider, this creates a marshaller for every entity that is written.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jaxbContext.createMarshaller().marshal(entity, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws IOException {
+        return cbor.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws IOException {
+        return smile.writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public Object readJson() throws IOException {
+        return json.readValue(jsonBytes, type);
+    }
+
+    @Benchmark
+    public Object readJsonBaseline() throws IOException {
+        return jsonBaseline.readValue(jsonBytes, type);
+    }
+
+    @Benchmark
+    public Object readJsonCachedReader() throws IOException {
+        return jsonReader.readValue(jsonBytes);
+    }
+
+    @Benchmark
+    public Object readXml() throws JAXBException {
+        return jaxbContext.createUnmarshaller().unmarshal(new ByteArrayInputStream(xmlBytes));
+    }
+
+    @Benchmark
+    public Object readCbor() throws IOException {
+        return cbor.readValue(cborBytes, type);
+    }
+
+    @Benchmark
+    public Object readSmile() throws IOException {
+        return smile.readValue(smileBytes, type);
+    }
+
+    static UserEntities createUsers(final int size) {
+        final List<UserEntity> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final UserEntity user = new UserEntity("user" + i, "User number " + i, "user" + i + "@example.org");
+            user.setProperties(List.of(new UserProperty("department", "Department " + (i % 20)), new UserProperty("location", "Building " + (i % 7))));
+            users.add(user);
+        }
+        return new UserEntities(users);
+    }
+
+    static MUCRoomEntities createChatRooms(final int size) {
+        final List<MUCRoomEntity> rooms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final MUCRoomEntity room = new MUCRoomEntity("Room " + i, "room" + i, "A room for the discussion of topic " + i);
+            room.setSubject("Topic " + i);
+            room.setMaxUsers(30);
+            room.setCreationDate(new Date(1700000000000L + i));
+            room.setModificationDate(new Date(1700000000000L + i));
+            room.setPersistent(true);
+            room.setPublicRoom(true);
+            room.setBroadcastPresenceRoles(List.of("moderator", "participant", "visitor"));
+            room.setOwners(List.of("admin@example.org"));
+            room.setAdmins(List.of("user" + i + "@example.org"));
+            room.setMembers(List.of("user" + (i + 1) + "@example.org", "user" + (i + 2) + "@example.org"));
+            room.setOutcasts(List.of());
+            rooms.add(room);
+        }
+        return new MUCRoomEntities(rooms);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
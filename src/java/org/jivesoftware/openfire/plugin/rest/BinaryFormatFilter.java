@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import javax.annotation.Nullable;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lets clients use the binary data formats of {@link BinaryJacksonProvider} (CBOR and Smile) with every endpoint that
+ * supports JSON.
+ *
+ * Endpoints declare the media types that they support. Rather than adding the binary formats to each of these
+ * declarations, requests for (or with a body in) a binary format are matched as if they were made for JSON. The
+ * entities of these requests are then read, and those of the responses are written, in the binary format.
+ */
+@PreMatching
+@Priority(Priorities.HEADER_DECORATOR)
+public class BinaryFormatFilter implements ContainerRequestFilter, ContainerResponseFilter, ReaderInterceptor
+{
+    /** Holds the binary format in which the response is written. */
+    static final String RESPONSE_FORMAT_PROPERTY = BinaryFormatFilter.class.getName() + ".response";
+
+    /** Holds the binary format in which the request body is read. */
+    private static final String REQUEST_FORMAT_PROPERTY = BinaryFormatFilter.class.getName() + ".request";
+
+    private static final List<MediaType> FORMATS = List.of(BinaryJacksonProvider.APPLICATION_CBOR_TYPE, BinaryJacksonProvider.APPLICATION_SMILE_TYPE);
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException
+    {
+        final MediaType requestFormat = getFormat(requestContext.getMediaType());
+        if (requestFormat != null) {
+            requestContext.setProperty(REQUEST_FORMAT_PROPERTY, requestFormat);
+            requestContext.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        }
+
+        // Only when a binary format is preferred over any other format.
+        final List<MediaType> acceptable = requestContext.getAcceptableMediaTypes();
+        final MediaType responseFormat = acceptable.isEmpty() ? null : getFormat(acceptable.get(0));
+        if (responseFormat != null) {
+            requestContext.setProperty(RESPONSE_FORMAT_PROPERTY, responseFormat);
+            requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException
+    {
+        final MediaType format = (MediaType) requestContext.getProperty(RESPONSE_FORMAT_PROPERTY);
+        if (format != null && responseContext.hasEntity() && responseContext.getMediaType() != null && MediaType.APPLICATION_JSON_TYPE.isCompatible(responseContext.getMediaType())) {
+            // Changing the content type causes the entity to be written by the provider of the binary format.
+            responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, format);
+        }
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException
+    {
+        final MediaType format = (MediaType) context.getProperty(REQUEST_FORMAT_PROPERTY);
+        if (format != null && MediaType.APPLICATION_JSON_TYPE.isCompatible(context.getMediaType())) {
+            context.setMediaType(format);
+        }
+        return context.proceed();
+    }
+
+    @Nullable
+    private static MediaType getFormat(@Nullable final MediaType mediaType)
+    {
+        if (mediaType == null) {
+            return null;
+        }
+        return FORMATS.stream()
+            .filter(format -> format.getType().equalsIgnoreCase(mediaType.getType()) && format.getSubtype().equalsIgnoreCase(mediaType.getSubtype()))
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads and writes entities in a binary data format that is supported by Jackson. The entities are mapped in the same
+ * way as for JSON (see {@link CustomJacksonMapperProvider}).
+ *
+ * @see BinaryFormatFilter
+ */
+public abstract class BinaryJacksonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object>
+{
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType("application", "cbor");
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+
+    private final MediaType format;
+    private final ObjectMapper mapper;
+
+    /** Readers and writers per type, as resolving these is relatively expensive. */
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    protected BinaryJacksonProvider(@Nonnull final MediaType format, @Nonnull final JsonFactory factory)
+    {
+        this.format = format;
+        this.mapper = CustomJacksonMapperProvider.createObjectMapper(factory);
+
+        // The entity streams are managed by Jersey.
+        mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        mapper.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return isFormat(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException
+    {
+        try {
+            return readers.computeIfAbsent(genericType != null ? genericType : type, t -> mapper.readerFor(mapper.getTypeFactory().constructType(t))).readValue(entityStream);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Unable to parse the " + format + " request body.", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return isFormat(mediaType);
+    }
+
+    @Override
+    public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException
+    {
+        writers.computeIfAbsent(genericType != null ? genericType : type, t -> mapper.writerFor(mapper.getTypeFactory().constructType(t))).writeValue(entityStream, o);
+    }
+
+    private boolean isFormat(@Nullable final MediaType mediaType)
+    {
+        return mediaType != null && format.getType().equalsIgnoreCase(mediaType.getType()) && format.getSubtype().equalsIgnoreCase(mediaType.getSubtype());
+    }
+
+    /**
+     * Concise Binary Object Representation (RFC 8949).
+     */
+    @Provider
+    @Consumes(APPLICATION_CBOR)
+    @Produces(APPLICATION_CBOR)
+    public static class Cbor extends BinaryJacksonProvider
+    {
+        public Cbor()
+        {
+            super(APPLICATION_CBOR_TYPE, new CBORFactory());
+        }
+    }
+
+    /**
+     * Jackson's binary JSON format.
+     */
+    @Provider
+    @Consumes(APPLICATION_SMILE)
+    @Produces(APPLICATION_SMILE)
+    public static class Smile extends BinaryJacksonProvider
+    {
+        public Smile()
+        {
+            super(APPLICATION_SMILE_TYPE, new SmileFactory());
+        }
+    }
+}
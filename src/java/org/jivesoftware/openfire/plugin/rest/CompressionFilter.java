@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import org.jivesoftware.util.SystemProperty;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresses responses with gzip or deflate, when the client indicates support for that (using the 'Accept-Encoding'
+ * request header) and the response is larger than a configurable size. Also decompresses request bodies that are
+ * sent with a 'Content-Encoding' of gzip or deflate. The decompressed size of a request body is limited, so that a small
+ * compressed body cannot expand into an amount of data that exhausts the server; larger bodies are refused with
+ * '413 Request Entity Too Large'.
+ *
+ * Responses are buffered until they reach the configured size. Smaller responses are sent uncompressed, as compressing
+ * them gains little. The compressors that are used are pooled, as creating one allocates a significant amount of
+ * (native) memory.
+ */
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionFilter implements ContainerResponseFilter, WriterInterceptor, ReaderInterceptor
+{
+    public static final SystemProperty<Boolean> ENABLED = SystemProperty.Builder.ofType(Boolean.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.compression.enabled")
+        .setDefaultValue(true)
+        .setDynamic(true)
+        .build();
+
+    public static final SystemProperty<Integer> MIN_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.compression.min-size")
+        .setDefaultValue(1024)
+        .setMinValue(0)
+        .setDynamic(true)
+        .build();
+
+    public static final SystemProperty<Integer> LEVEL = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.compression.level")
+        .setDefaultValue(6)
+        .setMinValue(Deflater.BEST_SPEED)
+        .setMaxValue(Deflater.BEST_COMPRESSION)
+        .setDynamic(true)
+        .build();
+
+    public static final SystemProperty<Long> MAX_INFLATED_SIZE = SystemProperty.Builder.ofType(Long.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.compression.max-inflated-size")
+        .setDefaultValue(64L * 1024 * 1024)
+        .setMinValue(1L)
+        .setDynamic(true)
+        .build();
+
+    private static final String ENCODING_PROPERTY = CompressionFilter.class.getName() + ".encoding";
+
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The content codings that are supported for responses.
+     */
+    enum Encoding
+    {
+        GZIP("gzip", true),
+        DEFLATE("deflate", false);
+
+        private final String token;
+        private final boolean nowrap;
+        private final BlockingQueue<Deflater> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        Encoding(@Nonnull final String token, final boolean nowrap)
+        {
+            this.token = token;
+            this.nowrap = nowrap;
+        }
+
+        @Nonnull
+        Deflater borrow(final int level)
+        {
+            final Deflater deflater = pool.poll();
+            if (deflater == null) {
+                return new Deflater(level, nowrap);
+            }
+            deflater.setLevel(level);
+            return deflater;
+        }
+
+        void release(@Nonnull final Deflater deflater)
+        {
+            deflater.reset();
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException
+    {
+        if (!ENABLED.getValue() || !responseContext.hasEntity() || HttpMethod.HEAD.equals(requestContext.getMethod())) {
+            return;
+        }
+        if (responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        if (responseContext.getMediaType() != null && MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(responseContext.getMediaType())) {
+            // Events are streamed, and must not be buffered.
+            return;
+        }
+
+        final List<String> vary = responseContext.getStringHeaders().get(HttpHeaders.VARY);
+        if (vary == null || vary.stream().noneMatch(value -> value.toLowerCase(Locale.ROOT).contains(HttpHeaders.ACCEPT_ENCODING.toLowerCase(Locale.ROOT)))) {
+            responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        final Encoding encoding = negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding != null) {
+            requestContext.setProperty(ENCODING_PROPERTY, encoding);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException
+    {
+        final Encoding encoding = (Encoding) context.getProperty(ENCODING_PROPERTY);
+        if (encoding == null) {
+            context.proceed();
+            return;
+        }
+        context.removeProperty(ENCODING_PROPERTY);
+
+        final CompressingOutputStream stream = new CompressingOutputStream(context.getOutputStream(), context.getHeaders(), encoding, MIN_SIZE.getValue(), LEVEL.getValue());
+        context.setOutputStream(stream);
+        try {
+            context.proceed();
+            stream.finish();
+        } finally {
+            stream.release();
+        }
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException
+    {
+        final String contentEncoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        BoundedInputStream bounded = null;
+        if (contentEncoding != null) {
+            switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+                case "identity":
+                    break;
+                case "gzip":
+                case "x-gzip":
+                    bounded = new BoundedInputStream(new GZIPInputStream(context.getInputStream(), BUFFER_SIZE), MAX_INFLATED_SIZE.getValue());
+                    break;
+                case "deflate":
+                    bounded = new BoundedInputStream(new InflaterInputStream(context.getInputStream()), MAX_INFLATED_SIZE.getValue());
+                    break;
+                default:
+                    throw new NotSupportedException("Unsupported content encoding: " + contentEncoding);
+            }
+        }
+        if (bounded == null) {
+            return context.proceed();
+        }
+
+        context.setInputStream(bounded);
+        context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+        try {
+            return context.proceed();
+        } catch (IOException | RuntimeException e) {
+            // Readers can wrap the failure of the stream in an exception of their own, which would be reported as a bad request.
+            if (bounded.isExceeded()) {
+                throw new WebApplicationException("The decompressed request body is larger than " + bounded.limit + " bytes", e, Response.Status.REQUEST_ENTITY_TOO_LARGE);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Selects the content coding for a response, based on the value of the 'Accept-Encoding' header of the request.
+     *
+     * @param acceptEncoding the value of the 'Accept-Encoding' header (can be null)
+     * @return the content coding to use, or null when the response is not to be compressed
+     */
+    @Nullable
+    static Encoding negotiate(@Nullable final String acceptEncoding)
+    {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (final String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "gzip":
+                case "x-gzip":
+                    gzip = quality;
+                    break;
+                case "deflate":
+                    deflate = quality;
+                    break;
+                case "*":
+                    any = quality;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return Encoding.GZIP;
+        }
+        if (deflate > 0) {
+            return Encoding.DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * Fails reading when more than a limited amount of bytes is read.
+     */
+    static class BoundedInputStream extends FilterInputStream
+    {
+        private final long limit;
+        private long count;
+        private boolean exceeded;
+
+        BoundedInputStream(@Nonnull final InputStream in, final long limit)
+        {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            final int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException
+        {
+            final int length = super.read(b, off, len);
+            if (length > 0) {
+                count(length);
+            }
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            final long length = super.skip(n);
+            count(length);
+            return length;
+        }
+
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+
+        boolean isExceeded()
+        {
+            return exceeded;
+        }
+
+        private void count(final long length) throws IOException
+        {
+            count += length;
+            if (count > limit) {
+                exceeded = true;
+                throw new IOException("The decompressed request body is larger than " + limit + " bytes.");
+            }
+        }
+    }
+
+    /**
+     * Buffers data until a threshold is reached, after which all data is compressed. When the threshold is not
+     * reached, the data is written uncompressed.
+     */
+    static class CompressingOutputStream extends OutputStream
+    {
+        private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+        private final OutputStream out;
+        private final MultivaluedMap<String, Object> headers;
+        private final Encoding encoding;
+        private final int threshold;
+        private final int level;
+        private final byte[] chunk = new byte[BUFFER_SIZE];
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Deflater deflater;
+        private CRC32 crc;
+        private long size;
+        private boolean finished;
+
+        CompressingOutputStream(@Nonnull final OutputStream out, @Nonnull final MultivaluedMap<String, Object> headers, @Nonnull final Encoding encoding, final int threshold, final int level)
+        {
+            this.out = out;
+            this.headers = headers;
+            this.encoding = encoding;
+            this.threshold = threshold;
+            this.level = level;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException
+        {
+            if (finished) {
+                throw new IOException("Stream is finished.");
+            }
+            if (buffer != null) {
+                if (buffer.size() + len < threshold) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                startCompressing();
+            }
+            deflate(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            // Flushing while buffering would commit the response headers before the content coding is known.
+            if (buffer == null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            // The underlying stream is closed by Jersey.
+            finish();
+        }
+
+        void finish() throws IOException
+        {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            if (buffer != null) {
+                buffer.writeTo(out);
+                buffer = null;
+                return;
+            }
+
+            deflater.finish();
+            while (!deflater.finished()) {
+                final int length = deflater.deflate(chunk);
+                if (length > 0) {
+                    out.write(chunk, 0, length);
+                }
+            }
+            if (crc != null) {
+                writeIntLE(crc.getValue());
+                writeIntLE(size);
+            }
+        }
+
+        void release()
+        {
+            if (deflater != null) {
+                encoding.release(deflater);
+                deflater = null;
+            }
+        }
+
+        private void startCompressing() throws IOException
+        {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding.token);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+            deflater = encoding.borrow(level);
+            if (encoding == Encoding.GZIP) {
+                crc = new CRC32();
+                out.write(GZIP_HEADER);
+            }
+
+            final byte[] buffered = buffer.toByteArray();
+            buffer = null;
+            deflate(buffered, 0, buffered.length);
+        }
+
+        private void deflate(@Nonnull final byte[] b, final int off, final int len) throws IOException
+        {
+            if (len == 0) {
+                return;
+            }
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+            size += len;
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                final int length = deflater.deflate(chunk);
+                if (length > 0) {
+                    out.write(chunk, 0, length);
+                }
+            }
+        }
+
+        private void writeIntLE(final long value) throws IOException
+        {
+            out.write((int) (value & 0xff));
+            out.write((int) ((value >> 8) & 0xff));
+            out.write((int) ((value >> 16) & 0xff));
+            out.write((int) ((value >> 24) & 0xff));
+        }
+    }
+}
@@ -16,7 +16,9 @@
 package org.jivesoftware.openfire.plugin.rest;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
 
 import javax.ws.rs.ext.ContextResolver;
@@ -33,12 +35,28 @@ public class CustomJacksonMapperProvider implements ContextResolver<ObjectMapper
     final ObjectMapper mapper;
 
     public CustomJacksonMapperProvider() {
-        mapper = new ObjectMapper();
+        mapper = createObjectMapper(new JsonFactory());
+    }
+
+    /**
+     * Creates an ObjectMapper for a particular data format (such as JSON or CBOR), that interprets the annotations of
+     * the entities of this plugin in the same way for every format.
+     *
+     * @param factory the factory for the data format
+     * @return a configured ObjectMapper
+     */
+    public static ObjectMapper createObjectMapper(JsonFactory factory) {
+        final ObjectMapper mapper = new ObjectMapper(factory);
 
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
         // Configure Jackson to use JAXB annotations as the secondary, and Jackson annotations as the primary source.
         mapper.registerModule(new JaxbAnnotationModule().setPriority(JaxbAnnotationModule.Priority.SECONDARY));
+
+        // Access properties through generated lambdas, rather than through reflection.
+        mapper.registerModule(new BlackbirdModule());
+
+        return mapper;
     }
 
     @Override
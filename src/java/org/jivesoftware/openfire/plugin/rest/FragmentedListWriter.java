@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.jivesoftware.openfire.plugin.rest.controller.FragmentCacheController;
+import org.jivesoftware.openfire.plugin.rest.entity.GroupEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.GroupEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.MUCRoomEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.MUCRoomEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes lists of users, groups and chat rooms by concatenating the serialized forms of the individual entities, that
+ * are kept by {@link FragmentCacheController}. The output is identical to that of the default JSON and XML providers.
+ *
+ * @param <T> the type of the list entity
+ * @param <E> the type of the entities in the list
+ */
+public abstract class FragmentedListWriter<T, E> implements MessageBodyWriter<T>
+{
+    private static final byte[] XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>".getBytes(StandardCharsets.UTF_8);
+
+    private final Class<T> listType;
+    private final Class<E> elementType;
+    private final String name;
+
+    private volatile ObjectWriter jsonWriter;
+
+    @Context
+    private Providers providers;
+
+    /**
+     * @param listType the type of the list entity
+     * @param elementType the type of the entities in the list
+     * @param name the name of the XML root element, and of the JSON property that holds the entities
+     */
+    protected FragmentedListWriter(@Nonnull final Class<T> listType, @Nonnull final Class<E> elementType, @Nonnull final String name)
+    {
+        this.listType = listType;
+        this.elementType = elementType;
+        this.name = name;
+    }
+
+    /**
+     * @param list the list entity
+     * @return the entities in the list (can be null)
+     */
+    @Nullable
+    protected abstract List<E> getElements(@Nonnull final T list);
+
+    /**
+     * @param list the list entity
+     * @param element an entity in the list
+     * @return the key under which the serialized forms of the entity are cached, or null when they cannot be cached
+     */
+    @Nullable
+    protected abstract String getKey(@Nonnull final T list, @Nonnull final E element);
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return listType == type && (isJson(mediaType) || isXml(mediaType));
+    }
+
+    @Override
+    public long getSize(T t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(T list, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException
+    {
+        final List<E> elements = getElements(list);
+        if (isJson(mediaType)) {
+            writeJson(list, elements, entityStream);
+        } else {
+            writeXml(list, elements, entityStream);
+        }
+    }
+
+    private void writeJson(@Nonnull final T list, @Nullable final List<E> elements, @Nonnull final OutputStream out) throws IOException
+    {
+        if (elements == null) {
+            // Null values are not included in the JSON representation.
+            out.write("{}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        final ObjectWriter writer = getJsonWriter();
+        out.write(("{\"" + name + "\":[").getBytes(StandardCharsets.UTF_8));
+        boolean first = true;
+        for (final E element : elements) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            if (element == null) {
+                out.write("null".getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write(getFragment(list, element, FragmentCacheController.Format.JSON, writer::writeValueAsBytes));
+            }
+        }
+        out.write("]}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeXml(@Nonnull final T list, @Nullable final List<E> elements, @Nonnull final OutputStream out) throws IOException
+    {
+        out.write(XML_DECLARATION);
+        if (elements == null || elements.stream().allMatch(element -> element == null)) {
+            out.write(("<" + name + "/>").getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        out.write(("<" + name + ">").getBytes(StandardCharsets.UTF_8));
+        for (final E element : elements) {
+            if (element != null) {
+                out.write(getFragment(list, element, FragmentCacheController.Format.XML, entity -> {
+                    final ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+                    try {
+                        PooledJaxbProvider.marshal(entity, fragment, StandardCharsets.UTF_8, true);
+                    } catch (JAXBException e) {
+                        throw new IOException("Unable to serialize " + elementType.getSimpleName(), e);
+                    }
+                    return fragment.toByteArray();
+                }));
+            }
+        }
+        out.write(("</" + name + ">").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nonnull
+    private byte[] getFragment(@Nonnull final T list, @Nonnull final E element, @Nonnull final FragmentCacheController.Format format, @Nonnull final FragmentCacheController.Serializer serializer) throws IOException
+    {
+        final String key = getKey(list, element);
+        if (key == null) {
+            return serializer.serialize(element);
+        }
+        return FragmentCacheController.getInstance().getFragment(key, element, format, serializer);
+    }
+
+    @Nonnull
+    private ObjectWriter getJsonWriter()
+    {
+        // Resolving a writer for a type is relatively expensive, and the result can be reused.
+        if (jsonWriter == null) {
+            final ContextResolver<ObjectMapper> resolver = providers == null ? null : providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
+            final ObjectMapper mapper = resolver == null ? null : resolver.getContext(elementType);
+            jsonWriter = (mapper != null ? mapper : new CustomJacksonMapperProvider().getContext(elementType)).writerFor(elementType);
+        }
+        return jsonWriter;
+    }
+
+    private static boolean isJson(@Nullable final MediaType mediaType)
+    {
+        return mediaType != null && ("json".equalsIgnoreCase(mediaType.getSubtype()) || mediaType.getSubtype().toLowerCase().endsWith("+json"));
+    }
+
+    private static boolean isXml(@Nullable final MediaType mediaType)
+    {
+        return mediaType != null && ("xml".equalsIgnoreCase(mediaType.getSubtype()) || mediaType.getSubtype().toLowerCase().endsWith("+xml"));
+    }
+
+    @Provider
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public static class Users extends FragmentedListWriter<UserEntities, UserEntity>
+    {
+        public Users()
+        {
+            super(UserEntities.class, UserEntity.class, "users");
+        }
+
+        @Override
+        protected List<UserEntity> getElements(@Nonnull final UserEntities list)
+        {
+            return list.getUsers();
+        }
+
+        @Override
+        protected String getKey(@Nonnull final UserEntities list, @Nonnull final UserEntity element)
+        {
+            return element.getUsername() == null ? null : "user:" + element.getUsername();
+        }
+    }
+
+    @Provider
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public static class Groups extends FragmentedListWriter<GroupEntities, GroupEntity>
+    {
+        public Groups()
+        {
+            super(GroupEntities.class, GroupEntity.class, "groups");
+        }
+
+        @Override
+        protected List<GroupEntity> getElements(@Nonnull final GroupEntities list)
+        {
+            return list.getGroups();
+        }
+
+        @Override
+        protected String getKey(@Nonnull final GroupEntities list, @Nonnull final GroupEntity element)
+        {
+            return element.getName() == null ? null : "group:" + element.getName();
+        }
+    }
+
+    @Provider
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public static class ChatRooms extends FragmentedListWriter<MUCRoomEntities, MUCRoomEntity>
+    {
+        public ChatRooms()
+        {
+            super(MUCRoomEntities.class, MUCRoomEntity.class, "chatRooms");
+        }
+
+        @Override
+        protected List<MUCRoomEntity> getElements(@Nonnull final MUCRoomEntities list)
+        {
+            return list.getMucRooms();
+        }
+
+        @Override
+        protected String getKey(@Nonnull final MUCRoomEntities list, @Nonnull final MUCRoomEntity element)
+        {
+            // Rooms of different services can have the same name.
+            if (list.getServiceName() == null || element.getRoomName() == null) {
+                return null;
+            }
+            return FragmentCacheController.getChatRoomKey(list.getServiceName(), element.getRoomName());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import org.jivesoftware.openfire.plugin.rest.entity.*;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the entities of this plugin as XML, using one JAXB context that is created once for all entity classes, and a
+ * pool of marshallers that are reused between requests. The default JAXB provider creates a marshaller for every
+ * entity that it writes.
+ *
+ * Reading XML is left to the default JAXB provider, which protects against XML external entity attacks.
+ */
+@Provider
+@Produces({MediaType.APPLICATION_XML, MediaType.TEXT_XML})
+public class PooledJaxbProvider implements MessageBodyWriter<Object>
+{
+    private static final Logger Log = LoggerFactory.getLogger(PooledJaxbProvider.class);
+
+    /**
+     * The classes for which the shared JAXB context is created. Other classes are written by the default provider.
+     */
+    static final Set<Class<?>> ENTITY_CLASSES = Set.of(
+        AdminEntities.class, AffiliationChangeResultEntity.class, BulkResultEntities.class, ChangeEntities.class,
+        ChangeEntity.class, ClusterNodeEntities.class, ClusterNodeEntity.class, ClusteringEntity.class,
+        DesiredRosterEntity.class, DesiredRosterItemEntity.class, ErrorResponse.class,
+        EventEntity.class, GroupEntities.class, GroupEntity.class, JobEntities.class, JobEntity.class,
+        JobResultEntity.class, MUCInvitationEntity.class, MUCInvitationsEntity.class,
+        MUCRoomEntities.class, MUCRoomEntity.class, MUCRoomMessageEntities.class, MUCRoomMessageEntity.class,
+        MUCServiceEntities.class, MUCServiceEntity.class, MemberEntities.class, MessageEntity.class,
+        MsgArchiveEntity.class, OccupantEntities.class, OccupantEntity.class, OutcastEntities.class, OwnerEntities.class,
+        ParticipantEntities.class, ParticipantEntity.class, RoomCreationResultEntities.class,
+        RoomCreationResultEntity.class, RoomOccupancyEntities.class, RoomOccupancyEntity.class, RosterEntities.class,
+        RosterItemEntity.class, RosterOperationEntity.class, RosterOperationsEntity.class, SecurityAuditLog.class,
+        SecurityAuditLogs.class, SessionEntities.class, SessionEntity.class, SessionsCount.class, SystemProperties.class,
+        SystemProperty.class, UserBatchReadEntity.class, UserBulkEntity.class, UserEntities.class, UserEntity.class,
+        UserFacetsEntities.class, UserFacetsEntity.class, UserGroupsEntity.class, UserPropertiesEntity.class,
+        UserQueryEntity.class, UserQueryResultEntity.class, WebhookEntities.class, WebhookEntity.class
+    );
+
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<Marshaller> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static volatile JAXBContext context;
+
+    private static volatile boolean contextFailed;
+
+    public PooledJaxbProvider()
+    {
+        // Creating the context is expensive. Do that before the first request.
+        getContext();
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return mediaType != null && "xml".equalsIgnoreCase(mediaType.getSubtype())
+            && ENTITY_CLASSES.contains(type) && type.isAnnotationPresent(XmlRootElement.class)
+            && getContext() != null;
+    }
+
+    @Override
+    public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException
+    {
+        final String charset = mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+        try {
+            marshal(o, entityStream, charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset), false);
+        } catch (JAXBException e) {
+            throw new InternalServerErrorException("Unable to write " + type.getSimpleName() + " as XML.", e);
+        }
+    }
+
+    /**
+     * Writes an entity as XML, using a pooled marshaller when the class of the entity is one of
+     * {@link #ENTITY_CLASSES}.
+     *
+     * @param entity the entity to write
+     * @param out the stream to write to
+     * @param charset the character encoding of the XML
+     * @param fragment true to omit the XML declaration
+     * @throws JAXBException when the entity cannot be written
+     */
+    static void marshal(@Nonnull final Object entity, @Nonnull final OutputStream out, @Nonnull final Charset charset, final boolean fragment) throws JAXBException
+    {
+        final boolean pooled = ENTITY_CLASSES.contains(entity.getClass()) && getContext() != null;
+        Marshaller marshaller = pooled ? pool.poll() : null;
+        if (marshaller == null) {
+            marshaller = pooled ? context.createMarshaller() : JAXBContext.newInstance(entity.getClass()).createMarshaller();
+        }
+
+        // Pooled marshallers keep the properties of their previous use.
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, charset.name());
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+        marshaller.marshal(entity, out);
+
+        if (pooled) {
+            pool.offer(marshaller);
+        }
+    }
+
+    @Nullable
+    private static JAXBContext getContext()
+    {
+        if (context == null && !contextFailed) {
+            synchronized (PooledJaxbProvider.class) {
+                if (context == null && !contextFailed) {
+                    try {
+                        context = JAXBContext.newInstance(ENTITY_CLASSES.toArray(new Class<?>[0]));
+                    } catch (JAXBException e) {
+                        Log.warn("Unable to create a JAXB context for all entity classes. Entities will be written by the default JAXB provider.", e);
+                        contextFailed = true;
+                    }
+                }
+            }
+        }
+        return context;
+    }
+}
@@ -19,6 +19,16 @@ package org.jivesoftware.openfire.plugin.rest;
 import org.jivesoftware.admin.AuthCheckFilter;
 import org.jivesoftware.openfire.container.Plugin;
 import org.jivesoftware.openfire.container.PluginManager;
+import org.jivesoftware.openfire.plugin.rest.controller.ChangeLogController;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
+import org.jivesoftware.openfire.plugin.rest.controller.EventsController;
+import org.jivesoftware.openfire.plugin.rest.controller.FragmentCacheController;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
+import org.jivesoftware.openfire.plugin.rest.controller.PropertyIndexController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserBulkController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserImportController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserSearchController;
+import org.jivesoftware.openfire.plugin.rest.controller.WebhooksController;
 import org.jivesoftware.openfire.plugin.rest.service.JerseyWrapper;
 import org.jivesoftware.openfire.stats.StatisticsManager;
 import org.jivesoftware.util.JiveGlobals;
@@ -84,6 +94,13 @@ public class RESTServicePlugin implements Plugin, PropertyEventListener {
             StatisticsManager.getInstance().addStatistic(statistic.getKeyName(), statistic);
             registeredStatisticKeys.add(statistic.getKeyName());
         }
+        final RequestCoalescingFilter.CoalescingRatioStatistic coalescingRatio = new RequestCoalescingFilter.CoalescingRatioStatistic();
+        StatisticsManager.getInstance().addStatistic(RequestCoalescingFilter.CoalescingRatioStatistic.KEY, coalescingRatio);
+        registeredStatisticKeys.add(RequestCoalescingFilter.CoalescingRatioStatistic.KEY);
+        StatisticsManager.getInstance().addStatistic(PropertyIndexController.MemoryStatistic.KEY, new PropertyIndexController.MemoryStatistic());
+        registeredStatisticKeys.add(PropertyIndexController.MemoryStatistic.KEY);
+        StatisticsManager.getInstance().addStatistic(PropertyIndexController.RebuildTimeStatistic.KEY, new PropertyIndexController.RebuildTimeStatistic());
+        registeredStatisticKeys.add(PropertyIndexController.RebuildTimeStatistic.KEY);
 
         // See if the service is enabled or not.
         enabled = JiveGlobals.getBooleanProperty("plugin.restapi.enabled", false);
@@ -101,12 +118,72 @@ public class RESTServicePlugin implements Plugin, PropertyEventListener {
 
         // Exclude this servlet from requering the user to login
         AuthCheckFilter.addExclude(JerseyWrapper.SERVLET_URL);
+
+        // Start collecting events for event stream subscribers.
+        EventsController.getInstance().start();
+
+        // Start recording changes to users, groups and chat rooms.
+        ChangeLogController.getInstance().start();
+
+        // Start tracking versions of entities, to be able to answer conditional requests.
+        EntityTagController.getInstance().start();
+
+        // Start discarding serialized entities that changed.
+        FragmentCacheController.getInstance().start();
+
+        // Start delivering events to webhooks.
+        WebhooksController.getInstance().start();
+
+        // Start the threads that import users.
+        UserImportController.getInstance().start();
+
+        // Start the threads that process users in bulk.
+        UserBulkController.getInstance().start();
+
+        // Start the threads that execute jobs.
+        JobsController.getInstance().start();
+
+        // Start indexing users for searching.
+        UserSearchController.getInstance().start();
+
+        // Start indexing the values of selected user properties.
+        PropertyIndexController.getInstance().start();
     }
 
     /* (non-Javadoc)
      * @see org.jivesoftware.openfire.container.Plugin#destroyPlugin()
      */
     public void destroyPlugin() {
+        // Stop indexing user properties.
+        PropertyIndexController.getInstance().stop();
+
+        // Stop indexing users.
+        UserSearchController.getInstance().stop();
+
+        // Stop executing jobs.
+        JobsController.getInstance().stop();
+
+        // Stop processing users in bulk.
+        UserBulkController.getInstance().stop();
+
+        // Stop importing users.
+        UserImportController.getInstance().stop();
+
+        // Stop delivering events to webhooks.
+        WebhooksController.getInstance().stop();
+
+        // Stop caching serialized entities.
+        FragmentCacheController.getInstance().stop();
+
+        // Stop tracking versions of entities.
+        EntityTagController.getInstance().stop();
+
+        // Stop recording changes.
+        ChangeLogController.getInstance().stop();
+
+        // Stop collecting events, and disconnect event stream subscribers.
+        EventsController.getInstance().stop();
+
         // Stop registering statistics.
         final Iterator<String> iter = registeredStatisticKeys.iterator();
         while (iter.hasNext()) {
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest;
+
+import org.jivesoftware.openfire.stats.i18nStatistic;
+import org.jivesoftware.util.StringUtils;
+import org.jivesoftware.util.SystemProperty;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets identical, concurrent requests to resource methods that are annotated with {@link Coalesced} share one
+ * response.
+ *
+ * Requests are identical when they are made with the same credentials, for the same resource, with the same query
+ * parameters and the same 'Accept' and 'If-None-Match' headers. The first of such requests (the 'leader') is processed
+ * as usual. Identical requests that arrive while the leader is being processed wait for it to finish, and are then
+ * answered with a copy of the serialized response of the leader. The response of the leader remains available for
+ * identical requests that arrive within a (configurable) freshness window after it finished.
+ *
+ * Only successful responses are shared. When processing of the leader fails, each of the waiting requests is
+ * processed by itself. Any request that modifies data (any request other than GET, HEAD and OPTIONS) discards all
+ * shared responses, so that a client never receives data from before its own modification.
+ */
+@Priority(Priorities.USER)
+public class RequestCoalescingFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor
+{
+    public static final SystemProperty<Boolean> ENABLED = SystemProperty.Builder.ofType(Boolean.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.coalescing.enabled")
+        .setDefaultValue(true)
+        .setDynamic(true)
+        .build();
+
+    public static final SystemProperty<Duration> FRESHNESS = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.coalescing.freshness")
+        .setDefaultValue(Duration.ofSeconds(1))
+        .setChronoUnit(ChronoUnit.MILLIS)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The maximum duration that a request waits for an identical request to finish, after which it is processed by
+     * itself.
+     */
+    static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+    /**
+     * The amount of shared responses above which responses that are no longer fresh are actively removed.
+     */
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private static final String FLIGHT_PROPERTY = RequestCoalescingFilter.class.getName() + ".flight";
+
+    private static final List<String> SHARED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+
+    private static final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /** Incremented whenever data is modified. Responses that were computed before that are no longer shared. */
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final AtomicLong coalescableRequests = new AtomicLong();
+    private static final AtomicLong sharedResponses = new AtomicLong();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException
+    {
+        if (!HttpMethod.GET.equals(requestContext.getMethod()) || !isCoalesced() || !ENABLED.getValue()) {
+            return;
+        }
+        coalescableRequests.incrementAndGet();
+
+        final String key = getKey(requestContext);
+        while (true) {
+            final long now = System.currentTimeMillis();
+            final Flight existing = flights.get(key);
+            if (existing == null || existing.isStale(now)) {
+                final Flight flight = new Flight(key, now, generation.get());
+                final boolean isLeader = existing == null ? flights.putIfAbsent(key, flight) == null : flights.replace(key, existing, flight);
+                if (isLeader) {
+                    if (flights.size() > SWEEP_THRESHOLD) {
+                        flights.values().removeIf(candidate -> candidate.isStale(now));
+                    }
+                    requestContext.setProperty(FLIGHT_PROPERTY, flight);
+                    return;
+                }
+                // Another request became the leader in the meantime.
+                continue;
+            }
+
+            final SharedResponse response = existing.await();
+            if (response != null) {
+                sharedResponses.incrementAndGet();
+                requestContext.abortWith(response.toResponse());
+            }
+            // When no response could be shared, this request is processed by itself.
+            return;
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException
+    {
+        final Flight flight = (Flight) requestContext.getProperty(FLIGHT_PROPERTY);
+        if (flight != null) {
+            if (responseContext.getStatus() != Response.Status.OK.getStatusCode() || !responseContext.hasEntity()) {
+                // Only successful responses are shared. The response entity is shared when it is written.
+                requestContext.removeProperty(FLIGHT_PROPERTY);
+                flight.abandon();
+            }
+            return;
+        }
+
+        switch (requestContext.getMethod()) {
+            case HttpMethod.GET:
+            case HttpMethod.HEAD:
+            case HttpMethod.OPTIONS:
+                break;
+            default:
+                generation.incrementAndGet();
+                flights.clear();
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException
+    {
+        final Flight flight = (Flight) context.getProperty(FLIGHT_PROPERTY);
+        if (flight == null) {
+            context.proceed();
+            return;
+        }
+        context.removeProperty(FLIGHT_PROPERTY);
+
+        // Serialize into a buffer first, so that a client that goes away does not affect the requests that wait for it.
+        final OutputStream original = context.getOutputStream();
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        context.setOutputStream(buffer);
+        try {
+            context.proceed();
+        } catch (IOException | RuntimeException e) {
+            flight.abandon();
+            throw e;
+        } finally {
+            context.setOutputStream(original);
+        }
+
+        final byte[] body = buffer.toByteArray();
+        flight.complete(new SharedResponse(body, context.getMediaType(), context.getHeaders()));
+        original.write(body);
+    }
+
+    private boolean isCoalesced()
+    {
+        final Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        return method != null && method.isAnnotationPresent(Coalesced.class);
+    }
+
+    @Nonnull
+    private static String getKey(@Nonnull final ContainerRequestContext requestContext)
+    {
+        final StringBuilder key = new StringBuilder();
+        key.append(getScope(requestContext)).append(' ');
+        key.append(requestContext.getUriInfo().getPath());
+        new TreeMap<>(requestContext.getUriInfo().getQueryParameters()).forEach((name, values) -> key.append(' ').append(name).append('=').append(values));
+        key.append(' ').append(requestContext.getHeaderString(HttpHeaders.ACCEPT));
+        key.append(' ').append(requestContext.getProperty(BinaryFormatFilter.RESPONSE_FORMAT_PROPERTY));
+        key.append(' ').append(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH));
+        return key.toString();
+    }
+
+    /**
+     * Identifies the credentials with which a request is made, so that responses are only shared between requests
+     * that are made with the same credentials. The credentials themselves are not retained.
+     */
+    @Nonnull
+    private static String getScope(@Nonnull final ContainerRequestContext requestContext)
+    {
+        final Principal principal = requestContext.getSecurityContext() == null ? null : requestContext.getSecurityContext().getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        final String authorization = requestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return "anonymous";
+        }
+        return "credentials:" + StringUtils.hash(authorization, "SHA-256");
+    }
+
+    /**
+     * The processing of a request of which the response is shared with identical requests.
+     */
+    private static class Flight
+    {
+        private final String key;
+        private final long started;
+        private final long generation;
+        private final CompletableFuture<SharedResponse> result = new CompletableFuture<>();
+        private volatile long completed;
+
+        Flight(@Nonnull final String key, final long started, final long generation)
+        {
+            this.key = key;
+            this.started = started;
+            this.generation = generation;
+        }
+
+        boolean isStale(final long now)
+        {
+            if (generation != RequestCoalescingFilter.generation.get()) {
+                return true;
+            }
+            if (!result.isDone()) {
+                // Guards against a leader of which the processing never finished (eg: because of an unhandled error).
+                return now - started > MAX_WAIT.toMillis();
+            }
+            return result.getNow(null) == null || now - completed > FRESHNESS.getValue().toMillis();
+        }
+
+        @Nullable
+        SharedResponse await()
+        {
+            final long remaining = started + MAX_WAIT.toMillis() - System.currentTimeMillis();
+            try {
+                return result.get(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | TimeoutException e) {
+                return null;
+            }
+        }
+
+        void complete(@Nonnull final SharedResponse response)
+        {
+            completed = System.currentTimeMillis();
+            result.complete(response);
+            if (FRESHNESS.getValue().isZero() || FRESHNESS.getValue().isNegative()) {
+                flights.remove(key, this);
+            }
+        }
+
+        void abandon()
+        {
+            flights.remove(key, this);
+            result.complete(null);
+        }
+    }
+
+    /**
+     * A serialized response that is shared between identical requests.
+     */
+    private static class SharedResponse
+    {
+        private final byte[] body;
+        private final MediaType mediaType;
+        private final Map<String, List<Object>> headers = new HashMap<>();
+
+        SharedResponse(@Nonnull final byte[] body, @Nullable final MediaType mediaType, @Nonnull final MultivaluedMap<String, Object> headers)
+        {
+            this.body = body;
+            this.mediaType = mediaType;
+            for (final String name : SHARED_HEADERS) {
+                final List<Object> values = headers.get(name);
+                if (values != null && !values.isEmpty()) {
+                    this.headers.put(name, new ArrayList<>(values));
+                }
+            }
+        }
+
+        @Nonnull
+        Response toResponse()
+        {
+            final Response.ResponseBuilder builder = Response.ok(body, mediaType);
+            headers.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+            return builder.build();
+        }
+    }
+
+    /**
+     * The percentage of requests to coalesced resource methods that were answered with a shared response.
+     */
+    public static class CoalescingRatioStatistic extends i18nStatistic
+    {
+        public static final String KEY = "restapi_coalescing.ratio";
+
+        public CoalescingRatioStatistic()
+        {
+            super(KEY, "restapi", Type.count);
+        }
+
+        @Override
+        public double sample()
+        {
+            final long total = coalescableRequests.getAndSet(0);
+            final long shared = sharedResponses.getAndSet(0);
+            return total == 0 ? 0 : Math.min(100, 100.0 * shared / total);
+        }
+
+        @Override
+        public boolean isPartialSample()
+        {
+            return false;
+        }
+    }
+}
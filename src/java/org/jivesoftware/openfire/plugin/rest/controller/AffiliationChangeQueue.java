@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.muc.Affiliation;
+import org.jivesoftware.openfire.muc.MultiUserChatService;
+import org.jivesoftware.openfire.plugin.rest.entity.AffiliationChangeResultEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces affiliation changes that are submitted concurrently for the same MUC room, so that they can be applied as
+ * one batch: under one acquisition of the room lock, followed by one cluster synchronisation of the room.
+ *
+ * A thread that submits a change either becomes responsible for processing the batch that contains it, or waits for
+ * the thread that already took that responsibility. Every submitter receives the outcome of its own change: a failure
+ * to apply one change does not affect the other changes in the same batch.
+ */
+class AffiliationChangeQueue
+{
+    /**
+     * Applies a batch of changes to one room. Implementations are expected to complete (or fail) each change in the
+     * batch individually. Changes that are left incomplete are failed by the queue.
+     */
+    @FunctionalInterface
+    interface BatchProcessor
+    {
+        void process(@Nonnull MultiUserChatService service, @Nonnull String roomName, @Nonnull List<AffiliationChange> batch) throws ServiceException;
+    }
+
+    /**
+     * How long a thread that does not process a batch itself waits, before re-checking if it needs to take over.
+     */
+    private static final long RETRY_INTERVAL_MS = 50;
+
+    private final ConcurrentMap<String, RoomQueue> queues = new ConcurrentHashMap<>();
+
+    private final BatchProcessor processor;
+
+    private final Supplier<Duration> window;
+
+    /**
+     * @param processor applies a batch of changes to a room
+     * @param window the amount of time that the processing thread waits for other changes to arrive before it starts processing a batch
+     */
+    AffiliationChangeQueue(@Nonnull final BatchProcessor processor, @Nonnull final Supplier<Duration> window)
+    {
+        this.processor = processor;
+        this.window = window;
+    }
+
+    /**
+     * Queues a change for a room, and blocks until that change has been applied (possibly as part of a batch that
+     * contains changes submitted by other threads).
+     *
+     * @param service The service that contains the chat room.
+     * @param roomName The name of the chat room.
+     * @param change The change to apply.
+     * @return The outcome of the change.
+     * @throws ServiceException When the change could not be applied.
+     */
+    @Nonnull
+    AffiliationChangeResultEntity submit(@Nonnull final MultiUserChatService service, @Nonnull final String roomName, @Nonnull final AffiliationChange change) throws ServiceException
+    {
+        final String key = service.getServiceName() + '/' + roomName;
+        final RoomQueue queue = queues.computeIfAbsent(key, k -> new RoomQueue());
+        queue.pending.add(change);
+
+        while (true) {
+            if (queue.processing.compareAndSet(false, true)) {
+                try {
+                    processPending(service, roomName, queue);
+                } finally {
+                    queue.processing.set(false);
+                    if (queue.pending.isEmpty()) {
+                        queues.remove(key, queue);
+                    }
+                }
+            }
+
+            try {
+                return change.outcome.get(RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Another thread is still processing a batch, or finished processing just before this change was queued. Check again.
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ServiceException) {
+                    throw (ServiceException) e.getCause();
+                }
+                throw new ServiceException("Could not apply modification to list of " + change.getAffiliation(), roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.INTERNAL_SERVER_ERROR, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceException("Interrupted while waiting for modification to list of " + change.getAffiliation() + " to be applied", roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.INTERNAL_SERVER_ERROR, e);
+            }
+        }
+    }
+
+    private void processPending(@Nonnull final MultiUserChatService service, @Nonnull final String roomName, @Nonnull final RoomQueue queue)
+    {
+        if (queue.pending.isEmpty()) {
+            return;
+        }
+
+        // Give other requests for the same room an opportunity to join this batch.
+        final long waitMillis = window.get().toMillis();
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final List<AffiliationChange> batch = new ArrayList<>();
+        AffiliationChange next;
+        while ((next = queue.pending.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        MUCRoomController.log("Applying " + batch.size() + " affiliation change(s) as one batch to room: " + roomName);
+        try {
+            processor.process(service, roomName, batch);
+        } catch (ServiceException | RuntimeException e) {
+            batch.forEach(change -> change.outcome.completeExceptionally(e));
+        } finally {
+            // Guard against a processor that did not account for every change: no submitter should wait forever.
+            batch.forEach(change -> change.outcome.completeExceptionally(new IllegalStateException("Affiliation change was not processed.")));
+        }
+    }
+
+    /**
+     * The changes that are waiting to be applied to one particular room.
+     */
+    private static class RoomQueue
+    {
+        final Queue<AffiliationChange> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean processing = new AtomicBoolean(false);
+    }
+
+    /**
+     * A request to add (or replace) the users that have a particular affiliation with a room.
+     */
+    static class AffiliationChange
+    {
+        private final Affiliation affiliation;
+        private final boolean replace;
+        private final boolean sendInvitations;
+        private final Collection<JID> jids;
+        private final CompletableFuture<AffiliationChangeResultEntity> outcome = new CompletableFuture<>();
+
+        /**
+         * @param affiliation the affiliation that is being modified
+         * @param replace true if users that are not in 'jids' are to lose the affiliation, false to only add users
+         * @param sendInvitations whether to send invitations to newly affiliated users
+         * @param jids the users to affiliate
+         */
+        AffiliationChange(@Nonnull final Affiliation affiliation, final boolean replace, final boolean sendInvitations, @Nonnull final Collection<JID> jids)
+        {
+            this.affiliation = affiliation;
+            this.replace = replace;
+            this.sendInvitations = sendInvitations;
+            this.jids = jids;
+        }
+
+        Affiliation getAffiliation() {
+            return affiliation;
+        }
+
+        boolean isReplace() {
+            return replace;
+        }
+
+        boolean isSendInvitations() {
+            return sendInvitations;
+        }
+
+        Collection<JID> getJids() {
+            return jids;
+        }
+
+        void complete(@Nonnull final AffiliationChangeResultEntity result) {
+            outcome.complete(result);
+        }
+
+        void fail(@Nonnull final Throwable cause) {
+            outcome.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.plugin.rest.entity.ChangeEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.ChangeEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.util.SystemProperty;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a log of recent changes to users, groups and chat rooms, so that clients can obtain the entities that changed
+ * since they last looked, rather than retrieving all entities again.
+ *
+ * The log holds a limited amount of changes, each with a sequence number. Clients use a token (that identifies a
+ * sequence number in the log) to obtain subsequent changes. When changes after that token have already been removed
+ * from the log, or when the token was issued before the log was last started (the log is not persisted), the client
+ * is told to retrieve all entities again.
+ *
+ * The log is kept by each cluster node separately, and contains the changes of which that node learns through the
+ * events that Openfire dispatches locally. Changes made on other cluster nodes might be missing. Openfire does not
+ * dispatch an event when the configuration of a chat room changes; such changes are only recorded when they are made
+ * through this plugin. Changes to the subject of a room, and the creation and destruction of rooms, are recorded
+ * regardless of how they are made.
+ */
+public class ChangeLogController {
+
+    public static final String TYPE_USER = "user";
+    public static final String TYPE_GROUP = "group";
+    public static final String TYPE_CHATROOM = "chatroom";
+
+    public static final String OPERATION_CREATED = "created";
+    public static final String OPERATION_MODIFIED = "modified";
+    public static final String OPERATION_DELETED = "deleted";
+
+    /**
+     * The maximum amount of changes that is kept in the change log.
+     */
+    public static final SystemProperty<Integer> LOG_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.changes.log-size")
+        .setDefaultValue(10000)
+        .setMinValue(1)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The maximum amount of changes that is returned in one response.
+     */
+    public static final SystemProperty<Integer> MAX_PAGE_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.changes.max-page-size")
+        .setDefaultValue(1000)
+        .setMinValue(1)
+        .setDynamic(true)
+        .build();
+
+    /** The Constant INSTANCE. */
+    private static ChangeLogController INSTANCE = null;
+
+    /** The changes, ordered by sequence number. Guarded by itself. */
+    private final ArrayDeque<Change> log = new ArrayDeque<>();
+
+    /** The sequence number of the last change. Guarded by {@link #log}. */
+    private long sequence = 0;
+
+    /** Identifies the period during which the log was running; part of each token. */
+    private String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Consumer<EventEntity> consumer = this::record;
+
+    /**
+     * Gets the single instance of ChangeLogController.
+     *
+     * @return single instance of ChangeLogController
+     */
+    public static synchronized ChangeLogController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new ChangeLogController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts recording changes. Tokens that were issued before are no longer valid.
+     */
+    public synchronized void start() {
+        synchronized (log) {
+            log.clear();
+            sequence = 0;
+            epoch = Long.toString(System.currentTimeMillis(), 36);
+        }
+        EventsController.getInstance().addConsumer(Set.of(EventsController.TOPIC_USERS, EventsController.TOPIC_GROUPS, EventsController.TOPIC_MUC), consumer);
+    }
+
+    /**
+     * Stops recording changes.
+     */
+    public synchronized void stop() {
+        EventsController.getInstance().removeConsumer(consumer);
+        synchronized (log) {
+            log.clear();
+        }
+    }
+
+    /**
+     * Returns the entities that changed after the position identified by a token. When an entity changed more than once,
+     * only its most recent change is returned.
+     *
+     * @param since the token that identifies the position after which changes are to be returned (null to obtain a
+     *              token for the current position, without changes)
+     * @param limit the maximum amount of changes to return (null for the maximum page size)
+     * @param hydrate true to include the current state of each entity that was not deleted
+     * @return the changes, and the token that identifies the position after these changes
+     * @throws ServiceException when the token is invalid
+     */
+    @Nonnull
+    public ChangeEntities getChanges(@Nullable final String since, @Nullable final Integer limit, final boolean hydrate) throws ServiceException {
+        final int maxResults = limit == null ? MAX_PAGE_SIZE.getValue() : Math.min(limit, MAX_PAGE_SIZE.getValue());
+
+        final List<Change> page = new ArrayList<>();
+        final String token;
+        final boolean more;
+        synchronized (log) {
+            final String currentToken = epoch + ":" + sequence;
+            if (since == null || since.isEmpty()) {
+                return new ChangeEntities(currentToken, false, false, new ArrayList<>());
+            }
+            final long after = parseToken(since);
+            if (after < 0 || after > sequence || (log.isEmpty() ? after < sequence : after < log.getFirst().sequence - 1)) {
+                return new ChangeEntities(currentToken, true, false, new ArrayList<>());
+            }
+
+            // The log is ordered, so the first relevant change is found by iterating from the newest one backwards.
+            final Iterator<Change> newestFirst = log.descendingIterator();
+            final Deque<Change> pending = new ArrayDeque<>();
+            while (newestFirst.hasNext()) {
+                final Change change = newestFirst.next();
+                if (change.sequence <= after) {
+                    break;
+                }
+                pending.addFirst(change);
+            }
+            while (!pending.isEmpty() && page.size() < maxResults) {
+                page.add(pending.removeFirst());
+            }
+            more = !pending.isEmpty();
+            token = page.isEmpty() ? currentToken : epoch + ":" + page.get(page.size() - 1).sequence;
+        }
+
+        // Report the most recent change per entity. An entity that was created in this page is reported as created,
+        // even when it was modified afterwards, so that clients know that it is new.
+        final Map<String, ChangeEntity> latest = new LinkedHashMap<>();
+        for (final Change change : page) {
+            final String key = change.type + '/' + change.id;
+            final ChangeEntity previous = latest.remove(key);
+            final String operation = previous != null && OPERATION_CREATED.equals(previous.getOperation()) && OPERATION_MODIFIED.equals(change.operation)
+                ? OPERATION_CREATED
+                : change.operation;
+            latest.put(key, new ChangeEntity(change.sequence, change.type, change.id, operation, change.timestamp));
+        }
+
+        final List<ChangeEntity> changes = new ArrayList<>(latest.values());
+        if (hydrate) {
+            changes.forEach(ChangeLogController::hydrate);
+        }
+        return new ChangeEntities(token, false, more, changes);
+    }
+
+    private long parseToken(@Nonnull final String token) throws ServiceException {
+        final int separator = token.lastIndexOf(':');
+        try {
+            if (separator <= 0) {
+                throw new NumberFormatException();
+            }
+            if (!epoch.equals(token.substring(0, separator))) {
+                // Issued by an earlier run of the change log.
+                return -1;
+            }
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new ServiceException("Invalid 'since' token: " + token, "changes", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    private void record(@Nonnull final EventEntity event) {
+        final Change change = toChange(event);
+        if (change == null) {
+            return;
+        }
+        synchronized (log) {
+            change.sequence = ++sequence;
+            log.addLast(change);
+            final int maxSize = LOG_SIZE.getValue();
+            while (log.size() > maxSize) {
+                log.removeFirst();
+            }
+        }
+    }
+
+    @Nullable
+    private static Change toChange(@Nonnull final EventEntity event) {
+        switch (event.getTopic()) {
+            case EventsController.TOPIC_USERS:
+                if (event.getJid() == null) {
+                    return null;
+                }
+                final String username = JID.unescapeNode(new JID(event.getJid()).getNode());
+                switch (event.getType()) {
+                    case "user_created": return new Change(TYPE_USER, username, OPERATION_CREATED, event.getTimestamp());
+                    case "user_modified": return new Change(TYPE_USER, username, OPERATION_MODIFIED, event.getTimestamp());
+                    case "user_deleted": return new Change(TYPE_USER, username, OPERATION_DELETED, event.getTimestamp());
+                    default: return null;
+                }
+            case EventsController.TOPIC_GROUPS:
+                switch (event.getType()) {
+                    case "group_created": return new Change(TYPE_GROUP, event.getGroup(), OPERATION_CREATED, event.getTimestamp());
+                    case "group_deleted": return new Change(TYPE_GROUP, event.getGroup(), OPERATION_DELETED, event.getTimestamp());
+                    default: return new Change(TYPE_GROUP, event.getGroup(), OPERATION_MODIFIED, event.getTimestamp()); // modification of the group, or of its members.
+                }
+            case EventsController.TOPIC_MUC:
+                switch (event.getType()) {
+                    case "room_created": return new Change(TYPE_CHATROOM, event.getRoom(), OPERATION_CREATED, event.getTimestamp());
+                    case "room_updated":
+                    case "subject_changed": return new Change(TYPE_CHATROOM, event.getRoom(), OPERATION_MODIFIED, event.getTimestamp());
+                    case "room_destroyed": return new Change(TYPE_CHATROOM, event.getRoom(), OPERATION_DELETED, event.getTimestamp());
+                    default: return null; // Occupants and messages are not part of the state of a room.
+                }
+            default:
+                return null;
+        }
+    }
+
+    private static void hydrate(@Nonnull final ChangeEntity change) {
+        if (OPERATION_DELETED.equals(change.getOperation())) {
+            return;
+        }
+        try {
+            switch (change.getType()) {
+                case TYPE_USER:
+                    change.setUser(UserServiceController.getInstance().getUserEntity(change.getId()));
+                    break;
+                case TYPE_GROUP:
+                    change.setGroup(GroupController.getInstance().getGroup(change.getId()));
+                    break;
+                case TYPE_CHATROOM:
+                    final JID roomJID = new JID(change.getId());
+                    final String domain = XMPPServer.getInstance().getServerInfo().getXMPPDomain();
+                    if (roomJID.getDomain().endsWith("." + domain)) {
+                        final String serviceName = roomJID.getDomain().substring(0, roomJID.getDomain().length() - domain.length() - 1);
+                        change.setChatRoom(MUCRoomController.getInstance().getChatRoom(roomJID.getNode(), serviceName, false));
+                    }
+                    break;
+            }
+        } catch (ServiceException e) {
+            // The entity was removed after the change was recorded. A later change in the log reflects that.
+        }
+    }
+
+    private static class Change {
+        long sequence;
+        final String type;
+        final String id;
+        final String operation;
+        final long timestamp;
+
+        Change(@Nonnull final String type, @Nonnull final String id, @Nonnull final String operation, final long timestamp) {
+            this.type = type;
+            this.id = id;
+            this.operation = operation;
+            this.timestamp = timestamp;
+        }
+    }
+}
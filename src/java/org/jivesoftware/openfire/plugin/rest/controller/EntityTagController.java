@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.util.PropertyEventDispatcher;
+import org.jivesoftware.util.PropertyEventListener;
+import org.jivesoftware.util.SystemProperty;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Computes entity tags (ETags) for representations of users, groups, chat rooms, chat services and system properties,
+ * so that requests that carry an up-to-date tag in an 'If-None-Match' header can be answered with '304 Not Modified'
+ * before the representation is computed.
+ *
+ * The tag of a user, a group or the system properties is derived from a version number, that changes whenever Openfire
+ * reports a change to the entity (or collection) that it describes. Versions are kept in a fixed amount of slots:
+ * entities that share a slot share a version, which keeps the memory used independent of the amount of entities.
+ * Openfire does not report all changes: changes made on other cluster nodes are not dispatched as events. Such a change
+ * can cause a stale '304 Not Modified' response. To limit how long that can happen, every such tag expires after a
+ * configurable duration.
+ *
+ * Many changes to chat rooms and chat services are not reported at all (such as changes made over XMPP or in the admin
+ * console). The tag of these collections is therefore a hash of their representation, which is computed for every
+ * request: that saves the transfer of an unchanged representation, but not the work of computing it.
+ */
+public class EntityTagController implements PropertyEventListener {
+
+    /**
+     * The maximum duration for which a tag remains valid, even when no change is observed. A zero duration disables
+     * the use of tags.
+     */
+    public static final SystemProperty<Duration> MAX_AGE = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.etag.max-age")
+        .setDefaultValue(Duration.ofSeconds(60))
+        .setChronoUnit(ChronoUnit.SECONDS)
+        .setDynamic(true)
+        .build();
+
+    private static final int SLOTS = 4096;
+
+    private static final String PROPERTIES = "properties";
+
+    private static final ObjectMapper MAPPER = CustomJacksonMapperProvider.createObjectMapper(new JsonFactory());
+
+    private static final List<Variant> VARIANTS = Variant.mediaTypes(MediaType.APPLICATION_XML_TYPE, MediaType.APPLICATION_JSON_TYPE).build();
+
+    /** The Constant INSTANCE. */
+    private static EntityTagController INSTANCE = null;
+
+    private final AtomicLongArray versions = new AtomicLongArray(SLOTS);
+
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    /** Distinguishes tags issued by different runs of this plugin, as versions are not persisted. */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Consumer<EventEntity> consumer = this::eventPublished;
+
+    /**
+     * Gets the single instance of EntityTagController.
+     *
+     * @return single instance of EntityTagController
+     */
+    public static synchronized EntityTagController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new EntityTagController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts observing changes.
+     */
+    public void start() {
+        EventsController.getInstance().addConsumer(Set.of(EventsController.TOPIC_USERS, EventsController.TOPIC_GROUPS), consumer);
+        PropertyEventDispatcher.addListener(this);
+    }
+
+    /**
+     * Stops observing changes.
+     */
+    public void stop() {
+        PropertyEventDispatcher.removeListener(this);
+        EventsController.getInstance().removeConsumer(consumer);
+    }
+
+    /**
+     * Evaluates the 'If-None-Match' precondition of a request for a representation of a user.
+     *
+     * @param request the request
+     * @param username the user that is requested
+     * @return the tag of the current representation (null when tags are disabled)
+     * @throws WebApplicationException with a '304 Not Modified' response, when the client has the current representation
+     */
+    @Nullable
+    public EntityTag checkUser(@Nonnull final Request request, @Nonnull final String username) {
+        // Keyed on the username the way Openfire stores it, which is also how the events that invalidate the tag name it.
+        String key;
+        try {
+            key = JID.nodeprep(username);
+        } catch (IllegalArgumentException e) {
+            key = username;
+        }
+        return check(request, "user:" + key);
+    }
+
+    /**
+     * Evaluates the 'If-None-Match' precondition of a request for a representation of a group.
+     *
+     * @param request the request
+     * @param groupName the group that is requested
+     * @return the tag of the current representation (null when tags are disabled)
+     * @throws WebApplicationException with a '304 Not Modified' response, when the client has the current representation
+     */
+    @Nullable
+    public EntityTag checkGroup(@Nonnull final Request request, @Nonnull final String groupName) {
+        return check(request, "group:" + groupName);
+    }
+
+    /**
+     * Evaluates the 'If-None-Match' precondition of a request for a representation of which changes are not reliably
+     * reported (such as the collections of chat rooms and chat services), by comparing a hash of the representation.
+     *
+     * @param request the request
+     * @param entity the representation
+     * @return the tag of the representation (null when tags are disabled)
+     * @throws WebApplicationException with a '304 Not Modified' response, when the client has the current representation
+     */
+    @Nullable
+    public EntityTag checkContent(@Nonnull final Request request, @Nonnull final Object entity) {
+        if (MAX_AGE.getValue().toMillis() <= 0) {
+            return null;
+        }
+        final byte[] digest;
+        try {
+            // The XML and JSON representations are derived from the same entity, so a hash of one identifies both.
+            digest = MessageDigest.getInstance("SHA-256").digest(MAPPER.writeValueAsBytes(entity));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            return null;
+        }
+        final MediaType mediaType = selectMediaType(request);
+        final EntityTag tag = new EntityTag(HexFormat.of().formatHex(digest, 0, 16) + '-' + mediaType.getSubtype());
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            throw new WebApplicationException(notModified.build());
+        }
+        return tag;
+    }
+
+    /**
+     * Evaluates the 'If-None-Match' precondition of a request for the collection of system properties.
+     *
+     * @param request the request
+     * @return the tag of the current representation (null when tags are disabled)
+     * @throws WebApplicationException with a '304 Not Modified' response, when the client has the current representation
+     */
+    @Nullable
+    public EntityTag checkSystemProperties(@Nonnull final Request request) {
+        return check(request, PROPERTIES);
+    }
+
+    @Nullable
+    private EntityTag check(@Nonnull final Request request, @Nonnull final String key, @Nonnull final Object... parameters) {
+        final long maxAge = MAX_AGE.getValue().toMillis();
+        if (maxAge <= 0) {
+            return null;
+        }
+
+        final MediaType mediaType = selectMediaType(request);
+
+        final long version = versions.get(slot(key));
+        final long period = System.currentTimeMillis() / maxAge;
+        final int variation = 31 * mediaType.getSubtype().hashCode() + Arrays.deepHashCode(parameters);
+        final EntityTag tag = new EntityTag(epoch + '-' + Long.toString(period, 36) + '-' + Long.toString(version, 36) + '-' + Integer.toHexString(variation));
+
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            throw new WebApplicationException(notModified.build());
+        }
+        return tag;
+    }
+
+    /**
+     * Representations differ per media type, so each media type has a different tag.
+     */
+    @Nonnull
+    private static MediaType selectMediaType(@Nonnull final Request request) {
+        final Variant variant = request.selectVariant(VARIANTS);
+        return variant == null ? MediaType.APPLICATION_XML_TYPE : variant.getMediaType();
+    }
+
+    private static int slot(@Nonnull final String key) {
+        return (key.hashCode() & 0x7fffffff) % SLOTS;
+    }
+
+    private void bump(@Nonnull final String key) {
+        versions.set(slot(key), sequence.incrementAndGet());
+    }
+
+    private void eventPublished(@Nonnull final EventEntity event) {
+        switch (event.getTopic()) {
+            case EventsController.TOPIC_USERS:
+                if (event.getJid() != null) {
+                    bump("user:" + JID.unescapeNode(new JID(event.getJid()).getNode()));
+                }
+                break;
+            case EventsController.TOPIC_GROUPS:
+                bump("group:" + event.getGroup());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.util.PropertyEventListener#propertySet(java.lang.String, java.util.Map)
+     */
+    public void propertySet(String property, Map<String, Object> params) {
+        bump(PROPERTIES);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.util.PropertyEventListener#propertyDeleted(java.lang.String, java.util.Map)
+     */
+    public void propertyDeleted(String property, Map<String, Object> params) {
+        bump(PROPERTIES);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.util.PropertyEventListener#xmlPropertySet(java.lang.String, java.util.Map)
+     */
+    public void xmlPropertySet(String property, Map<String, Object> params) {
+        // XML properties are not part of the representation of system properties.
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.util.PropertyEventListener#xmlPropertyDeleted(java.lang.String, java.util.Map)
+     */
+    public void xmlPropertyDeleted(String property, Map<String, Object> params) {
+        // XML properties are not part of the representation of system properties.
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A client that is connected to the event stream.
+ *
+ * Events for a subscriber are queued in a buffer of limited size, that is drained one event at a time by the threads of
+ * a shared executor of limited size.
+ * When the client does not keep up, and the buffer is full, either the oldest queued events are dropped (the client
+ * is informed of the amount of dropped events), or the client is disconnected. This prevents slow clients from
+ * causing unbounded memory usage.
+ */
+class EventSubscriber
+{
+    private final SseEventSink sink;
+    private final Sse sse;
+    private final Set<String> topics;
+    private final String room;
+    private final BlockingQueue<OutboundSseEvent> queue;
+    private final boolean disconnectOnOverflow;
+    private final Executor executor;
+    private final Consumer<EventSubscriber> onClose;
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    /**
+     * @param sink the connection to the client
+     * @param sse the factory for outbound events
+     * @param topics the topics for which the client receives events
+     * @param room the bare JID of the only chat room for which the client receives 'muc' events (null for all rooms)
+     * @param bufferSize the maximum amount of events queued for the client
+     * @param disconnectOnOverflow true to disconnect the client when the buffer overflows, false to drop the oldest events
+     * @param executor the executor that is used to send events to the client
+     * @param onClose invoked once, when the subscription ends
+     */
+    EventSubscriber(@Nonnull final SseEventSink sink, @Nonnull final Sse sse, @Nonnull final Set<String> topics, @Nullable final String room, final int bufferSize, final boolean disconnectOnOverflow, @Nonnull final Executor executor, @Nonnull final Consumer<EventSubscriber> onClose)
+    {
+        this.sink = sink;
+        this.sse = sse;
+        this.topics = topics;
+        this.room = room;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        this.disconnectOnOverflow = disconnectOnOverflow;
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    boolean acceptsTopic(@Nonnull final String topic)
+    {
+        return !closed.get() && topics.contains(topic);
+    }
+
+    boolean accepts(@Nonnull final EventEntity event)
+    {
+        if (!topics.contains(event.getTopic())) {
+            return false;
+        }
+        return room == null || !EventsController.TOPIC_MUC.equals(event.getTopic()) || room.equalsIgnoreCase(event.getRoom());
+    }
+
+    void offer(@Nonnull final EventEntity event)
+    {
+        enqueue(sse.newEventBuilder()
+            .id(Long.toString(event.getId()))
+            .name(event.getType())
+            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+            .data(EventEntity.class, event)
+            .build());
+    }
+
+    void keepAlive()
+    {
+        enqueue(sse.newEventBuilder().comment("keep-alive").build());
+    }
+
+    boolean isClosed()
+    {
+        return closed.get();
+    }
+
+    void close()
+    {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            try {
+                sink.close();
+            } catch (Exception e) {
+                EventsController.log("Unable to cleanly close event stream.", e);
+            }
+            onClose.accept(this);
+        }
+    }
+
+    private void enqueue(@Nonnull final OutboundSseEvent event)
+    {
+        if (closed.get()) {
+            return;
+        }
+        if (sink.isClosed()) {
+            close();
+            return;
+        }
+        while (!queue.offer(event)) {
+            if (disconnectOnOverflow) {
+                EventsController.log("Disconnecting event stream subscriber that does not keep up with events.");
+                close();
+                return;
+            }
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain()
+    {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    /**
+     * Sends the next queued event, and schedules the one after that once the event has been written. Each event is a
+     * separate task of the executor, so that the subscribers that share its threads take turns.
+     */
+    private void drain()
+    {
+        final OutboundSseEvent next;
+        final long droppedCount = dropped.getAndSet(0);
+        if (closed.get()) {
+            next = null;
+        } else if (droppedCount > 0) {
+            next = sse.newEventBuilder().name("dropped").data(String.class, Long.toString(droppedCount)).build();
+        } else {
+            next = queue.poll();
+        }
+
+        if (next == null) {
+            draining.set(false);
+            // Events may have been queued after the queue was found empty, but before 'draining' was reset.
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+            return;
+        }
+
+        try {
+            if (sink.isClosed()) {
+                throw new IllegalStateException("Event sink is closed.");
+            }
+            sink.send(next).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    // The client went away.
+                    draining.set(false);
+                    close();
+                    return;
+                }
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    close();
+                }
+            });
+        } catch (IllegalStateException e) {
+            // The client went away.
+            draining.set(false);
+            close();
+        }
+    }
+}
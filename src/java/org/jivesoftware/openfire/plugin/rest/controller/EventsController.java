@@ -0,0 +1,629 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.event.GroupEventDispatcher;
+import org.jivesoftware.openfire.event.GroupEventListener;
+import org.jivesoftware.openfire.event.SessionEventDispatcher;
+import org.jivesoftware.openfire.event.SessionEventListener;
+import org.jivesoftware.openfire.event.UserEventDispatcher;
+import org.jivesoftware.openfire.event.UserEventListener;
+import org.jivesoftware.openfire.group.Group;
+import org.jivesoftware.openfire.muc.MUCEventDispatcher;
+import org.jivesoftware.openfire.muc.MUCEventListener;
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.session.ClientSession;
+import org.jivesoftware.openfire.session.Session;
+import org.jivesoftware.openfire.user.PresenceEventDispatcher;
+import org.jivesoftware.openfire.user.PresenceEventListener;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.SystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.Message;
+import org.xmpp.packet.Presence;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collects session, presence, multi-user chat, user and group events from Openfire, and pushes these to subscribed
+ * clients, and to consumers within the plugin (such as webhooks).
+ *
+ * Events are only constructed when there is at least one subscriber or consumer for their topic.
+ */
+public class EventsController implements SessionEventListener, PresenceEventListener, MUCEventListener, UserEventListener, GroupEventListener {
+    private static final Logger LOG = LoggerFactory.getLogger(EventsController.class);
+
+    public static final String TOPIC_SESSIONS = "sessions";
+    public static final String TOPIC_PRESENCE = "presence";
+    public static final String TOPIC_MUC = "muc";
+    public static final String TOPIC_USERS = "users";
+    public static final String TOPIC_GROUPS = "groups";
+
+    /** All topics for which events are available. */
+    public static final Set<String> TOPICS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(TOPIC_SESSIONS, TOPIC_PRESENCE, TOPIC_MUC, TOPIC_USERS, TOPIC_GROUPS)));
+
+    /**
+     * The maximum amount of events that is queued for one subscriber that does not keep up.
+     */
+    public static final SystemProperty<Integer> BUFFER_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.events.buffer-size")
+        .setDefaultValue(1000)
+        .setMinValue(1)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * What to do when the buffer of a subscriber is full: drop the oldest events (false), or disconnect the subscriber (true).
+     */
+    public static final SystemProperty<Boolean> DISCONNECT_ON_OVERFLOW = SystemProperty.Builder.ofType(Boolean.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.events.disconnect-on-overflow")
+        .setDefaultValue(false)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The maximum amount of clients that can concurrently be subscribed to events.
+     */
+    public static final SystemProperty<Integer> MAX_SUBSCRIBERS = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.events.max-subscribers")
+        .setDefaultValue(50)
+        .setMinValue(0)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The interval at which a comment is sent to subscribers, to keep connections open and to detect disconnected clients.
+     */
+    public static final SystemProperty<Duration> KEEP_ALIVE_INTERVAL = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.events.keep-alive-interval")
+        .setDefaultValue(Duration.ofSeconds(30))
+        .setChronoUnit(ChronoUnit.SECONDS)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum amount of threads that send events to subscribers.
+     */
+    public static final SystemProperty<Integer> SENDER_THREADS = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.events.sender-threads")
+        .setDefaultValue(4)
+        .setMinValue(1)
+        .setMaxValue(64)
+        .setDynamic(false)
+        .build();
+
+    /** The Constant INSTANCE. */
+    private static EventsController INSTANCE = null;
+
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Map<Consumer<EventEntity>, Set<String>> consumers = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    private ExecutorService senders;
+
+    private ScheduledExecutorService keepAlive;
+
+    /**
+     * Gets the single instance of EventsController.
+     *
+     * @return single instance of EventsController
+     */
+    public static synchronized EventsController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new EventsController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    public static void log(String logMessage, Throwable t) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage, t);
+        }
+    }
+
+    /**
+     * Starts listening for events in Openfire.
+     */
+    public synchronized void start() {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        // Every subscriber has at most one task queued, so the queue is bounded by the amount of subscribers.
+        final int threads = SENDER_THREADS.getValue();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        senders = executor;
+        keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-events-keep-alive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = KEEP_ALIVE_INTERVAL.getValue().toMillis();
+        keepAlive.scheduleAtFixedRate(() -> subscribers.forEach(EventSubscriber::keepAlive), interval, interval, TimeUnit.MILLISECONDS);
+
+        SessionEventDispatcher.addListener(this);
+        PresenceEventDispatcher.addListener(this);
+        MUCEventDispatcher.addListener(this);
+        UserEventDispatcher.addListener(this);
+        GroupEventDispatcher.addListener(this);
+    }
+
+    /**
+     * Stops listening for events in Openfire, and disconnects all subscribers.
+     */
+    public synchronized void stop() {
+        GroupEventDispatcher.removeListener(this);
+        UserEventDispatcher.removeListener(this);
+        MUCEventDispatcher.removeListener(this);
+        PresenceEventDispatcher.removeListener(this);
+        SessionEventDispatcher.removeListener(this);
+
+        new ArrayList<>(subscribers).forEach(EventSubscriber::close);
+        subscribers.clear();
+
+        if (keepAlive != null) {
+            keepAlive.shutdownNow();
+            keepAlive = null;
+        }
+        if (senders != null) {
+            senders.shutdownNow();
+            senders = null;
+        }
+    }
+
+    /**
+     * Subscribes a client to events. Events are pushed to the client until it disconnects.
+     *
+     * @param sink the connection to the client
+     * @param sse the factory for outbound events
+     * @param topics the topics for which the client is to receive events
+     * @param room the bare JID of the only chat room for which the client is to receive 'muc' events (null for all rooms)
+     * @throws ServiceException when the maximum amount of subscribers has been reached
+     */
+    public void subscribe(@Nonnull final SseEventSink sink, @Nonnull final Sse sse, @Nonnull final Set<String> topics, @Nullable final String room) throws ServiceException {
+        final ExecutorService executor = senders;
+        if (executor == null) {
+            throw new ServiceException("The event stream is not available.", "events", ExceptionType.NOT_ALLOWED, Response.Status.SERVICE_UNAVAILABLE);
+        }
+
+        // Checking the limit and adding the subscriber is atomic, so that concurrent subscriptions cannot exceed the
+        // limit. Subscribers are removed without the lock: that only makes room.
+        final EventSubscriber subscriber;
+        final int count;
+        synchronized (subscribers) {
+            if (subscribers.size() >= MAX_SUBSCRIBERS.getValue()) {
+                throw new ServiceException("The maximum amount of event stream subscribers has been reached.", "events", ExceptionType.NOT_ALLOWED, Response.Status.SERVICE_UNAVAILABLE);
+            }
+            subscriber = new EventSubscriber(sink, sse, topics, room, BUFFER_SIZE.getValue(), DISCONNECT_ON_OVERFLOW.getValue(), executor, subscribers::remove);
+            subscribers.add(subscriber);
+            count = subscribers.size();
+        }
+        log("New event stream subscriber for topics " + topics + (room != null ? " (room: " + room + ")" : "") + ". Amount of subscribers: " + count);
+
+        // Send something immediately, so that the client knows that the subscription is active.
+        subscriber.keepAlive();
+    }
+
+    /**
+     * Returns the amount of clients that are currently subscribed to events.
+     *
+     * @return an amount of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Registers a consumer within the plugin that is to receive events of particular topics.
+     *
+     * Consumers are invoked on the thread that causes the event, and should therefore return quickly.
+     *
+     * @param topics the topics of the events that the consumer is to receive
+     * @param consumer the consumer to add
+     */
+    public void addConsumer(@Nonnull final Set<String> topics, @Nonnull final Consumer<EventEntity> consumer) {
+        consumers.put(consumer, Set.copyOf(topics));
+    }
+
+    /**
+     * Removes a consumer that was registered with {@link #addConsumer(Set, Consumer)}.
+     *
+     * @param consumer the consumer to remove
+     */
+    public void removeConsumer(@Nonnull final Consumer<EventEntity> consumer) {
+        consumers.remove(consumer);
+    }
+
+    /**
+     * Publishes the update of the configuration of a chat room. Openfire does not emit an event for this, which is why
+     * it is invoked by this plugin when it updates a room.
+     *
+     * @param roomJID the address of the room that was updated
+     */
+    public void roomUpdated(@Nonnull final JID roomJID) {
+        publishRoomEvent("room_updated", roomJID, null, null);
+    }
+
+    private boolean isObserved(@Nonnull final String topic) {
+        for (final Set<String> topics : consumers.values()) {
+            if (topics.contains(topic)) {
+                return true;
+            }
+        }
+        for (final EventSubscriber subscriber : subscribers) {
+            if (subscriber.acceptsTopic(topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publish(@Nonnull final EventEntity event) {
+        event.setId(sequence.incrementAndGet());
+        for (final EventSubscriber subscriber : subscribers) {
+            if (!subscriber.isClosed() && subscriber.accepts(event)) {
+                subscriber.offer(event);
+            }
+        }
+        for (final Map.Entry<Consumer<EventEntity>, Set<String>> consumer : consumers.entrySet()) {
+            if (!consumer.getValue().contains(event.getTopic())) {
+                continue;
+            }
+            try {
+                consumer.getKey().accept(event);
+            } catch (Exception e) {
+                LOG.warn("An event consumer failed to process event {}.", event.getId(), e);
+            }
+        }
+    }
+
+    private void publishSessionEvent(@Nonnull final String type, @Nonnull final Session session) {
+        if (!isObserved(TOPIC_SESSIONS)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_SESSIONS, type);
+        if (session.getAddress() != null) {
+            event.setJid(session.getAddress().toString());
+        }
+        publish(event);
+    }
+
+    private void publishPresenceEvent(@Nonnull final String type, @Nonnull final ClientSession session, @Nullable final Presence presence) {
+        if (!isObserved(TOPIC_PRESENCE)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_PRESENCE, type);
+        if (session.getAddress() != null) {
+            event.setJid(session.getAddress().toString());
+        }
+        if (presence != null) {
+            if (presence.getShow() != null) {
+                event.setShow(presence.getShow().name());
+            }
+            event.setStatus(presence.getStatus());
+        }
+        publish(event);
+    }
+
+    private void publishRoomEvent(@Nonnull final String type, @Nonnull final JID roomJID, @Nullable final JID user, @Nullable final String nickname) {
+        if (!isObserved(TOPIC_MUC)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_MUC, type);
+        event.setRoom(roomJID.toBareJID());
+        if (user != null) {
+            event.setJid(user.toString());
+        }
+        event.setNickname(nickname);
+        publish(event);
+    }
+
+    private void publishUserEvent(@Nonnull final String type, @Nonnull final User user) {
+        if (!isObserved(TOPIC_USERS)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_USERS, type);
+        event.setJid(XMPPServer.getInstance().createJID(user.getUsername(), null).toBareJID());
+        publish(event);
+    }
+
+    private void publishGroupEvent(@Nonnull final String type, @Nonnull final Group group, @Nullable final Object member) {
+        if (!isObserved(TOPIC_GROUPS)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_GROUPS, type);
+        event.setGroup(group.getName());
+        if (member != null) {
+            event.setJid(member.toString());
+        }
+        publish(event);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.SessionEventListener#sessionCreated(org.jivesoftware.openfire.session.Session)
+     */
+    public void sessionCreated(Session session) {
+        publishSessionEvent("session_created", session);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.SessionEventListener#sessionDestroyed(org.jivesoftware.openfire.session.Session)
+     */
+    public void sessionDestroyed(Session session) {
+        publishSessionEvent("session_destroyed", session);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.SessionEventListener#anonymousSessionCreated(org.jivesoftware.openfire.session.Session)
+     */
+    public void anonymousSessionCreated(Session session) {
+        publishSessionEvent("session_created", session);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.SessionEventListener#anonymousSessionDestroyed(org.jivesoftware.openfire.session.Session)
+     */
+    public void anonymousSessionDestroyed(Session session) {
+        publishSessionEvent("session_destroyed", session);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.SessionEventListener#resourceBound(org.jivesoftware.openfire.session.Session)
+     */
+    public void resourceBound(Session session) {
+        // Do nothing
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.user.PresenceEventListener#availableSession(org.jivesoftware.openfire.session.ClientSession, org.xmpp.packet.Presence)
+     */
+    public void availableSession(ClientSession session, Presence presence) {
+        publishPresenceEvent("available", session, presence);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.user.PresenceEventListener#unavailableSession(org.jivesoftware.openfire.session.ClientSession, org.xmpp.packet.Presence)
+     */
+    public void unavailableSession(ClientSession session, Presence presence) {
+        publishPresenceEvent("unavailable", session, presence);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.user.PresenceEventListener#presenceChanged(org.jivesoftware.openfire.session.ClientSession, org.xmpp.packet.Presence)
+     */
+    public void presenceChanged(ClientSession session, Presence presence) {
+        publishPresenceEvent("changed", session, presence);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.user.PresenceEventListener#subscribedToPresence(org.xmpp.packet.JID, org.xmpp.packet.JID)
+     */
+    public void subscribedToPresence(JID subscriberJID, JID authorizerJID) {
+        // Do nothing
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.user.PresenceEventListener#unsubscribedToPresence(org.xmpp.packet.JID, org.xmpp.packet.JID)
+     */
+    public void unsubscribedToPresence(JID unsubscriberJID, JID recipientJID) {
+        // Do nothing
+    }
+
+    // Depending on the version of Openfire, room creation, destruction and history clearing events do or do not carry
+    // the database ID of the room. Both variants are implemented, to remain compatible (similar to MUCRoomUtils#send).
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#roomCreated(org.xmpp.packet.JID)
+     */
+    public void roomCreated(JID roomJID) {
+        publishRoomEvent("room_created", roomJID, null, null);
+    }
+
+    public void roomCreated(long roomID, JID roomJID) {
+        roomCreated(roomJID);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#roomDestroyed(org.xmpp.packet.JID)
+     */
+    public void roomDestroyed(JID roomJID) {
+        publishRoomEvent("room_destroyed", roomJID, null, null);
+    }
+
+    public void roomDestroyed(long roomID, JID roomJID) {
+        roomDestroyed(roomJID);
+    }
+
+    public void roomClearChatHistory(JID roomJID) {
+        // Do nothing
+    }
+
+    public void roomClearChatHistory(long roomID, JID roomJID) {
+        // Do nothing
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#occupantJoined(org.xmpp.packet.JID, org.xmpp.packet.JID, java.lang.String)
+     */
+    public void occupantJoined(JID roomJID, JID user, String nickname) {
+        publishRoomEvent("occupant_joined", roomJID, user, nickname);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#occupantLeft(org.xmpp.packet.JID, org.xmpp.packet.JID, java.lang.String)
+     */
+    public void occupantLeft(JID roomJID, JID user, String nickname) {
+        publishRoomEvent("occupant_left", roomJID, user, nickname);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#occupantNickKicked(org.xmpp.packet.JID, java.lang.String)
+     */
+    public void occupantNickKicked(JID roomJID, String nickname) {
+        publishRoomEvent("occupant_left", roomJID, null, nickname);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#nicknameChanged(org.xmpp.packet.JID, org.xmpp.packet.JID, java.lang.String, java.lang.String)
+     */
+    public void nicknameChanged(JID roomJID, JID user, String oldNickname, String newNickname) {
+        publishRoomEvent("nickname_changed", roomJID, user, newNickname);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#messageReceived(org.xmpp.packet.JID, org.xmpp.packet.JID, java.lang.String, org.xmpp.packet.Message)
+     */
+    public void messageReceived(JID roomJID, JID user, String nickname, Message message) {
+        if (!isObserved(TOPIC_MUC) || message.getBody() == null) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_MUC, "room_message");
+        event.setRoom(roomJID.toBareJID());
+        if (user != null) {
+            event.setJid(user.toString());
+        }
+        event.setNickname(nickname);
+        event.setBody(message.getBody());
+        publish(event);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#privateMessageRecieved(org.xmpp.packet.JID, org.xmpp.packet.JID, org.xmpp.packet.Message)
+     */
+    public void privateMessageRecieved(JID toJID, JID fromJID, Message message) {
+        // Private messages are not exposed.
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.muc.MUCEventListener#roomSubjectChanged(org.xmpp.packet.JID, org.xmpp.packet.JID, java.lang.String)
+     */
+    public void roomSubjectChanged(JID roomJID, JID user, String newSubject) {
+        if (!isObserved(TOPIC_MUC)) {
+            return;
+        }
+        final EventEntity event = new EventEntity(TOPIC_MUC, "subject_changed");
+        event.setRoom(roomJID.toBareJID());
+        if (user != null) {
+            event.setJid(user.toString());
+        }
+        event.setStatus(newSubject);
+        publish(event);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.UserEventListener#userCreated(org.jivesoftware.openfire.user.User, java.util.Map)
+     */
+    public void userCreated(User user, Map<String, Object> params) {
+        publishUserEvent("user_created", user);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.UserEventListener#userDeleting(org.jivesoftware.openfire.user.User, java.util.Map)
+     */
+    public void userDeleting(User user, Map<String, Object> params) {
+        publishUserEvent("user_deleted", user);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.UserEventListener#userModified(org.jivesoftware.openfire.user.User, java.util.Map)
+     */
+    public void userModified(User user, Map<String, Object> params) {
+        publishUserEvent("user_modified", user);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#groupCreated(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void groupCreated(Group group, Map params) {
+        publishGroupEvent("group_created", group, null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#groupDeleting(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void groupDeleting(Group group, Map params) {
+        publishGroupEvent("group_deleted", group, null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#groupModified(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void groupModified(Group group, Map params) {
+        publishGroupEvent("group_modified", group, null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#memberAdded(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void memberAdded(Group group, Map params) {
+        publishGroupEvent("member_added", group, params != null ? params.get("member") : null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#memberRemoved(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void memberRemoved(Group group, Map params) {
+        publishGroupEvent("member_removed", group, params != null ? params.get("member") : null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#adminAdded(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void adminAdded(Group group, Map params) {
+        publishGroupEvent("admin_added", group, params != null ? params.get("admin") : null);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jivesoftware.openfire.event.GroupEventListener#adminRemoved(org.jivesoftware.openfire.group.Group, java.util.Map)
+     */
+    public void adminRemoved(Group group, Map params) {
+        publishGroupEvent("admin_removed", group, params != null ? params.get("admin") : null);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.muc.MultiUserChatService;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.util.SystemProperty;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the serialized (JSON and XML) forms of users, groups and chat rooms, so that lists of these entities can be
+ * written by concatenating previously serialized fragments, rather than by serializing every entity for every request.
+ *
+ * A fragment is only used when the entity that it was serialized from is equal to the entity that is to be written.
+ * That makes the cache correct even for changes of which Openfire does not dispatch an event (such as changes made on
+ * other cluster nodes). Fragments of entities that Openfire reports to have changed or to have been removed are
+ * discarded, so that the cache does not retain fragments that can no longer be used.
+ *
+ * The size of the cache is bounded in bytes. The size of an entry is estimated as the size of its fragments, plus the
+ * size of the largest fragment for the entity that is kept to compare with. When the cache is full, new entries are not
+ * cached.
+ */
+public class FragmentCacheController {
+
+    /**
+     * Enables writing lists of entities from cached fragments.
+     */
+    public static final SystemProperty<Boolean> ENABLED = SystemProperty.Builder.ofType(Boolean.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.fragments.enabled")
+        .setDefaultValue(true)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The maximum (estimated) size of the cached fragments, in bytes.
+     */
+    public static final SystemProperty<Long> MAX_SIZE = SystemProperty.Builder.ofType(Long.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.fragments.max-size")
+        .setDefaultValue(64L * 1024 * 1024)
+        .setMinValue(0L)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The serialization formats for which fragments are kept.
+     */
+    public enum Format {
+        JSON,
+        XML
+    }
+
+    /**
+     * Serializes an entity into a fragment.
+     */
+    @FunctionalInterface
+    public interface Serializer {
+        @Nonnull
+        byte[] serialize(@Nonnull Object entity) throws IOException;
+    }
+
+    /** The Constant INSTANCE. */
+    private static FragmentCacheController INSTANCE = null;
+
+    private final ConcurrentMap<String, Fragment> fragments = new ConcurrentHashMap<>();
+
+    /** The sum of the sizes of the cached fragments. Only changed while a mapping of {@link #fragments} is computed. */
+    private final AtomicLong size = new AtomicLong();
+
+    private final Consumer<EventEntity> consumer = this::eventPublished;
+
+    /**
+     * Gets the single instance of FragmentCacheController.
+     *
+     * @return single instance of FragmentCacheController
+     */
+    public static synchronized FragmentCacheController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new FragmentCacheController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts observing changes.
+     */
+    public void start() {
+        EventsController.getInstance().addConsumer(Set.of(EventsController.TOPIC_USERS, EventsController.TOPIC_GROUPS, EventsController.TOPIC_MUC), consumer);
+    }
+
+    /**
+     * Stops observing changes, and discards all fragments.
+     */
+    public void stop() {
+        EventsController.getInstance().removeConsumer(consumer);
+        fragments.keySet().forEach(this::discard);
+    }
+
+    /**
+     * Returns the key under which the fragments of a chat room are cached.
+     *
+     * @param serviceName the name of the MUC service of the room
+     * @param roomName the name of the room
+     * @return the key of the room
+     */
+    @Nonnull
+    public static String getChatRoomKey(@Nonnull final String serviceName, @Nonnull final String roomName) {
+        return "chatRoom:" + serviceName + '/' + roomName;
+    }
+
+    /**
+     * @return the (estimated) size of the cached fragments, in bytes
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    /**
+     * Returns the serialized form of an entity, from cache when the entity did not change since it was last
+     * serialized.
+     *
+     * @param key identifies the entity (eg: 'user:john')
+     * @param entity the entity
+     * @param format the format of the serialized form
+     * @param serializer used to serialize the entity when no usable fragment is cached
+     * @return the serialized form of the entity
+     * @throws IOException when the entity cannot be serialized
+     */
+    @Nonnull
+    public byte[] getFragment(@Nonnull final String key, @Nonnull final Object entity, @Nonnull final Format format, @Nonnull final Serializer serializer) throws IOException {
+        if (!ENABLED.getValue()) {
+            return serializer.serialize(entity);
+        }
+
+        final Fragment cached = fragments.get(key);
+        if (cached != null && cached.entity.equals(entity)) {
+            final byte[] result = cached.get(format);
+            if (result != null) {
+                return result;
+            }
+            final byte[] serialized = serializer.serialize(entity);
+            store(key, cached, cached.with(format, serialized));
+            return serialized;
+        }
+
+        final byte[] serialized = serializer.serialize(entity);
+        store(key, cached, new Fragment(entity, null, null).with(format, serialized));
+        return serialized;
+    }
+
+    /**
+     * Replaces the fragment of an entity, unless it was changed in the meantime. When the replacement does not fit in
+     * the cache, the entity is no longer cached.
+     *
+     * @param key identifies the entity
+     * @param expected the fragment that is replaced (null when there was none)
+     * @param replacement the new fragment
+     */
+    private void store(@Nonnull final String key, @Nullable final Fragment expected, @Nonnull final Fragment replacement) {
+        fragments.compute(key, (k, current) -> {
+            if (current != expected) {
+                return current;
+            }
+            final long released = current == null ? 0 : current.size;
+            if (size.get() - released + replacement.size > MAX_SIZE.getValue()) {
+                size.addAndGet(-released);
+                return null;
+            }
+            size.addAndGet(replacement.size - released);
+            return replacement;
+        });
+    }
+
+    private void discard(@Nonnull final String key) {
+        fragments.computeIfPresent(key, (k, current) -> {
+            size.addAndGet(-current.size);
+            return null;
+        });
+    }
+
+    private void eventPublished(@Nonnull final EventEntity event) {
+        switch (event.getTopic()) {
+            case EventsController.TOPIC_USERS:
+                if (event.getJid() != null) {
+                    discard("user:" + JID.unescapeNode(new JID(event.getJid()).getNode()));
+                }
+                break;
+            case EventsController.TOPIC_GROUPS:
+                discard("group:" + event.getGroup());
+                break;
+            case EventsController.TOPIC_MUC:
+                switch (event.getType()) {
+                    case "room_updated":
+                    case "room_destroyed":
+                    case "subject_changed":
+                        if (event.getRoom() != null) {
+                            final JID room = new JID(event.getRoom());
+                            final MultiUserChatService service = XMPPServer.getInstance().getMultiUserChatManager().getMultiUserChatService(room);
+                            if (service != null && room.getNode() != null) {
+                                discard(getChatRoomKey(service.getServiceName(), room.getNode()));
+                            }
+                        }
+                        break;
+                    default:
+                        // Occupants and messages are not part of the representation of a room.
+                        break;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * The serialized forms of one entity. Instances are immutable, so that their size does not change while cached.
+     */
+    private static class Fragment {
+        private final Object entity;
+        private final byte[] json;
+        private final byte[] xml;
+        private final long size;
+
+        Fragment(@Nonnull final Object entity, @Nullable final byte[] json, @Nullable final byte[] xml) {
+            this.entity = entity;
+            this.json = json;
+            this.xml = xml;
+            final int jsonSize = json == null ? 0 : json.length;
+            final int xmlSize = xml == null ? 0 : xml.length;
+            // The entity itself is estimated to be as large as its largest serialized form.
+            this.size = jsonSize + xmlSize + Math.max(jsonSize, xmlSize);
+        }
+
+        byte[] get(@Nonnull final Format format) {
+            return format == Format.JSON ? json : xml;
+        }
+
+        @Nonnull
+        Fragment with(@Nonnull final Format format, @Nonnull final byte[] serialized) {
+            return format == Format.JSON ? new Fragment(entity, serialized, xml) : new Fragment(entity, json, serialized);
+        }
+    }
+}
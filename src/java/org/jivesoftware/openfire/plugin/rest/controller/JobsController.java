@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.JobResultEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.SystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes operations that can take longer than a client or proxy is willing to wait for a response, in the
+ * background. A client that submits such an operation as a job receives the identifier of the job, with which it can
+ * obtain the progress, the (partial) results and the outcome of the job, or cancel it.
+ *
+ * Jobs are executed by a limited amount of threads. A limited amount of jobs can wait for a thread; further jobs are
+ * refused. Finished jobs are kept for a limited time, and only up to a limited amount.
+ */
+public class JobsController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobsController.class);
+
+    /**
+     * The amount of jobs that is executed at the same time. Changes are applied when the plugin is restarted.
+     */
+    public static final SystemProperty<Integer> PARALLELISM = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.jobs.parallelism")
+        .setDefaultValue(2)
+        .setMinValue(1)
+        .setMaxValue(64)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The amount of jobs that can wait to be executed. Changes are applied when the plugin is restarted.
+     */
+    public static final SystemProperty<Integer> QUEUE_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.jobs.queue-size")
+        .setDefaultValue(100)
+        .setMinValue(1)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum amount of finished jobs that is kept.
+     */
+    public static final SystemProperty<Integer> MAX_RETAINED = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.jobs.max-retained")
+        .setDefaultValue(1000)
+        .setMinValue(0)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The duration for which a finished job is kept.
+     */
+    public static final SystemProperty<Duration> RETENTION = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.jobs.retention")
+        .setDefaultValue(Duration.ofHours(1))
+        .setChronoUnit(ChronoUnit.MINUTES)
+        .setDynamic(true)
+        .build();
+
+    /** The Constant INSTANCE. */
+    private static JobsController INSTANCE = null;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Gets the single instance of JobsController.
+     *
+     * @return single instance of JobsController
+     */
+    public static synchronized JobsController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new JobsController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    /**
+     * Starts the threads that execute jobs.
+     */
+    public synchronized void start() {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        executor = new ThreadPoolExecutor(PARALLELISM.getValue(), PARALLELISM.getValue(), 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE.getValue()), runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-jobs-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops executing jobs. Jobs that have not finished are cancelled, and all jobs are forgotten.
+     */
+    public synchronized void stop() {
+        jobs.values().forEach(Job::cancel);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        jobs.clear();
+    }
+
+    /**
+     * Submits an operation for execution in the background.
+     *
+     * @param type describes the operation
+     * @param task the operation
+     * @return the state of the job that executes the operation
+     * @throws ServiceException when too many jobs are waiting to be executed
+     */
+    @Nonnull
+    public JobEntity submit(@Nonnull final String type, @Nonnull final Task task) throws ServiceException {
+        purge();
+        final Job job = new Job(UUID.randomUUID().toString(), type);
+        synchronized (this) {
+            if (executor == null) {
+                throw new ServiceException("Jobs cannot be executed", type, ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE);
+            }
+            try {
+                jobs.put(job.id, job);
+                job.future = executor.submit(() -> job.run(task));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw new ServiceException("Too many jobs are waiting to be executed", type, ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE);
+            }
+        }
+        log("Submitted job " + job.id + " (" + type + ")");
+        return job.toEntity();
+    }
+
+    /**
+     * Returns the state of a job.
+     *
+     * @param id the identifier of the job
+     * @return the state of the job
+     * @throws ServiceException when the job does not exist (anymore)
+     */
+    @Nonnull
+    public JobEntity getJob(@Nonnull final String id) throws ServiceException {
+        return getAndCheckJob(id).toEntity();
+    }
+
+    /**
+     * Returns the state of all jobs that are queued, running, or finished recently. The results of the jobs are not
+     * included.
+     *
+     * @return the jobs, most recently created first
+     */
+    @Nonnull
+    public JobEntities getJobs() {
+        purge();
+        final List<JobEntity> entities = new ArrayList<>();
+        jobs.values().stream()
+            .sorted(Comparator.comparingLong((Job job) -> job.created).reversed())
+            .forEach(job -> {
+                final JobEntity entity = job.toEntity();
+                entity.setResults(null);
+                entities.add(entity);
+            });
+        return new JobEntities(entities);
+    }
+
+    /**
+     * Cancels a job. A job that is queued does not start. A job that is running stops before its next item. Cancelling
+     * a job that finished has no effect.
+     *
+     * @param id the identifier of the job
+     * @return the state of the job
+     * @throws ServiceException when the job does not exist (anymore)
+     */
+    @Nonnull
+    public JobEntity cancel(@Nonnull final String id) throws ServiceException {
+        final Job job = getAndCheckJob(id);
+        job.cancel();
+        log("Cancelled job " + id);
+        return job.toEntity();
+    }
+
+    @Nonnull
+    private Job getAndCheckJob(@Nonnull final String id) throws ServiceException {
+        purge();
+        final Job job = jobs.get(id);
+        if (job == null) {
+            throw new ServiceException("Could not find job", id, ExceptionType.JOB_NOT_FOUND, Response.Status.NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * Forgets finished jobs that expired, and the oldest finished jobs when more finished jobs are kept than allowed.
+     */
+    private void purge() {
+        final long expiry = System.currentTimeMillis() - RETENTION.getValue().toMillis();
+        final List<Job> finished = new ArrayList<>();
+        for (final Job job : jobs.values()) {
+            final Long finishedAt = job.finished;
+            if (finishedAt != null) {
+                if (finishedAt < expiry) {
+                    jobs.remove(job.id);
+                } else {
+                    finished.add(job);
+                }
+            }
+        }
+        final int excess = finished.size() - MAX_RETAINED.getValue();
+        if (excess > 0) {
+            finished.sort(Comparator.comparingLong(job -> job.finished));
+            finished.subList(0, excess).forEach(job -> jobs.remove(job.id));
+        }
+    }
+
+    /**
+     * An operation that is executed as a job.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Executes the operation. An operation that processes several items reports the outcome of each item, and
+         * stops when the job is cancelled.
+         *
+         * @param progress receives the progress of the operation
+         * @throws ServiceException when the operation fails
+         */
+        void run(@Nonnull Progress progress) throws ServiceException;
+    }
+
+    /**
+     * Receives the progress of an operation that is executed as a job.
+     */
+    public interface Progress {
+        /**
+         * @param total the amount of items that the operation is to process
+         */
+        void setTotal(long total);
+
+        /**
+         * Records that an item was processed.
+         *
+         * @param result the outcome of the item (can be null)
+         */
+        void completed(@Nullable JobResultEntity result);
+
+        /**
+         * @return true when the job was cancelled, in which case the operation should stop
+         */
+        boolean isCancelled();
+    }
+
+    private static class Job implements Progress {
+        final String id;
+        final String type;
+        final long created = System.currentTimeMillis();
+        final List<JobResultEntity> results = new ArrayList<>();
+        volatile String status = JobEntity.STATUS_QUEUED;
+        volatile boolean cancelled;
+        volatile Long started;
+        volatile Long finished;
+        volatile Long total;
+        volatile long completed;
+        volatile String error;
+        volatile Future<?> future;
+
+        Job(@Nonnull final String id, @Nonnull final String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        void run(@Nonnull final Task task) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                started = System.currentTimeMillis();
+                status = JobEntity.STATUS_RUNNING;
+            }
+            String outcome = JobEntity.STATUS_FAILED;
+            try {
+                task.run(this);
+                outcome = cancelled ? JobEntity.STATUS_CANCELLED : JobEntity.STATUS_COMPLETED;
+            } catch (ServiceException e) {
+                error = e.getMessage();
+            } catch (RuntimeException e) {
+                LOG.warn("Job {} ({}) failed unexpectedly.", id, type, e);
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            } finally {
+                synchronized (this) {
+                    status = outcome;
+                    finished = System.currentTimeMillis();
+                }
+            }
+        }
+
+        synchronized void cancel() {
+            if (finished != null) {
+                return;
+            }
+            cancelled = true;
+            if (started == null) {
+                // The job did not start, and will not.
+                status = JobEntity.STATUS_CANCELLED;
+                finished = System.currentTimeMillis();
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public void setTotal(final long total) {
+            this.total = total;
+        }
+
+        @Override
+        public synchronized void completed(@Nullable final JobResultEntity result) {
+            if (result != null) {
+                results.add(result);
+            }
+            completed++;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Nonnull
+        synchronized JobEntity toEntity() {
+            final JobEntity entity = new JobEntity();
+            entity.setId(id);
+            entity.setType(type);
+            entity.setStatus(status);
+            entity.setCreated(created);
+            entity.setStarted(started);
+            entity.setFinished(finished);
+            if (started != null) {
+                entity.setDuration((finished != null ? finished : System.currentTimeMillis()) - started);
+            }
+            entity.setTotal(total);
+            entity.setCompleted(completed);
+            entity.setError(error);
+            entity.setResults(results.isEmpty() ? null : new ArrayList<>(results));
+            return entity;
+        }
+    }
+}
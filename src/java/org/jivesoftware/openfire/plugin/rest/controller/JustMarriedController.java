@@ -16,8 +16,12 @@
 
 package org.jivesoftware.openfire.plugin.rest.controller;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import javax.annotation.Nullable;
 import javax.ws.rs.core.Response;
 
 import org.dom4j.Element;
@@ -28,6 +32,8 @@ import org.jivesoftware.openfire.auth.AuthFactory;
 import org.jivesoftware.openfire.group.Group;
 import org.jivesoftware.openfire.group.GroupManager;
 import org.jivesoftware.openfire.lockout.LockOutManager;
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.entity.JobResultEntity;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 import org.jivesoftware.openfire.roster.Roster;
@@ -38,13 +44,28 @@ import org.jivesoftware.openfire.user.UserAlreadyExistsException;
 import org.jivesoftware.openfire.user.UserManager;
 import org.jivesoftware.openfire.user.UserNotFoundException;
 import org.jivesoftware.openfire.vcard.VCardManager;
+import org.jivesoftware.util.JiveGlobals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xmpp.packet.StreamError;
 
 /**
  * The Class JustMarriedController.
+ *
+ * Renames a user by creating a new user, copying everything of the current user to it, and deleting the current user.
+ * The work is proportional to what the user has: only the groups of the user are visited, and the rosters of its
+ * contacts are updated in parallel. The duration of each phase is reported.
  */
 public class JustMarriedController {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JustMarriedController.class);
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
     /**
      * Change name.
      *
@@ -64,7 +85,35 @@ public class JustMarriedController {
      */
     public static boolean changeName(String currentUserName, String newUserName, boolean deleteOldUser,
             String newEmail, String newRealName) throws ServiceException {
+        return changeName(currentUserName, newUserName, deleteOldUser, newEmail, newRealName, null);
+    }
+
+    /**
+     * Change name, reporting the duration of each phase.
+     *
+     * @param currentUserName
+     *            the current user name
+     * @param newUserName
+     *            the new user name
+     * @param deleteOldUser
+     *            the delete old user
+     * @param newEmail
+     *            the new email
+     * @param newRealName
+     *            the new real name
+     * @param progress
+     *            receives the outcome of each phase, when the rename is executed as a job (can be null)
+     * @return true, if successful
+     * @throws ServiceException
+     *             the service exception
+     */
+    public static boolean changeName(String currentUserName, String newUserName, boolean deleteOldUser,
+            String newEmail, String newRealName, @Nullable JobsController.Progress progress) throws ServiceException {
         UserManager userManager = UserManager.getInstance();
+        Phases phases = new Phases(currentUserName, progress);
+        if (progress != null) {
+            progress.setTotal(deleteOldUser ? 6 : 5);
+        }
 
         try {
             User currentUser = userManager.getUser(currentUserName);
@@ -77,13 +126,19 @@ public class JustMarriedController {
             newUser.setNameVisible(currentUser.isNameVisible());
             newUser.setEmailVisible(currentUser.isEmailVisible());
             newUser.setCreationDate(currentUser.getCreationDate());
+            phases.completed("user", "Created user " + newUserName);
 
-            copyRoster(currentUser, newUser, currentUserName);
+            int contacts = copyRoster(currentUser, newUser, currentUserName);
+            phases.completed("roster", "Copied " + contacts + " roster items");
             copyProperties(currentUser, newUser);
-            copyToGroups(currentUserName, newUserName);
+            phases.completed("properties", "Copied " + newUser.getProperties().size() + " properties");
+            int groups = copyToGroups(currentUser, newUserName);
+            phases.completed("groups", "Added to " + groups + " groups");
             copyVCard(currentUserName, newUserName);
+            phases.completed("vcard", "Copied vCard");
             if (deleteOldUser) {
                 deleteUser(currentUser);
+                phases.completed("delete", "Deleted user " + currentUserName);
             }
 
         } catch (UserNotFoundException e) {
@@ -128,15 +183,14 @@ public class JustMarriedController {
      *            the current user
      * @param newUser
      *            the new user
+     * @return the amount of groups
      */
-    private static void copyToGroups(String currentUser, String newUser) {
-        GroupManager groupManager = GroupManager.getInstance();
-        for (Group group : groupManager.getGroups()) {
-            if (group.isUser(currentUser)) {
-                group.getMembers().add(XMPPServer.getInstance().createJID(newUser, null));
-            }
+    private static int copyToGroups(User currentUser, String newUser) {
+        Collection<Group> groups = GroupManager.getInstance().getGroups(currentUser);
+        for (Group group : groups) {
+            group.getMembers().add(XMPPServer.getInstance().createJID(newUser, null));
         }
-
+        return groups.size();
     }
 
     /**
@@ -176,12 +230,14 @@ public class JustMarriedController {
      *            the new user
      * @param currentUserName
      *            the current user name
+     * @return the amount of roster items
      * @throws ServiceException
      *             the service exception
      */
-    private static void copyRoster(User currentUser, User newUser, String currentUserName) throws ServiceException {
+    private static int copyRoster(User currentUser, User newUser, String currentUserName) throws ServiceException {
         Roster newRoster = newUser.getRoster();
         Roster currentRoster = currentUser.getRoster();
+        List<Callable<Void>> otherRosters = new ArrayList<>();
         for (RosterItem item : currentRoster.getRosterItems()) {
             try {
                 List<String> groups = item.getGroups();
@@ -200,7 +256,10 @@ public class JustMarriedController {
                     justCreated.addInvisibleSharedGroup(gr);
                 }
                 newRoster.updateRosterItem(justCreated);
-                addNewUserToOthersRoster(newUser, item, currentUserName);
+                otherRosters.add(() -> {
+                    addNewUserToOthersRoster(newUser, item, currentUserName);
+                    return null;
+                });
 
             } catch (UserAlreadyExistsException e) {
                 throw new ServiceException("Could not create roster item for user ", newUser.getUsername(),
@@ -216,6 +275,9 @@ public class JustMarriedController {
             }
         }
 
+        // Each contact has its own roster, so these are updated in parallel.
+        UserBulkController.getInstance().invokeAll(otherRosters);
+        return otherRosters.size();
     }
 
     /**
@@ -272,4 +334,28 @@ public class JustMarriedController {
             }
         }
     }
+
+    /**
+     * Measures the duration of the phases of a rename.
+     */
+    private static class Phases {
+        private final String username;
+        private final JobsController.Progress progress;
+        private long start = System.nanoTime();
+
+        Phases(String username, @Nullable JobsController.Progress progress) {
+            this.username = username;
+            this.progress = progress;
+        }
+
+        void completed(String phase, String description) {
+            final long now = System.nanoTime();
+            final long millis = (now - start) / 1_000_000;
+            start = now;
+            log("Rename of " + username + ", phase '" + phase + "': " + description + " in " + millis + " ms");
+            if (progress != null) {
+                progress.completed(new JobResultEntity(phase, "completed", description + " in " + millis + " ms"));
+            }
+        }
+    }
 }
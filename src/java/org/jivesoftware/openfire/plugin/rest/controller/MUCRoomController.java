@@ -23,6 +23,8 @@ import org.jivesoftware.openfire.group.Group;
 import org.jivesoftware.openfire.muc.*;
 import org.jivesoftware.openfire.muc.spi.MUCRoomSearchInfo;
 import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.dao.HistoryCursor;
+import org.jivesoftware.openfire.plugin.rest.dao.MUCConversationLogDAO;
 import org.jivesoftware.openfire.plugin.rest.entity.*;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
@@ -32,6 +34,7 @@ import org.jivesoftware.util.AlreadyExistsException;
 import org.jivesoftware.util.JiveGlobals;
 import org.jivesoftware.util.StringUtils;
 import org.jivesoftware.util.SystemProperty;
+import org.jivesoftware.util.XMPPDateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xmpp.packet.JID;
@@ -41,7 +44,11 @@ import org.xmpp.packet.Presence;
 import javax.annotation.Nonnull;
 import javax.ws.rs.core.Response;
 import java.lang.reflect.InvocationTargetException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
@@ -77,9 +84,36 @@ public class MUCRoomController {
         .setDynamic(true)
         .build();
 
+    /**
+     * The amount of time that is allowed for concurrent modifications of the affiliations of one room to arrive,
+     * before these are applied to that room as one batch. A value of zero disables waiting (but modifications that are
+     * queued while a batch is being applied will still be combined).
+     */
+    public static final SystemProperty<Duration> AFFILIATION_COALESCING_WINDOW = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.muc.affiliation-coalescing.window")
+        .setDefaultValue(Duration.ofMillis(10))
+        .setChronoUnit(ChronoUnit.MILLIS)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The maximum amount of messages that is returned in one page of room history that is read from the database.
+     */
+    public static final SystemProperty<Integer> HISTORY_MAX_PAGE_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.muc.history.max-page-size")
+        .setDefaultValue(1000)
+        .setMinValue(1)
+        .setDynamic(true)
+        .build();
+
     /** The Constant INSTANCE. */
     private static MUCRoomController INSTANCE = null;
 
+    /** Combines concurrent affiliation modifications for the same room. */
+    private final AffiliationChangeQueue affiliationChangeQueue = new AffiliationChangeQueue(this::applyAffiliationChanges, AFFILIATION_COALESCING_WINDOW::getValue);
+
     /**
      * Gets the single instance of MUCRoomController.
      *
@@ -216,7 +250,7 @@ public class MUCRoomController {
             }
         }
 
-        return new MUCRoomEntities(mucRoomEntities);
+        return new MUCRoomEntities(mucRoomEntities, service.getServiceName());
     }
 
     /**
@@ -318,26 +352,44 @@ public class MUCRoomController {
         log("Create " + roomsToCreate.size() + " chat rooms");
         List<RoomCreationResultEntity> results = new ArrayList<>();
         for (MUCRoomEntity roomToCreate : roomsToCreate) {
-            RoomCreationResultEntity result = new RoomCreationResultEntity();
-            result.setRoomName(roomToCreate.getRoomName());
-            try {
-                createRoom(roomToCreate, serviceName, sendInvitations);
-                result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Success);
-                result.setMessage("Room was successfully created");
-            } catch (AlreadyExistsException e) {
-                log("Already exists exception thrown while trying to create room: " + roomToCreate.getRoomName(), e);
-                result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Success);
-                result.setMessage("Room already existed and therefore not created again");
-            } catch (NotAllowedException | ForbiddenException | ConflictException e) {
-                log("Failed to create room: " + roomToCreate.getRoomName(), e);
-                result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Failure);
-                result.setMessage("Room creation failed due to " + e.getClass().getSimpleName() + ": " + e.getMessage());
-            }
-            results.add(result);
+            results.add(createChatRoomWithResult(serviceName, roomToCreate, sendInvitations));
         }
         return new RoomCreationResultEntities(results);
     }
 
+    /**
+     * Creates a chat room, reporting rather than throwing the reason why it could not be created.
+     *
+     * @param serviceName
+     *              the service name
+     * @param roomToCreate
+     *              the chat room to create
+     * @param sendInvitations
+     *              whether to send invitations to affiliated users
+     * @return
+     *              a report detailing whether the room was created
+     * @throws ServiceException
+     *              the service exception
+     */
+    public RoomCreationResultEntity createChatRoomWithResult(String serviceName, MUCRoomEntity roomToCreate, boolean sendInvitations) throws ServiceException {
+        RoomCreationResultEntity result = new RoomCreationResultEntity();
+        result.setRoomName(roomToCreate.getRoomName());
+        try {
+            createRoom(roomToCreate, serviceName, sendInvitations);
+            result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Success);
+            result.setMessage("Room was successfully created");
+        } catch (AlreadyExistsException e) {
+            log("Already exists exception thrown while trying to create room: " + roomToCreate.getRoomName(), e);
+            result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Success);
+            result.setMessage("Room already existed and therefore not created again");
+        } catch (NotAllowedException | ForbiddenException | ConflictException e) {
+            log("Failed to create room: " + roomToCreate.getRoomName(), e);
+            result.setResultType(RoomCreationResultEntity.RoomCreationResultType.Failure);
+            result.setMessage("Room creation failed due to " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        return result;
+    }
+
     /**
      * Update chat room.
      *
@@ -363,6 +415,7 @@ public class MUCRoomController {
                         ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
             }
             createRoom(mucRoomEntity, serviceName, sendInvitations);
+            EventsController.getInstance().roomUpdated(new JID(mucRoomEntity.getRoomName(), serviceName + "." + XMPPServer.getInstance().getServerInfo().getXMPPDomain(), null));
         } catch (NotAllowedException | ForbiddenException e) {
             log("Failed to update room: " + mucRoomEntity.getRoomName(), e);
             throw new ServiceException("Could not update the channel", roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
@@ -582,12 +635,7 @@ public class MUCRoomController {
         }
 
         for (MUCOccupant role : serverParticipants) {
-            ParticipantEntity participantEntity = new ParticipantEntity();
-            participantEntity.setJid(role.getOccupantJID().toFullJID());
-            participantEntity.setRole(role.getRole().name());
-            participantEntity.setAffiliation(role.getAffiliation().name());
-
-            participants.add(participantEntity);
+            participants.add(convertToParticipantEntity(role));
         }
 
         participantEntities.setParticipants(participants);
@@ -595,6 +643,53 @@ public class MUCRoomController {
         return participantEntities;
     }
 
+    /**
+     * Gets (a page of) the room participants that match the provided filters, or only the amount of such participants.
+     *
+     * Only the participants on the requested page are converted to entities.
+     *
+     * @param roomName
+     *            the room name
+     * @param serviceName
+     *            the service name
+     * @param role
+     *            only return participants with this role (can be null)
+     * @param affiliation
+     *            only return participants with this affiliation (can be null)
+     * @param offset
+     *            the amount of matching participants to skip
+     * @param limit
+     *            the maximum amount of participants to return (can be null)
+     * @param countOnly
+     *            true to only return the amount of matching participants
+     * @return the room participants, including the total amount of matching participants
+     */
+    public ParticipantEntities getRoomParticipants(String roomName, String serviceName, Role role, Affiliation affiliation, int offset, Integer limit, boolean countOnly) throws ServiceException
+    {
+        log("Get room participants for room: " + roomName);
+        Collection<MUCOccupant> serverParticipants;
+
+        final MultiUserChatService service = MUCServiceController.getService(serviceName);
+        final Lock lock = getLock(service, roomName);
+        lock.lock();
+        try {
+            service.getChatRoomLock(roomName);
+            serverParticipants = getRoom(service, roomName).getParticipants();
+        } finally {
+            lock.unlock();
+        }
+
+        final List<MUCOccupant> matching = filterOccupants(serverParticipants, role, affiliation);
+        final ParticipantEntities participantEntities = new ParticipantEntities();
+        participantEntities.setCount(matching.size());
+        if (!countOnly) {
+            participantEntities.setParticipants(getPage(matching, offset, limit).stream()
+                .map(MUCRoomController::convertToParticipantEntity)
+                .collect(Collectors.toList()));
+        }
+        return participantEntities;
+    }
+
     /**
      * Gets the room occupants.
      *
@@ -623,19 +718,127 @@ public class MUCRoomController {
         }
 
         for (MUCOccupant role : serverOccupants) {
-            OccupantEntity occupantEntity = new OccupantEntity();
-            occupantEntity.setJid(role.getOccupantJID().toFullJID());
-            occupantEntity.setUserAddress(role.getUserAddress().toFullJID());
-            occupantEntity.setRole(role.getRole().name());
-            occupantEntity.setAffiliation(role.getAffiliation().name());
-
-            occupants.add(occupantEntity);
+            occupants.add(convertToOccupantEntity(role));
         }
 
         occupantEntities.setOccupants(occupants);
         return occupantEntities;
     }
 
+    /**
+     * Gets (a page of) the room occupants that match the provided filters, or only the amount of such occupants.
+     *
+     * Only the occupants on the requested page are converted to entities. When only the amount of occupants is
+     * requested without any filter, the occupants are not iterated at all.
+     *
+     * @param roomName
+     *            the room name
+     * @param serviceName
+     *            the service name
+     * @param role
+     *            only return occupants with this role (can be null)
+     * @param affiliation
+     *            only return occupants with this affiliation (can be null)
+     * @param offset
+     *            the amount of matching occupants to skip
+     * @param limit
+     *            the maximum amount of occupants to return (can be null)
+     * @param countOnly
+     *            true to only return the amount of matching occupants
+     * @return the room occupants, including the total amount of matching occupants
+     */
+    public OccupantEntities getRoomOccupants(String roomName, String serviceName, Role role, Affiliation affiliation, int offset, Integer limit, boolean countOnly) throws ServiceException
+    {
+        log("Get room occupants for room: " + roomName);
+        final OccupantEntities occupantEntities = new OccupantEntities();
+        Collection<MUCOccupant> serverOccupants;
+
+        final MultiUserChatService service = MUCServiceController.getService(serviceName);
+        final Lock lock = getLock(service, roomName);
+        lock.lock();
+        try {
+            service.getChatRoomLock(roomName);
+            final MUCRoom room = getRoom(service, roomName);
+            if (countOnly && role == null && affiliation == null) {
+                occupantEntities.setCount(room.getOccupantsCount());
+                return occupantEntities;
+            }
+            serverOccupants = room.getOccupants();
+        } finally {
+            lock.unlock();
+        }
+
+        final List<MUCOccupant> matching = filterOccupants(serverOccupants, role, affiliation);
+        occupantEntities.setCount(matching.size());
+        if (!countOnly) {
+            occupantEntities.setOccupants(getPage(matching, offset, limit).stream()
+                .map(MUCRoomController::convertToOccupantEntity)
+                .collect(Collectors.toList()));
+        }
+        return occupantEntities;
+    }
+
+    /**
+     * Returns the amount of occupants of each of the active rooms of a service. Occupants are counted, not converted.
+     *
+     * @param serviceName
+     *            the service name
+     * @param includeEmpty
+     *            whether to include rooms that do not have any occupants
+     * @return the occupant count per room
+     */
+    public RoomOccupancyEntities getOccupancySummary(String serviceName, boolean includeEmpty) throws ServiceException
+    {
+        log("Get occupancy summary for service: " + serviceName);
+        final MultiUserChatService service = MUCServiceController.getService(serviceName);
+
+        final List<RoomOccupancyEntity> rooms = new ArrayList<>();
+        long total = 0;
+        for (final MUCRoom room : service.getActiveChatRooms()) {
+            final int count = room.getOccupantsCount();
+            if (count > 0 || includeEmpty) {
+                rooms.add(new RoomOccupancyEntity(room.getName(), count));
+                total += count;
+            }
+        }
+        rooms.sort(Comparator.comparing(RoomOccupancyEntity::getRoomName));
+        return new RoomOccupancyEntities(rooms, total);
+    }
+
+    private static List<MUCOccupant> filterOccupants(Collection<MUCOccupant> occupants, Role role, Affiliation affiliation)
+    {
+        return occupants.stream()
+            .filter(o -> role == null || role.equals(o.getRole()))
+            .filter(o -> affiliation == null || affiliation.equals(o.getAffiliation()))
+            .collect(Collectors.toList());
+    }
+
+    private static List<MUCOccupant> getPage(List<MUCOccupant> occupants, int offset, Integer limit)
+    {
+        final int from = Math.min(Math.max(offset, 0), occupants.size());
+        final int to = limit == null ? occupants.size() : (int) Math.min((long) from + limit, occupants.size());
+        return occupants.subList(from, to);
+    }
+
+    private static ParticipantEntity convertToParticipantEntity(MUCOccupant role)
+    {
+        ParticipantEntity participantEntity = new ParticipantEntity();
+        participantEntity.setJid(role.getOccupantJID().toFullJID());
+        participantEntity.setRole(role.getRole().name());
+        participantEntity.setAffiliation(role.getAffiliation().name());
+        return participantEntity;
+    }
+
+    private static OccupantEntity convertToOccupantEntity(MUCOccupant role)
+    {
+        OccupantEntity occupantEntity = new OccupantEntity();
+        occupantEntity.setJid(role.getOccupantJID().toFullJID());
+        occupantEntity.setUserAddress(role.getUserAddress().toFullJID());
+        occupantEntity.setRole(role.getRole().name());
+        occupantEntity.setAffiliation(role.getAffiliation().name());
+        return occupantEntity;
+    }
+
     /**
      * Gets the room chat history.
      *
@@ -646,10 +849,44 @@ public class MUCRoomController {
      * @return the room chat history
      */
     public MUCRoomMessageEntities getRoomHistory(String roomName, String serviceName) throws ServiceException {
+        return getRoomHistory(roomName, serviceName, false, null, null, null, null);
+    }
+
+    /**
+     * Gets a page of the room history, in chronological order.
+     *
+     * The history is read either from the (limited) in-memory history of the room, or from the persisted conversation
+     * log of the room in the database. Pages read from the database are never larger than {@link #HISTORY_MAX_PAGE_SIZE}.
+     *
+     * Messages in the in-memory history are positioned by the timestamp of their 'delay' element. A message without
+     * (a parseable) timestamp is positioned directly after the message before it, as if it had the same timestamp, so
+     * that it is neither lost nor returned twice when filtering or paging.
+     *
+     * @param roomName
+     *            the room name
+     * @param serviceName
+     *            the service name
+     * @param fromDatabase
+     *            true to read the persisted conversation log, false to read the in-memory history
+     * @param since
+     *            only messages sent at or after this instant are returned (can be null)
+     * @param before
+     *            only messages sent before this instant are returned (can be null)
+     * @param after
+     *            only messages after this position (as returned in a previous page) are returned (can be null)
+     * @param limit
+     *            the maximum amount of messages to return (can be null)
+     * @return the room history
+     * @throws ServiceException
+     *             the service exception
+     */
+    public MUCRoomMessageEntities getRoomHistory(String roomName, String serviceName, boolean fromDatabase, Date since, Date before, HistoryCursor after, Integer limit) throws ServiceException {
         log("Get room history for room: " + roomName);
         MUCRoomMessageEntities mucRoomMessageEntities = new MUCRoomMessageEntities();
         List<MUCRoomMessageEntity> listMessages = new ArrayList<>();
         MUCRoomHistory mucRH;
+        long roomID;
+        JID roomJID;
 
         final MultiUserChatService service = MUCServiceController.getService(serviceName);
         final Lock lock = getLock(service, roomName);
@@ -658,37 +895,110 @@ public class MUCRoomController {
             service.getChatRoomLock(roomName);
             MUCRoom chatRoom = getRoom(service, roomName);
             mucRH = chatRoom.getRoomHistory();
+            roomID = chatRoom.getID();
+            roomJID = chatRoom.getJID();
         } finally {
             lock.unlock();
         }
-        Iterator<Message> messageHistory = mucRH.getMessageHistory();
 
+        if (fromDatabase) {
+            final int pageSize = limit == null ? HISTORY_MAX_PAGE_SIZE.getValue() : Math.min(limit, HISTORY_MAX_PAGE_SIZE.getValue());
+
+            // Request one more message than needed, to learn if there is a next page.
+            final List<MUCConversationLogDAO.LoggedMessage> logged = MUCConversationLogDAO.getMessages(roomID, roomJID, since, before, after, pageSize + 1);
+            for (int i = 0; i < logged.size() && i < pageSize; i++) {
+                listMessages.add(logged.get(i).getMessage());
+            }
+            if (logged.size() > pageSize) {
+                mucRoomMessageEntities.setNextCursor(logged.get(pageSize - 1).getPosition().toString());
+            }
+            mucRoomMessageEntities.setMessages(listMessages);
+            return mucRoomMessageEntities;
+        }
+
+        // Timestamps only need to be parsed when filtering or paging.
+        final boolean needsPosition = since != null || before != null || after != null || limit != null;
+
+        Iterator<Message> messageHistory = mucRH.getMessageHistory();
+        HistoryCursor previous = null;
+        HistoryCursor lastIncluded = null;
         while (messageHistory.hasNext()) {
             Message message = messageHistory.next();
 
-            MUCRoomMessageEntity mucMsgEntity = new MUCRoomMessageEntity();
-            if (message.getTo()!=null && message.getTo().toString().length()!=0)
-                mucMsgEntity.setTo(message.getTo().toString());
-            if (message.getFrom()!=null && message.getFrom().toString().length()!=0)
-                mucMsgEntity.setFrom(message.getFrom().toFullJID());
-            if (message.getType()!=null && message.getType().toString().length()!=0)
-                mucMsgEntity.setType(message.getType().name());
-            if (message.getBody()!=null && message.getBody().length()!=0)
-                mucMsgEntity.setBody(message.getBody());
-
-            Element delay = message.getChildElement("delay","urn:xmpp:delay");
-            if (delay!=null) {
-                mucMsgEntity.setDelayStamp(delay.attributeValue("stamp"));
-                String delayFrom = delay.attributeValue("from");
-                if (delayFrom!=null)
-                    mucMsgEntity.setDelayFrom(delayFrom);
+            if (needsPosition) {
+                final Date stamp = getDelayStamp(message);
+                final long time = stamp != null ? stamp.getTime() : (previous != null ? previous.getTimestamp() : 0);
+                final HistoryCursor position = new HistoryCursor(time, previous != null && previous.getTimestamp() == time ? previous.getPosition() + 1 : 1);
+                previous = position;
+
+                if ((since != null && time < since.getTime())
+                    || (after != null && (time < after.getTimestamp() || (time == after.getTimestamp() && position.getPosition() <= after.getPosition())))) {
+                    continue;
+                }
+                if (before != null && time >= before.getTime()) {
+                    break;
+                }
+                if (limit != null && listMessages.size() >= limit) {
+                    // There is at least one more message than what fits on this page.
+                    if (lastIncluded != null) {
+                        mucRoomMessageEntities.setNextCursor(lastIncluded.toString());
+                    }
+                    break;
+                }
+                lastIncluded = position;
             }
-            listMessages.add(mucMsgEntity);
+            listMessages.add(convertToMessageEntity(message));
         }
         mucRoomMessageEntities.setMessages(listMessages);
         return mucRoomMessageEntities;
     }
 
+    /**
+     * Returns the moment at which a message was originally sent, as recorded in its 'delay' element.
+     *
+     * @param message a message from the history of a room
+     * @return the timestamp, or null if the message does not contain a (parseable) timestamp
+     */
+    private static Date getDelayStamp(Message message) {
+        final Element delay = message.getChildElement("delay", "urn:xmpp:delay");
+        if (delay == null || delay.attributeValue("stamp") == null) {
+            return null;
+        }
+        try {
+            return XMPPDateTimeFormat.parseString(delay.attributeValue("stamp"));
+        } catch (ParseException e) {
+            log("Unable to parse delay stamp of message in room history: " + delay.attributeValue("stamp"), e);
+            return null;
+        }
+    }
+
+    /**
+     * Converts a message from the history of a room to its entity representation.
+     *
+     * @param message a message from the history of a room
+     * @return the entity
+     */
+    private static MUCRoomMessageEntity convertToMessageEntity(Message message) {
+        MUCRoomMessageEntity mucMsgEntity = new MUCRoomMessageEntity();
+        if (message.getTo()!=null && message.getTo().toString().length()!=0)
+            mucMsgEntity.setTo(message.getTo().toString());
+        if (message.getFrom()!=null && message.getFrom().toString().length()!=0)
+            mucMsgEntity.setFrom(message.getFrom().toFullJID());
+        if (message.getType()!=null && message.getType().toString().length()!=0)
+            mucMsgEntity.setType(message.getType().name());
+        if (message.getBody()!=null && message.getBody().length()!=0)
+            mucMsgEntity.setBody(message.getBody());
+
+        Element delay = message.getChildElement("delay","urn:xmpp:delay");
+        if (delay!=null) {
+            mucMsgEntity.setDelayStamp(delay.attributeValue("stamp"));
+            String delayFrom = delay.attributeValue("from");
+            if (delayFrom!=null)
+                mucMsgEntity.setDelayFrom(delayFrom);
+        }
+        return mucMsgEntity;
+    }
+
     /**
      * Invites the user(s) or group(s) to the MUC room. This method differs from the other 'sendInvitations' methods in
      * that no checks are performed. This really just sends the invitation stanza(s).
@@ -1117,32 +1427,49 @@ public class MUCRoomController {
         try {
             service.getChatRoomLock(roomName);
             final MUCRoom room = getRoom(service, roomName);
-            switch (affiliation) {
-                case admin:
-                    return room.getAdmins();
-                case member:
-                    return room.getMembers();
-                case owner:
-                    return room.getOwners();
-                case outcast:
-                    return room.getOutcasts();
-                default:
-                    return room.getOccupants().stream()
-                        .filter(o -> affiliation.equals(o.getAffiliation()))
-                        .map(MUCOccupant::getUserAddress)
-                        .collect(Collectors.toSet());
-            }
+            return getAffiliatedUsers(room, affiliation);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Returns the addresses of users that have a particular affiliation with a room. The caller is responsible for
+     * obtaining the room lock.
+     *
+     * @param room The room for which to return affiliated users.
+     * @param affiliation The affiliation for which to return users.
+     * @return The addresses of users that have the affiliation.
+     */
+    @Nonnull
+    private static Collection<JID> getAffiliatedUsers(@Nonnull final MUCRoom room, @Nonnull final Affiliation affiliation)
+    {
+        switch (affiliation) {
+            case admin:
+                return room.getAdmins();
+            case member:
+                return room.getMembers();
+            case owner:
+                return room.getOwners();
+            case outcast:
+                return room.getOutcasts();
+            default:
+                return room.getOccupants().stream()
+                    .filter(o -> affiliation.equals(o.getAffiliation()))
+                    .map(MUCOccupant::getUserAddress)
+                    .collect(Collectors.toSet());
+        }
+    }
+
     /**
      * Updates a list of users that have a particular affiliation to a room with a new list.
      *
      * This will remove all users as having an affiliation of this type with the room for users that are not in the
      * list of replacements.
      *
+     * Modifications that are requested concurrently for the same room are applied together, under one lock of that
+     * room, after which the room is synchronized with other cluster nodes once.
+     *
      * @param serviceName
      *            the service name of the room
      * @param roomName
@@ -1153,9 +1480,10 @@ public class MUCRoomController {
      *            the new list of affiliated users
      * @param sendInvitations
      *            whether to send invitations to newly affiliated users
+     * @return a description of the changes that were applied
      * @throws ServiceException On any issue looking up the room or changing its affiliated users.
      */
-    public void replaceAffiliatedUsers(@Nonnull final String serviceName, @Nonnull final String roomName, @Nonnull final Affiliation affiliation, boolean sendInvitations, @Nonnull final String... jids) throws ServiceException
+    public AffiliationChangeResultEntity replaceAffiliatedUsers(@Nonnull final String serviceName, @Nonnull final String roomName, @Nonnull final Affiliation affiliation, boolean sendInvitations, @Nonnull final String... jids) throws ServiceException
     {
         final Collection<JID> replacements = new HashSet<>();
 
@@ -1168,77 +1496,17 @@ public class MUCRoomController {
             }
         }
 
-        final Collection<JID> oldUsers = getByAffiliation(serviceName, roomName, affiliation);
-
-        // The users to add are the replacements that aren't already in the old collection.
-        final List<JID> toAdd = new ArrayList<>(replacements);
-        toAdd.removeAll(oldUsers);
-
-        // The users to remove are the old users that are no longer in the replacements.
-        final List<JID> toRemove = new ArrayList<>(oldUsers);
-        toRemove.removeAll(replacements);
-
         final MultiUserChatService service = MUCServiceController.getService(serviceName);
-        final Lock lock = getLock(service, roomName);
-        lock.lock();
-        try {
-            service.getChatRoomLock(roomName);
-            final MUCRoom room = getRoom(service, roomName);
-            try {
-                // First, add all new affiliations (some affiliations aren't allowed to be empty, so removing things first could cause issues).
-                switch (affiliation) {
-                    case admin:
-                        room.addAdmins(toAdd, room.getSelfRepresentation().getAffiliation());
-                        break;
-
-                    case member:
-                        for (final JID add : toAdd) {
-                            room.addMember(add, null, room.getSelfRepresentation().getAffiliation());
-                        }
-                        break;
-
-                    case owner:
-                        room.addOwners(toAdd, room.getSelfRepresentation().getAffiliation());
-                        break;
-
-                    case outcast:
-                        for (final JID add : toAdd) {
-                            room.addOutcast(add, null, room.getSelfRepresentation().getUserAddress(), room.getSelfRepresentation().getAffiliation(), room.getSelfRepresentation().getRole());
-                        }
-                        break;
-                    default:
-                        throw new IllegalStateException("Unrecognized affiliation: " + affiliation);
-                }
-
-                // Next, remove the affiliations that are no longer wanted.
-                for (final JID remove : toRemove) {
-                    room.addNone(remove, room.getSelfRepresentation().getAffiliation());
-                }
-            } catch (ForbiddenException | NotAllowedException e) {
-                throw new ServiceException("Forbidden to apply modification to list of " + affiliation, roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
-            } catch (ConflictException e) {
-                throw new ServiceException("Could not apply modification to list of " + affiliation, roomName, ExceptionType.NOT_ALLOWED, Response.Status.CONFLICT, e);
-            }
-
-            // Make sure that other cluster nodes see the changes made here.
-            service.syncChatRoom(room);
-
-            try {
-                if (sendInvitations) {
-                    sendInvitationsFromRoom(room, EnumSet.of(affiliation), toAdd, null, true);
-                }
-            } catch (ForbiddenException e) {
-                throw new ServiceException("Can not send invitation to newly affiliated " + affiliation + " users or groups", roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
-            }
-        } finally {
-            lock.unlock();
-        }
+        return affiliationChangeQueue.submit(service, roomName, new AffiliationChangeQueue.AffiliationChange(affiliation, true, sendInvitations, replacements));
     }
 
     /**
      * Adds to a list of users that have a particular affiliation to a room with a new list, without affecting the
      * pre-existing list.
      *
+     * Modifications that are requested concurrently for the same room are applied together, under one lock of that
+     * room, after which the room is synchronized with other cluster nodes once.
+     *
      * @param serviceName
      *            the service name of the room
      * @param roomName
@@ -1249,9 +1517,10 @@ public class MUCRoomController {
      *            the list of additional affiliated users
      * @param sendInvitations
      *            whether to send invitations to newly affiliated users
+     * @return a description of the changes that were applied
      * @throws ServiceException On any issue looking up the room or changing its affiliated users.
      */
-    public void addAffiliatedUsers(@Nonnull final String serviceName, @Nonnull final String roomName, @Nonnull final Affiliation affiliation, boolean sendInvitations, @Nonnull final String... jids) throws ServiceException
+    public AffiliationChangeResultEntity addAffiliatedUsers(@Nonnull final String serviceName, @Nonnull final String roomName, @Nonnull final Affiliation affiliation, boolean sendInvitations, @Nonnull final String... jids) throws ServiceException
     {
         final Collection<JID> additions = new HashSet<>();
 
@@ -1264,61 +1533,160 @@ public class MUCRoomController {
             }
         }
 
-        final Collection<JID> oldUsers = getByAffiliation(serviceName, roomName, affiliation);
-
-        // The users to add are the additions that aren't already in the old collection.
-        final List<JID> toAdd = new ArrayList<>(additions);
-        toAdd.removeAll(oldUsers);
-
         final MultiUserChatService service = MUCServiceController.getService(serviceName);
+        return affiliationChangeQueue.submit(service, roomName, new AffiliationChangeQueue.AffiliationChange(affiliation, false, sendInvitations, additions));
+    }
+
+    /**
+     * Applies a batch of affiliation changes to a room. The room is locked once for the entire batch, and synchronized
+     * with other cluster nodes once after all changes have been applied. Each change in the batch is completed, or
+     * failed, individually. As a change that fails can have been partially applied, the room is synchronized whenever
+     * any change modified, or attempted to modify, its affiliations.
+     *
+     * @param service The service that contains the chat room.
+     * @param roomName The name of the chat room.
+     * @param batch The changes to apply, in the order in which they were submitted.
+     * @throws ServiceException When the room cannot be found (which fails all changes in the batch).
+     */
+    private void applyAffiliationChanges(@Nonnull final MultiUserChatService service, @Nonnull final String roomName, @Nonnull final List<AffiliationChangeQueue.AffiliationChange> batch) throws ServiceException
+    {
         final Lock lock = getLock(service, roomName);
         lock.lock();
         try {
+            final long start = System.nanoTime();
             service.getChatRoomLock(roomName);
             final MUCRoom room = getRoom(service, roomName);
-            try {
-                // Add all new affiliations.
+
+            final Map<AffiliationChangeQueue.AffiliationChange, AffiliationDiff> applied = new LinkedHashMap<>();
+            boolean modified = false;
+            for (final AffiliationChangeQueue.AffiliationChange change : batch) {
+                final AffiliationDiff diff = new AffiliationDiff(getAffiliatedUsers(room, change.getAffiliation()), change.getJids(), change.isReplace());
+                modified |= !diff.toAdd.isEmpty() || !diff.toRemove.isEmpty();
+                try {
+                    applyAffiliationChange(room, change, diff);
+                    applied.put(change, diff);
+                } catch (ServiceException e) {
+                    change.fail(e);
+                }
+            }
+
+            if (applied.isEmpty() && !modified) {
+                return;
+            }
+
+            // Make sure that other cluster nodes see the changes made here, including those of changes that failed halfway.
+            service.syncChatRoom(room);
+            EventsController.getInstance().roomUpdated(room.getJID());
+
+            for (final Map.Entry<AffiliationChangeQueue.AffiliationChange, AffiliationDiff> entry : applied.entrySet()) {
+                final AffiliationChangeQueue.AffiliationChange change = entry.getKey();
+                final AffiliationDiff diff = entry.getValue();
+                try {
+                    if (change.isSendInvitations()) {
+                        sendInvitationsFromRoom(room, EnumSet.of(change.getAffiliation()), diff.toAdd, null, true);
+                    }
+                } catch (ForbiddenException e) {
+                    change.fail(new ServiceException("Can not send invitation to newly affiliated " + change.getAffiliation() + " users or groups", roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e));
+                    continue;
+                }
+                final AffiliationChangeResultEntity result = new AffiliationChangeResultEntity(room.getName(), change.getAffiliation().name(), diff.toAdd.size(), diff.toRemove.size(), diff.unchanged);
+                result.setBatchSize(batch.size());
+                result.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                change.complete(result);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The difference between the users that have a particular affiliation with a room, and the users that are
+     * requested to have that affiliation.
+     */
+    private static class AffiliationDiff
+    {
+        final List<JID> toAdd;
+        final List<JID> toRemove;
+        final int unchanged;
+
+        AffiliationDiff(@Nonnull final Collection<JID> current, @Nonnull final Collection<JID> requested, final boolean replace)
+        {
+            // Hash-based lookups keep this linear in the size of both collections, which matters for rooms with many affiliated users.
+            final Set<JID> currentSet = new HashSet<>(current);
+            final Set<JID> requestedSet = requested instanceof Set ? (Set<JID>) requested : new HashSet<>(requested);
+
+            // The users to add are the requested users that aren't already in the current collection.
+            toAdd = new ArrayList<>();
+            for (final JID jid : requestedSet) {
+                if (!currentSet.contains(jid)) {
+                    toAdd.add(jid);
+                }
+            }
+            unchanged = requestedSet.size() - toAdd.size();
+
+            // When replacing, the users to remove are the current users that are no longer requested.
+            toRemove = new ArrayList<>();
+            if (replace) {
+                for (final JID jid : currentSet) {
+                    if (!requestedSet.contains(jid)) {
+                        toRemove.add(jid);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one affiliation change to a room. The caller is responsible for obtaining the room lock, and for
+     * synchronizing the room afterwards.
+     *
+     * @param room The room to modify.
+     * @param change The change to apply.
+     * @param diff The difference between the current affiliations and those requested by the change.
+     * @throws ServiceException When the change could not be (completely) applied.
+     */
+    private static void applyAffiliationChange(@Nonnull final MUCRoom room, @Nonnull final AffiliationChangeQueue.AffiliationChange change, @Nonnull final AffiliationDiff diff) throws ServiceException
+    {
+        final Affiliation affiliation = change.getAffiliation();
+        log("Modifying '" + affiliation + "' affiliations of room " + room.getName() + ": " + diff.toAdd.size() + " to add, " + diff.toRemove.size() + " to remove, " + diff.unchanged + " unchanged.");
+
+        final MUCOccupant self = room.getSelfRepresentation();
+        try {
+            // First, add all new affiliations (some affiliations aren't allowed to be empty, so removing things first could cause issues).
+            if (!diff.toAdd.isEmpty()) {
                 switch (affiliation) {
                     case admin:
-                        room.addAdmins(toAdd, room.getSelfRepresentation().getAffiliation());
+                        room.addAdmins(diff.toAdd, self.getAffiliation());
                         break;
 
                     case member:
-                        for (final JID add : toAdd) {
-                            room.addMember(add, null, room.getSelfRepresentation().getAffiliation());
+                        for (final JID add : diff.toAdd) {
+                            room.addMember(add, null, self.getAffiliation());
                         }
                         break;
 
                     case owner:
-                        room.addOwners(toAdd, room.getSelfRepresentation().getAffiliation());
+                        room.addOwners(diff.toAdd, self.getAffiliation());
                         break;
 
                     case outcast:
-                        for (final JID add : toAdd) {
-                            room.addOutcast(add, null, room.getSelfRepresentation().getUserAddress(), room.getSelfRepresentation().getAffiliation(), room.getSelfRepresentation().getRole());
+                        for (final JID add : diff.toAdd) {
+                            room.addOutcast(add, null, self.getUserAddress(), self.getAffiliation(), self.getRole());
                         }
                         break;
                     default:
                         throw new IllegalStateException("Unrecognized affiliation: " + affiliation);
                 }
-            } catch (ForbiddenException | NotAllowedException e) {
-                throw new ServiceException("Forbidden to apply modification to list of " + affiliation, roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
-            } catch (ConflictException e) {
-                throw new ServiceException("Could not apply modification to list of " + affiliation, roomName, ExceptionType.NOT_ALLOWED, Response.Status.CONFLICT, e);
             }
 
-            // Make sure that other cluster nodes see the changes made here.
-            service.syncChatRoom(room);
-
-            try {
-                if (sendInvitations) {
-                    sendInvitationsFromRoom(room, EnumSet.of(affiliation), toAdd, null, true);
-                }
-            } catch (ForbiddenException e) {
-                throw new ServiceException("Can not send invitation to newly affiliated " + affiliation + " users or groups", roomName, ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
+            // Next, remove the affiliations that are no longer wanted.
+            for (final JID remove : diff.toRemove) {
+                room.addNone(remove, self.getAffiliation());
             }
-        } finally {
-            lock.unlock();
+        } catch (ForbiddenException | NotAllowedException e) {
+            throw new ServiceException("Forbidden to apply modification to list of " + affiliation, room.getName(), ExceptionType.NOT_ALLOWED, Response.Status.FORBIDDEN, e);
+        } catch (ConflictException e) {
+            throw new ServiceException("Could not apply modification to list of " + affiliation, room.getName(), ExceptionType.NOT_ALLOWED, Response.Status.CONFLICT, e);
         }
     }
 
@@ -1358,6 +1726,7 @@ public class MUCRoomController {
 
                 // Make sure that other cluster nodes see the changes made here.
                 service.syncChatRoom(room);
+                EventsController.getInstance().roomUpdated(room.getJID());
             } finally {
                 lock.unlock();
             }
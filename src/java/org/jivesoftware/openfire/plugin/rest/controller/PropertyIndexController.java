@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.cluster.ClusterManager;
+import org.jivesoftware.openfire.event.UserEventDispatcher;
+import org.jivesoftware.openfire.event.UserEventListener;
+import org.jivesoftware.openfire.plugin.rest.dao.PropertyDAO;
+import org.jivesoftware.openfire.stats.i18nStatistic;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.property.DefaultUserPropertyProvider;
+import org.jivesoftware.util.SystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the values of selected user properties in memory, so that users can be found by the value of such a property
+ * without querying the database.
+ *
+ * The index holds, for each indexed property key, the usernames by value. It is loaded in the background when the
+ * plugin starts (and when the set of indexed keys changes), and is kept up to date by listening for users that are
+ * created, modified and deleted. Until it is loaded, lookups are answered by the database.
+ *
+ * User events are not shared between cluster nodes, so the index of one cluster node would not reflect the changes
+ * that are made on other nodes. While clustering is enabled, lookups are therefore always answered by the database.
+ */
+public class PropertyIndexController implements UserEventListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyIndexController.class);
+
+    /**
+     * The keys of the user properties that are indexed, comma-separated. Empty to disable the index.
+     */
+    public static final SystemProperty<String> KEYS = SystemProperty.Builder.ofType(String.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.property-index.keys")
+        .setDefaultValue("")
+        .setDynamic(true)
+        .addListener(keys -> getInstance().rebuild())
+        .build();
+
+    /** Rough size of a string, excluding its characters: object header, fields, array header. */
+    private static final int STRING_OVERHEAD = 40;
+
+    /** Rough size of an entry in a concurrent hash map, including its share of the table. */
+    private static final int ENTRY_OVERHEAD = 40;
+
+    /** Rough size of an empty set of usernames. */
+    private static final int SET_OVERHEAD = 100;
+
+    /** The Constant INSTANCE. */
+    private static PropertyIndexController INSTANCE = null;
+
+    private boolean started;
+
+    private volatile Index index;
+
+    private volatile long lastRebuildMillis = -1;
+
+    /**
+     * Gets the single instance of PropertyIndexController.
+     *
+     * @return single instance of PropertyIndexController
+     */
+    public static synchronized PropertyIndexController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new PropertyIndexController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts loading the index in the background, and keeping it up to date.
+     */
+    public synchronized void start() {
+        started = true;
+        UserEventDispatcher.addListener(this);
+        rebuild();
+    }
+
+    /**
+     * Stops keeping the index up to date, and discards it.
+     */
+    public synchronized void stop() {
+        started = false;
+        UserEventDispatcher.removeListener(this);
+        index = null;
+    }
+
+    /**
+     * Discards the index, and loads a new one in the background for the keys that are currently configured.
+     */
+    public synchronized void rebuild() {
+        if (!started) {
+            return;
+        }
+        final Set<String> keys = new LinkedHashSet<>();
+        for (final String key : KEYS.getValue().split(",")) {
+            if (!key.isBlank()) {
+                keys.add(key.trim());
+            }
+        }
+        if (keys.isEmpty()) {
+            index = null;
+            return;
+        }
+
+        final Index building = new Index(keys);
+        index = building;
+        final Thread thread = new Thread(() -> load(building), "restapi-property-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void load(@Nonnull final Index building) {
+        final long start = System.nanoTime();
+        try {
+            if (UserManager.getUserPropertyProvider() instanceof DefaultUserPropertyProvider) {
+                for (final String key : building.keys) {
+                    for (final Map.Entry<String, String> entry : PropertyDAO.getPropertiesByKey(key).entrySet()) {
+                        if (index != building) {
+                            return;
+                        }
+                        synchronized (this) {
+                            if (!building.touched.contains(entry.getKey())) {
+                                building.set(key, entry.getKey(), entry.getValue());
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (final User user : UserManager.getInstance().getUsers()) {
+                    if (index != building) {
+                        return;
+                    }
+                    synchronized (this) {
+                        if (!building.touched.contains(user.getUsername())) {
+                            building.refresh(user.getUsername(), user.getProperties());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Unable to load the index of user properties {}. Lookups are answered by the database.", building.keys, e);
+            synchronized (this) {
+                if (index == building) {
+                    index = null;
+                }
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (index != building) {
+                return;
+            }
+            building.touched.clear();
+            building.ready = true;
+        }
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.info("Indexed user properties {} in {} ms: {} values, about {} KB.", building.keys, lastRebuildMillis, building.size(), building.bytes.get() / 1024);
+    }
+
+    /**
+     * Finds the users that have a property with a value.
+     *
+     * @param key the key of the property
+     * @param value the value of the property (null for any value)
+     * @return the usernames, or null when the key is not indexed, the index is not loaded yet, or clustering is enabled
+     */
+    @Nullable
+    public Set<String> lookup(@Nonnull final String key, @Nullable final String value) {
+        final Index current = index;
+        if (current == null || !current.ready || !current.keys.contains(key) || ClusterManager.isClusteringEnabled()) {
+            return null;
+        }
+        if (value == null) {
+            return Collections.unmodifiableSet(current.valueByUsername.get(key).keySet());
+        }
+        final Set<String> usernames = current.usernamesByValue.get(key).get(value);
+        return usernames == null ? Collections.emptySet() : Collections.unmodifiableSet(usernames);
+    }
+
+    /**
+     * @return the estimated amount of memory used by the index, in bytes
+     */
+    public long getMemoryFootprint() {
+        final Index current = index;
+        return current == null ? 0 : current.bytes.get();
+    }
+
+    /**
+     * @return the duration of the last time the index was loaded, in milliseconds (-1 when it was never loaded)
+     */
+    public long getLastRebuildMillis() {
+        return lastRebuildMillis;
+    }
+
+    @Override
+    public synchronized void userCreated(final User user, final Map<String, Object> params) {
+        update(user, false);
+    }
+
+    @Override
+    public synchronized void userDeleting(final User user, final Map<String, Object> params) {
+        update(user, true);
+    }
+
+    @Override
+    public synchronized void userModified(final User user, final Map<String, Object> params) {
+        final Index current = index;
+        final Object key = params == null ? null : params.get("propertyKey");
+        if (current != null && key != null && current.keys.contains(key.toString())) {
+            update(user, false);
+        }
+    }
+
+    private void update(@Nonnull final User user, final boolean deleted) {
+        final Index current = index;
+        if (current == null) {
+            return;
+        }
+        if (!current.ready) {
+            // Prevent the loader from overwriting this with data that it read before.
+            current.touched.add(user.getUsername());
+        }
+        current.refresh(user.getUsername(), deleted ? Collections.emptyMap() : user.getProperties());
+    }
+
+    /**
+     * The indexed values of a set of property keys.
+     */
+    private static final class Index {
+        final Set<String> keys;
+        final Map<String, Map<String, Set<String>>> usernamesByValue = new ConcurrentHashMap<>();
+        final Map<String, Map<String, String>> valueByUsername = new ConcurrentHashMap<>();
+        final Set<String> touched = ConcurrentHashMap.newKeySet();
+        final AtomicLong bytes = new AtomicLong();
+        volatile boolean ready;
+
+        Index(@Nonnull final Set<String> keys) {
+            this.keys = keys;
+            for (final String key : keys) {
+                usernamesByValue.put(key, new ConcurrentHashMap<>());
+                valueByUsername.put(key, new ConcurrentHashMap<>());
+            }
+        }
+
+        /**
+         * Sets the indexed values of a user to those in its properties.
+         */
+        void refresh(@Nonnull final String username, @Nonnull final Map<String, String> properties) {
+            for (final String key : keys) {
+                set(key, username, properties.get(key));
+            }
+        }
+
+        void set(@Nonnull final String key, @Nonnull final String username, @Nullable final String value) {
+            final String old = value == null ? valueByUsername.get(key).remove(username) : valueByUsername.get(key).put(username, value);
+            if (value != null && value.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                final Set<String> usernames = usernamesByValue.get(key).get(old);
+                usernames.remove(username);
+                bytes.addAndGet(-entrySize(username, old));
+                if (usernames.isEmpty()) {
+                    usernamesByValue.get(key).remove(old);
+                    bytes.addAndGet(-SET_OVERHEAD);
+                }
+            }
+            if (value != null) {
+                usernamesByValue.get(key).computeIfAbsent(value, v -> {
+                    bytes.addAndGet(SET_OVERHEAD);
+                    return ConcurrentHashMap.newKeySet();
+                }).add(username);
+                bytes.addAndGet(entrySize(username, value));
+            }
+        }
+
+        long size() {
+            long size = 0;
+            for (final Map<String, String> values : valueByUsername.values()) {
+                size += values.size();
+            }
+            return size;
+        }
+
+        private static long entrySize(@Nonnull final String username, @Nonnull final String value) {
+            // One entry by username, one in the set of usernames of the value.
+            return 2 * ENTRY_OVERHEAD + STRING_OVERHEAD * 2L + username.length() + value.length();
+        }
+    }
+
+    /**
+     * The estimated amount of memory used by the index of user properties.
+     */
+    public static class MemoryStatistic extends i18nStatistic
+    {
+        public static final String KEY = "restapi_property-index.memory";
+
+        public MemoryStatistic()
+        {
+            super(KEY, "restapi", Type.amount);
+        }
+
+        @Override
+        public double sample()
+        {
+            return getInstance().getMemoryFootprint() / 1024.0;
+        }
+
+        @Override
+        public boolean isPartialSample()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * The duration of the last time the index of user properties was loaded.
+     */
+    public static class RebuildTimeStatistic extends i18nStatistic
+    {
+        public static final String KEY = "restapi_property-index.rebuild";
+
+        public RebuildTimeStatistic()
+        {
+            super(KEY, "restapi", Type.amount);
+        }
+
+        @Override
+        public double sample()
+        {
+            return Math.max(0, getInstance().getLastRebuildMillis());
+        }
+
+        @Override
+        public boolean isPartialSample()
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.SharedGroupException;
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.group.Group;
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.entity.BulkResultEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.DesiredRosterItemEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.JobResultEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.RosterOperationEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.roster.Roster;
+import org.jivesoftware.openfire.roster.RosterItem;
+import org.jivesoftware.openfire.user.UserAlreadyExistsException;
+import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.jivesoftware.util.JiveGlobals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies many changes to one roster at once: a list of operations, or a complete desired roster.
+ *
+ * The roster is loaded once. The changes are first applied to a copy of the entries of the roster, so that several
+ * changes to the same contact result in one change of its entry. Then only the entries that differ from the roster are
+ * written, each with one update of the roster, which is pushed to the sessions of the user once. Entries that do not
+ * change are neither written nor pushed.
+ */
+public class RosterController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RosterController.class);
+
+    /** The Constant INSTANCE. */
+    private static RosterController INSTANCE = null;
+
+    /**
+     * Gets the single instance of RosterController.
+     *
+     * @return single instance of RosterController
+     */
+    public static synchronized RosterController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new RosterController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    /**
+     * Applies operations to the roster of a user, in order. An operation that cannot be applied does not prevent the
+     * other operations from being applied.
+     *
+     * @param username the username of the user
+     * @param operations the operations
+     * @return the outcome of each operation, in order
+     * @throws ServiceException when the user does not exist
+     */
+    @Nonnull
+    public BulkResultEntities applyOperations(@Nonnull final String username, @Nullable final List<RosterOperationEntity> operations) throws ServiceException {
+        final Roster roster = getRoster(username);
+        final Map<String, Contact> current = read(roster);
+        final Map<String, Contact> desired = new LinkedHashMap<>(current);
+
+        final List<JobResultEntity> results = new ArrayList<>();
+        final Map<String, List<JobResultEntity>> resultsByJid = new HashMap<>();
+        for (final RosterOperationEntity operation : operations == null ? List.<RosterOperationEntity>of() : operations) {
+            final JobResultEntity result = new JobResultEntity(operation == null ? null : operation.getJid(), BulkResultEntities.STATUS_SUCCESS, null);
+            results.add(result);
+            try {
+                resultsByJid.computeIfAbsent(apply(operation, desired), jid -> new ArrayList<>()).add(result);
+            } catch (OperationException e) {
+                result.setStatus(e.status);
+                result.setMessage(e.getMessage());
+            }
+        }
+
+        final Map<String, String> failures = write(roster, current, desired);
+        failures.forEach((jid, message) -> resultsByJid.getOrDefault(jid, List.of()).forEach(result -> {
+            result.setStatus(BulkResultEntities.STATUS_FAILED);
+            result.setMessage(message);
+        }));
+        log("Applied " + results.size() + " operations to the roster of " + username);
+        return new BulkResultEntities(results);
+    }
+
+    /**
+     * Makes the roster of a user equal to a desired roster, with the fewest changes. Entries that are equal to the
+     * desired entries are left alone. Entries that the user has only because of shared groups cannot be removed, and
+     * are kept; the names of shared groups are ignored in the groups of a desired entry. A desired entry without a
+     * subscription keeps the current subscription (none for a new entry), and the subscription of an entry that is
+     * (also) defined by a shared group is never changed.
+     *
+     * @param username the username of the user
+     * @param items the desired entries
+     * @return the entries that were added, updated or deleted, or that could not be changed
+     * @throws ServiceException when the user does not exist
+     */
+    @Nonnull
+    public BulkResultEntities replaceRoster(@Nonnull final String username, @Nullable final List<DesiredRosterItemEntity> items) throws ServiceException {
+        final Roster roster = getRoster(username);
+        final Map<String, Contact> current = read(roster);
+        final Map<String, RosterItem> rosterItems = new HashMap<>();
+        for (final RosterItem item : roster.getRosterItems()) {
+            rosterItems.put(item.getJid().toBareJID(), item);
+        }
+
+        final List<JobResultEntity> results = new ArrayList<>();
+        final Map<String, Contact> desired = new LinkedHashMap<>();
+        final Set<String> rejected = new LinkedHashSet<>();
+        for (final DesiredRosterItemEntity item : items == null ? List.<DesiredRosterItemEntity>of() : items) {
+            final String jid;
+            try {
+                if (item == null || item.getJid() == null) {
+                    throw new OperationException(BulkResultEntities.STATUS_FAILED, "The roster entry has no JID.");
+                }
+                try {
+                    jid = new JID(item.getJid()).toBareJID();
+                } catch (IllegalArgumentException e) {
+                    throw new OperationException(BulkResultEntities.STATUS_FAILED, "The JID is invalid.");
+                }
+                if (desired.containsKey(jid) || rejected.contains(jid)) {
+                    throw new OperationException(BulkResultEntities.STATUS_FAILED, "The JID occurs more than once.");
+                }
+                final RosterItem rosterItem = rosterItems.get(jid);
+                RosterItem.SubType subscription = toSubType(item.getSubscriptionType());
+                if (subscription == null || (rosterItem != null && rosterItem.isShared())) {
+                    subscription = current.containsKey(jid) ? current.get(jid).subscription : RosterItem.SUB_NONE;
+                }
+                desired.put(jid, new Contact(item.getNickname(), withoutSharedGroups(item.getGroups(), rosterItem), subscription));
+            } catch (OperationException e) {
+                results.add(new JobResultEntity(item == null ? null : item.getJid(), e.status, e.getMessage()));
+                final String bareJid = item == null || item.getJid() == null ? null : toBareJid(item.getJid());
+                if (bareJid != null) {
+                    rejected.add(bareJid);
+                }
+            }
+        }
+
+        // Entries that were not acceptable are left as they are.
+        for (final String jid : rejected) {
+            if (current.containsKey(jid)) {
+                desired.put(jid, current.get(jid));
+            } else {
+                desired.remove(jid);
+            }
+        }
+
+        // Entries that only exist because of shared groups cannot be removed.
+        for (final Map.Entry<String, RosterItem> entry : rosterItems.entrySet()) {
+            if (entry.getValue().isOnlyShared() && !desired.containsKey(entry.getKey())) {
+                desired.put(entry.getKey(), current.get(entry.getKey()));
+                results.add(new JobResultEntity(entry.getKey(), BulkResultEntities.STATUS_SKIPPED, "The roster entry is defined by a shared group, and cannot be removed."));
+            }
+        }
+
+        final Map<String, String> failures = write(roster, current, desired);
+        final Set<String> jids = new LinkedHashSet<>(current.keySet());
+        jids.addAll(desired.keySet());
+        for (final String jid : jids) {
+            final Contact before = current.get(jid);
+            final Contact after = desired.get(jid);
+            if (failures.containsKey(jid)) {
+                results.add(new JobResultEntity(jid, BulkResultEntities.STATUS_FAILED, failures.get(jid)));
+            } else if (before == null) {
+                results.add(new JobResultEntity(jid, BulkResultEntities.STATUS_ADDED, null));
+            } else if (after == null) {
+                results.add(new JobResultEntity(jid, BulkResultEntities.STATUS_DELETED, null));
+            } else if (!before.equals(after)) {
+                results.add(new JobResultEntity(jid, BulkResultEntities.STATUS_UPDATED, null));
+            }
+        }
+        log("Replaced the roster of " + username + ": " + results.size() + " entries changed or could not be changed");
+        return new BulkResultEntities(results);
+    }
+
+    @Nullable
+    private static String toBareJid(@Nonnull final String jid) {
+        try {
+            return new JID(jid).toBareJID();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes the names of the shared groups through which a contact is on a roster from the groups of an entry, as
+     * these groups cannot be set explicitly.
+     */
+    @Nullable
+    private static List<String> withoutSharedGroups(@Nullable final List<String> groups, @Nullable final RosterItem item) {
+        if (groups == null || item == null || item.getSharedGroups().isEmpty()) {
+            return groups;
+        }
+        final Set<String> shared = new HashSet<>();
+        for (final Group group : item.getSharedGroups()) {
+            shared.add(group.getName());
+            final String displayName = group.getProperties().get("sharedRoster.displayName");
+            if (displayName != null) {
+                shared.add(displayName);
+            }
+        }
+        final List<String> personal = new ArrayList<>(groups);
+        personal.removeAll(shared);
+        return personal;
+    }
+
+    /**
+     * Applies an operation to the desired entries of a roster.
+     *
+     * @return the bare JID of the contact
+     */
+    @Nonnull
+    private static String apply(@Nullable final RosterOperationEntity operation, @Nonnull final Map<String, Contact> desired) throws OperationException {
+        if (operation == null || operation.getJid() == null) {
+            throw new OperationException(BulkResultEntities.STATUS_FAILED, "The operation has no JID.");
+        }
+        final String jid;
+        try {
+            jid = new JID(operation.getJid()).toBareJID();
+        } catch (IllegalArgumentException e) {
+            throw new OperationException(BulkResultEntities.STATUS_FAILED, "The JID is invalid.");
+        }
+        final RosterItem.SubType subscription = toSubType(operation.getSubscriptionType());
+        final Contact contact = desired.get(jid);
+        final String action = operation.getAction() == null ? "" : operation.getAction();
+        switch (action) {
+            case RosterOperationEntity.ACTION_ADD:
+                if (contact != null) {
+                    throw new OperationException(BulkResultEntities.STATUS_FAILED, "A roster entry already exists for this JID.");
+                }
+                desired.put(jid, new Contact(operation.getNickname(), operation.getGroups(), subscription == null ? RosterItem.SUB_NONE : subscription));
+                break;
+            case RosterOperationEntity.ACTION_UPDATE:
+                if (contact == null) {
+                    throw new OperationException(BulkResultEntities.STATUS_NOT_FOUND, "The roster has no entry for this JID.");
+                }
+                desired.put(jid, new Contact(
+                    operation.getNickname() == null ? contact.nickname : operation.getNickname(),
+                    operation.getGroups() == null ? contact.groups : operation.getGroups(),
+                    subscription == null ? contact.subscription : subscription));
+                break;
+            case RosterOperationEntity.ACTION_DELETE:
+                if (contact == null) {
+                    throw new OperationException(BulkResultEntities.STATUS_NOT_FOUND, "The roster has no entry for this JID.");
+                }
+                desired.remove(jid);
+                break;
+            default:
+                throw new OperationException(BulkResultEntities.STATUS_FAILED, "Unknown action: " + operation.getAction());
+        }
+        return jid;
+    }
+
+    @Nullable
+    private static RosterItem.SubType toSubType(@Nullable final Integer subscriptionType) throws OperationException {
+        if (subscriptionType == null) {
+            return null;
+        }
+        if (subscriptionType < 0 || subscriptionType > 3) {
+            throw new OperationException(BulkResultEntities.STATUS_FAILED, "The subscription type must be 0 (none), 1 (to), 2 (from) or 3 (both).");
+        }
+        return RosterItem.SubType.getTypeFromInt(subscriptionType);
+    }
+
+    /**
+     * Writes the entries of a roster that differ from the desired entries.
+     *
+     * @param roster the roster
+     * @param current the entries of the roster, by bare JID
+     * @param desired the desired entries, by bare JID
+     * @return why entries could not be written, by bare JID
+     */
+    @Nonnull
+    Map<String, String> write(@Nonnull final Roster roster, @Nonnull final Map<String, Contact> current, @Nonnull final Map<String, Contact> desired) {
+        final Set<String> jids = new LinkedHashSet<>(current.keySet());
+        jids.addAll(desired.keySet());
+
+        final Map<String, String> failures = new LinkedHashMap<>();
+        int writes = 0;
+        for (final String jid : jids) {
+            final Contact before = current.get(jid);
+            final Contact after = desired.get(jid);
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            try {
+                if (after == null) {
+                    roster.deleteRosterItem(new JID(jid), true);
+                } else if (before == null) {
+                    // The entry is pushed when it is created, unless its subscription is set afterwards.
+                    final boolean subscribed = after.subscription != RosterItem.SUB_NONE;
+                    final RosterItem item = roster.createRosterItem(new JID(jid), after.nickname, after.groups, !subscribed, true);
+                    if (subscribed) {
+                        item.setSubStatus(after.subscription);
+                        roster.updateRosterItem(item);
+                    }
+                } else {
+                    final RosterItem item = roster.getRosterItem(new JID(jid));
+                    item.setNickname(after.nickname);
+                    item.setGroups(after.groups);
+                    if (!item.isShared()) {
+                        // The subscription of an entry of a shared group is maintained by the server.
+                        item.setSubStatus(after.subscription);
+                    }
+                    roster.updateRosterItem(item);
+                }
+                writes++;
+            } catch (UserAlreadyExistsException | UserNotFoundException | SharedGroupException | RuntimeException e) {
+                LOG.debug("Unable to change the entry of {} on the roster of {}.", jid, roster.getUsername(), e);
+                failures.put(jid, "The roster entry cannot be changed: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            }
+        }
+        log("Wrote " + writes + " entries of the roster of " + roster.getUsername() + " (" + failures.size() + " failed)");
+        return failures;
+    }
+
+    /**
+     * Reads the entries of a roster.
+     *
+     * @param roster the roster
+     * @return the entries, by bare JID
+     */
+    @Nonnull
+    Map<String, Contact> read(@Nonnull final Roster roster) {
+        final Map<String, Contact> contacts = new LinkedHashMap<>();
+        for (final RosterItem item : roster.getRosterItems()) {
+            contacts.put(item.getJid().toBareJID(), new Contact(item.getNickname(), item.getGroups(), item.getSubStatus()));
+        }
+        return contacts;
+    }
+
+    @Nonnull
+    Roster getRoster(@Nonnull final String username) throws ServiceException {
+        try {
+            return XMPPServer.getInstance().getRosterManager().getRoster(username);
+        } catch (UserNotFoundException e) {
+            throw new ServiceException("Could not get user roster", username, ExceptionType.USER_NOT_FOUND_EXCEPTION,
+                    Response.Status.NOT_FOUND, e);
+        }
+    }
+
+    /**
+     * The state of an entry of a roster.
+     */
+    static final class Contact {
+        final String nickname;
+        final List<String> groups;
+        final RosterItem.SubType subscription;
+
+        Contact(@Nullable final String nickname, @Nullable final List<String> groups, @Nonnull final RosterItem.SubType subscription) {
+            this.nickname = nickname;
+            this.groups = groups == null ? List.of() : groups.stream().filter(Objects::nonNull).toList();
+            this.subscription = subscription;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contact)) {
+                return false;
+            }
+            final Contact other = (Contact) o;
+            return Objects.equals(nickname, other.nickname) && groups.equals(other.groups) && subscription == other.subscription;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nickname, groups, subscription);
+        }
+    }
+
+    /**
+     * Signals that an operation cannot be applied.
+     */
+    private static final class OperationException extends Exception {
+        final String status;
+
+        OperationException(@Nonnull final String status, @Nonnull final String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
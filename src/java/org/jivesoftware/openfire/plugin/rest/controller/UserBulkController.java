@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.SessionManager;
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.lockout.DefaultLockOutProvider;
+import org.jivesoftware.openfire.lockout.LockOutEventDispatcher;
+import org.jivesoftware.openfire.lockout.LockOutFlag;
+import org.jivesoftware.openfire.lockout.LockOutManager;
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.dao.LockOutDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.BulkResultEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.JobResultEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserBulkEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.session.ClientSession;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.SystemProperty;
+import org.jivesoftware.util.cache.Cache;
+import org.jivesoftware.util.cache.CacheFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.StreamError;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes, locks out (disables) and unlocks (enables) many users at once.
+ *
+ * Users are processed in batches. The users of a batch are deleted in parallel. When the default lockout provider is
+ * used, the lockouts of all users in a batch are stored (or removed) in one transaction, rather than one user at a
+ * time. The sessions of users that are locked out are closed in parallel. The outcome of each user is reported.
+ */
+public class UserBulkController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserBulkController.class);
+
+    /**
+     * The amount of threads that delete users, close sessions and update the rosters of the contacts of a renamed user.
+     * Changes are applied when the plugin is restarted.
+     */
+    public static final SystemProperty<Integer> PARALLELISM = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.bulk.parallelism")
+        .setDefaultValue(8)
+        .setMinValue(1)
+        .setMaxValue(64)
+        .setDynamic(false)
+        .build();
+
+    /** The maximum amount of users of which lockouts are stored in one transaction. */
+    private static final int BATCH_SIZE = 500;
+
+    /** The Constant INSTANCE. */
+    private static UserBulkController INSTANCE = null;
+
+    private ExecutorService workers;
+
+    /**
+     * The operations that can be applied to users in bulk.
+     */
+    public enum Operation {
+        DELETE,
+        DISABLE,
+        ENABLE
+    }
+
+    /**
+     * Gets the single instance of UserBulkController.
+     *
+     * @return single instance of UserBulkController
+     */
+    public static synchronized UserBulkController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserBulkController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    /**
+     * Starts the threads that process users.
+     */
+    public synchronized void start() {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        workers = Executors.newFixedThreadPool(PARALLELISM.getValue(), runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-bulk-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the threads that process users. Operations that are in progress fail.
+     */
+    public synchronized void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    /**
+     * Determines the usernames of the users to which an operation is to be applied.
+     *
+     * @param bulk the usernames, or the property that the users have. Usernames are normalized (nodeprep) the way
+     *             Openfire stores them, so that 'John' and 'john' denote the same user.
+     * @return the usernames, without duplicates
+     * @throws ServiceException when neither or both usernames and a property are provided
+     */
+    @Nonnull
+    public List<String> getUsernames(@Nullable final UserBulkEntity bulk) throws ServiceException {
+        final boolean byName = bulk != null && bulk.getUsernames() != null && !bulk.getUsernames().isEmpty();
+        final boolean byProperty = bulk != null && bulk.getPropertyKey() != null && !bulk.getPropertyKey().isEmpty();
+        if (byName == byProperty) {
+            throw new ServiceException("Provide either usernames or a property key", "users", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        final Set<String> usernames = new LinkedHashSet<>();
+        if (byName) {
+            for (final String username : bulk.getUsernames()) {
+                if (username != null && !username.isEmpty()) {
+                    usernames.add(normalize(username));
+                }
+            }
+        } else {
+            for (final UserEntity user : UserServiceController.getInstance().getUserEntities(null, bulk.getPropertyKey(), bulk.getPropertyValue()).getUsers()) {
+                usernames.add(user.getUsername());
+            }
+        }
+        return new ArrayList<>(usernames);
+    }
+
+    /**
+     * Normalizes a username the way Openfire stores it. A username that is not valid is returned as-is, so that it is
+     * reported as a user that does not exist.
+     */
+    @Nonnull
+    private static String normalize(@Nonnull final String username) {
+        try {
+            return JID.nodeprep(username);
+        } catch (IllegalArgumentException e) {
+            return username;
+        }
+    }
+
+    /**
+     * Applies an operation to users.
+     *
+     * @param operation the operation
+     * @param usernames the usernames of the users, as returned by {@link #getUsernames(UserBulkEntity)}
+     * @param progress receives the outcome of each user, when the operation is executed as a job (can be null)
+     * @return the outcome of each user
+     * @throws ServiceException when the operation is stopped
+     */
+    @Nonnull
+    public BulkResultEntities process(@Nonnull final Operation operation, @Nonnull final List<String> usernames, @Nullable final JobsController.Progress progress) throws ServiceException {
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = workers;
+        }
+        if (executor == null) {
+            throw new ServiceException("Bulk operations on users are not available", "users", ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE);
+        }
+
+        if (progress != null) {
+            progress.setTotal(usernames.size());
+        }
+        final List<JobResultEntity> results = new ArrayList<>(usernames.size());
+        for (int from = 0; from < usernames.size(); from += BATCH_SIZE) {
+            if (progress != null && progress.isCancelled()) {
+                break;
+            }
+            final List<JobResultEntity> batch = process(executor, operation, usernames.subList(from, Math.min(from + BATCH_SIZE, usernames.size())));
+            if (progress != null) {
+                batch.forEach(progress::completed);
+            }
+            results.addAll(batch);
+        }
+        log("Applied " + operation + " to " + results.size() + " users.");
+        return new BulkResultEntities(results);
+    }
+
+    @Nonnull
+    private List<JobResultEntity> process(@Nonnull final ExecutorService executor, @Nonnull final Operation operation, @Nonnull final List<String> batch) throws ServiceException {
+        final List<JobResultEntity> outcomes = new ArrayList<>(batch.size());
+        // The outcome of each user that exists, by the username that Openfire stores (which can differ from the one requested).
+        final Map<String, JobResultEntity> results = new LinkedHashMap<>();
+        final List<User> users = new ArrayList<>();
+        for (final String username : batch) {
+            final JobResultEntity result = new JobResultEntity(username, BulkResultEntities.STATUS_SUCCESS, null);
+            outcomes.add(result);
+            try {
+                final JID jid = XMPPServer.getInstance().createJID(username, null);
+                if (jid.getNode() == null) {
+                    throw new UserNotFoundException(username);
+                }
+                final User user = UserManager.getInstance().getUser(jid.getNode());
+                results.put(user.getUsername(), result);
+                users.add(user);
+            } catch (UserNotFoundException | IllegalArgumentException e) {
+                result.setStatus(BulkResultEntities.STATUS_NOT_FOUND);
+                result.setMessage("The user does not exist.");
+            }
+        }
+
+        switch (operation) {
+            case DELETE:
+                delete(executor, users, results);
+                break;
+            case DISABLE:
+                setLockedOut(executor, users, true, results);
+                closeSessions(executor, users, results);
+                break;
+            case ENABLE:
+                setLockedOut(executor, users, false, results);
+                break;
+        }
+        return outcomes;
+    }
+
+    private void delete(@Nonnull final ExecutorService executor, @Nonnull final List<User> users, @Nonnull final Map<String, JobResultEntity> results) throws ServiceException {
+        final List<Future<?>> deletions = new ArrayList<>();
+        for (final User user : users) {
+            deletions.add(executor.submit(() -> {
+                try {
+                    UserManager.getInstance().deleteUser(user);
+                    XMPPServer.getInstance().getRosterManager().deleteRoster(XMPPServer.getInstance().createJID(user.getUsername(), null));
+                } catch (RuntimeException e) {
+                    fail(results.get(user.getUsername()), "The user cannot be deleted: " + e.getMessage());
+                }
+            }));
+        }
+        await(deletions);
+    }
+
+    private void setLockedOut(@Nonnull final ExecutorService executor, @Nonnull final List<User> users, final boolean lockedOut, @Nonnull final Map<String, JobResultEntity> results) throws ServiceException {
+        if (users.isEmpty()) {
+            return;
+        }
+        if (LockOutManager.getLockOutProvider() instanceof DefaultLockOutProvider) {
+            final List<String> usernames = users.stream().map(User::getUsername).toList();
+            try {
+                if (lockedOut) {
+                    LockOutDAO.disableAccounts(usernames);
+                } else {
+                    LockOutDAO.enableAccounts(usernames);
+                }
+
+                // The lockouts were stored without the lockout manager noticing. Update its cache, and tell listeners.
+                final Cache<String, LockOutFlag> lockOutCache = CacheFactory.createCache("Locked Out Accounts");
+                for (final String username : usernames) {
+                    if (lockedOut) {
+                        final LockOutFlag flag = new LockOutFlag(username, null, null);
+                        lockOutCache.put(username, flag);
+                        LockOutEventDispatcher.accountLocked(flag);
+                    } else {
+                        lockOutCache.remove(username);
+                        LockOutEventDispatcher.accountUnlocked(username);
+                    }
+                }
+                return;
+            } catch (SQLException e) {
+                LOG.debug("Unable to store the lockouts of a batch of users. Storing them one user at a time.", e);
+            }
+        }
+
+        final List<Future<?>> updates = new ArrayList<>();
+        for (final User user : users) {
+            updates.add(executor.submit(() -> {
+                try {
+                    if (lockedOut) {
+                        LockOutManager.getInstance().disableAccount(user.getUsername(), null, null);
+                    } else {
+                        LockOutManager.getInstance().enableAccount(user.getUsername());
+                    }
+                } catch (RuntimeException e) {
+                    fail(results.get(user.getUsername()), (lockedOut ? "The user cannot be locked out: " : "The user cannot be unlocked: ") + e.getMessage());
+                }
+            }));
+        }
+        await(updates);
+    }
+
+    private void closeSessions(@Nonnull final ExecutorService executor, @Nonnull final List<User> users, @Nonnull final Map<String, JobResultEntity> results) throws ServiceException {
+        final String error = new StreamError(StreamError.Condition.not_authorized).toXML();
+        final List<Future<?>> closures = new ArrayList<>();
+        for (final User user : users) {
+            final JobResultEntity result = results.get(user.getUsername());
+            if (!BulkResultEntities.STATUS_SUCCESS.equals(result.getStatus())) {
+                continue;
+            }
+            for (final ClientSession session : SessionManager.getInstance().getSessions(user.getUsername())) {
+                closures.add(executor.submit(() -> {
+                    try {
+                        session.deliverRawText(error);
+                        session.close();
+                    } catch (RuntimeException e) {
+                        fail(result, "The user was locked out, but a session cannot be closed: " + e.getMessage());
+                    }
+                }));
+            }
+        }
+        await(closures);
+    }
+
+    /**
+     * Executes tasks on the threads that process users, and waits for all of them to finish. When these threads are
+     * not available, the tasks are executed by the calling thread.
+     *
+     * @param tasks the tasks, which are independent of each other
+     * @throws ServiceException the first exception thrown by a task, or when the tasks are interrupted
+     */
+    void invokeAll(@Nonnull final List<Callable<Void>> tasks) throws ServiceException {
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = workers;
+        }
+        if (executor == null || tasks.size() < 2) {
+            for (final Callable<Void> task : tasks) {
+                call(task);
+            }
+            return;
+        }
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (final Callable<Void> task : tasks) {
+            futures.add(executor.submit(() -> call(task)));
+        }
+        try {
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceException("The bulk operation on users was interrupted", "users", ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof ServiceException) {
+                throw (ServiceException) e.getCause();
+            }
+            throw new ServiceException("The bulk operation on users failed", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e.getCause());
+        }
+    }
+
+    private static Void call(@Nonnull final Callable<Void> task) throws ServiceException {
+        try {
+            return task.call();
+        } catch (ServiceException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("The bulk operation on users failed", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    private static void fail(@Nonnull final JobResultEntity result, @Nonnull final String message) {
+        synchronized (result) {
+            result.setStatus(BulkResultEntities.STATUS_FAILED);
+            result.setMessage(message);
+        }
+    }
+
+    private static void await(@Nonnull final List<Future<?>> futures) throws ServiceException {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceException("The bulk operation on users was interrupted", "users", ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE, e);
+        } catch (ExecutionException e) {
+            // Tasks handle their own failures. This is unexpected.
+            throw new ServiceException("The bulk operation on users failed", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e.getCause());
+        }
+    }
+}
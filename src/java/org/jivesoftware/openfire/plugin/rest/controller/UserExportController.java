@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.dom4j.Element;
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.group.DefaultGroupProvider;
+import org.jivesoftware.openfire.group.Group;
+import org.jivesoftware.openfire.group.GroupManager;
+import org.jivesoftware.openfire.plugin.rest.dao.UserExportDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.RosterItemEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.roster.DefaultRosterItemProvider;
+import org.jivesoftware.openfire.roster.RosterItem;
+import org.jivesoftware.openfire.roster.RosterManager;
+import org.jivesoftware.openfire.user.DefaultUserProvider;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.jivesoftware.openfire.user.property.DefaultUserPropertyProvider;
+import org.jivesoftware.openfire.vcard.DefaultVCardProvider;
+import org.jivesoftware.openfire.vcard.VCardManager;
+import org.jivesoftware.util.SystemProperty;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Exports all users, including their properties, groups, roster items and (optionally) vCard.
+ *
+ * Users are exported in windows, ordered by username. Only one window of users is held in memory at any time. When
+ * the default Openfire providers are used, the data of a window is read from the database in a few queries, rather
+ * than in a few queries per user. Data that is provided by other providers (such as LDAP) is obtained from those
+ * providers, one user at a time.
+ */
+public class UserExportController {
+
+    /**
+     * The amount of users that is read at once.
+     */
+    public static final SystemProperty<Integer> WINDOW_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.export.window-size")
+        .setDefaultValue(500)
+        .setMinValue(1)
+        .setMaxValue(1000)
+        .setDynamic(true)
+        .build();
+
+    /** The Constant INSTANCE. */
+    private static UserExportController INSTANCE = null;
+
+    /**
+     * Gets the single instance of UserExportController.
+     *
+     * @return single instance of UserExportController
+     */
+    public static synchronized UserExportController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserExportController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Exports the users with a username that sorts after the provided username, window by window.
+     *
+     * @param after the username after which to start (null to start at the first user)
+     * @param includeVCard true to include the vCard of each user
+     * @param consumer consumes each window of users, in order
+     * @throws ServiceException when the users cannot be read
+     * @throws IOException when the consumer fails to process a window
+     */
+    public void exportUsers(@Nullable final String after, final boolean includeVCard, @Nonnull final WindowConsumer consumer) throws ServiceException, IOException {
+        final int windowSize = WINDOW_SIZE.getValue();
+
+        // Without the default user provider, the users are not in the database. Fall back to a sorted set of usernames.
+        final Iterator<String> usernames;
+        if (UserManager.getUserProvider() instanceof DefaultUserProvider) {
+            usernames = null;
+        } else {
+            final NavigableSet<String> sorted = new TreeSet<>(UserManager.getInstance().getUsernames());
+            usernames = (after == null ? sorted : sorted.tailSet(after, false)).iterator();
+        }
+
+        String cursor = after;
+        while (true) {
+            final List<UserExportEntity> window = usernames == null ? UserExportDAO.getUsers(cursor, windowSize) : getUsers(usernames, windowSize);
+            if (window.isEmpty()) {
+                return;
+            }
+
+            final Map<String, UserExportEntity> byUsername = new LinkedHashMap<>();
+            window.forEach(user -> byUsername.put(user.getUsername(), user));
+            loadProperties(byUsername);
+            loadGroups(byUsername);
+            loadRosterItems(byUsername);
+            if (includeVCard) {
+                loadVCards(byUsername);
+            }
+
+            consumer.accept(window);
+
+            if (usernames == null ? window.size() < windowSize : !usernames.hasNext()) {
+                return;
+            }
+            cursor = window.get(window.size() - 1).getUsername();
+        }
+    }
+
+    @Nonnull
+    private static List<UserExportEntity> getUsers(@Nonnull final Iterator<String> usernames, final int windowSize) {
+        final List<UserExportEntity> users = new ArrayList<>(windowSize);
+        while (usernames.hasNext() && users.size() < windowSize) {
+            try {
+                final User user = UserManager.getInstance().getUser(usernames.next());
+                users.add(new UserExportEntity(user.getUsername(), user.getName(), user.getEmail()));
+            } catch (UserNotFoundException e) {
+                // Deleted since the usernames were obtained.
+            }
+        }
+        return users;
+    }
+
+    static void loadProperties(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        if (UserManager.getUserPropertyProvider() instanceof DefaultUserPropertyProvider) {
+            UserExportDAO.loadProperties(users);
+            return;
+        }
+        for (final UserExportEntity user : users.values()) {
+            final List<UserProperty> properties = new ArrayList<>();
+            UserManager.getUserPropertyProvider().loadProperties(user.getUsername()).forEach((key, value) -> properties.add(new UserProperty(key, value)));
+            user.setProperties(properties.isEmpty() ? null : properties);
+        }
+    }
+
+    static void loadGroups(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        final GroupManager groupManager = GroupManager.getInstance();
+        if (groupManager.getProvider() instanceof DefaultGroupProvider) {
+            UserExportDAO.loadGroups(users);
+            return;
+        }
+        for (final UserExportEntity user : users.values()) {
+            final Collection<Group> groups = groupManager.getGroups(XMPPServer.getInstance().createJID(user.getUsername(), null));
+            user.setGroups(groups.isEmpty() ? null : groups.stream().map(Group::getName).toList());
+        }
+    }
+
+    static void loadRosterItems(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        if (RosterManager.getRosterItemProvider() instanceof DefaultRosterItemProvider) {
+            UserExportDAO.loadRosterItems(users);
+            return;
+        }
+        for (final UserExportEntity user : users.values()) {
+            final List<RosterItemEntity> roster = new ArrayList<>();
+            final Iterator<RosterItem> items = RosterManager.getRosterItemProvider().getItems(user.getUsername());
+            while (items.hasNext()) {
+                final RosterItem item = items.next();
+                final RosterItemEntity entity = new RosterItemEntity(item.getJid().toBareJID(), item.getNickname(), item.getSubStatus().getValue());
+                entity.setGroups(item.getGroups());
+                roster.add(entity);
+            }
+            user.setRoster(roster.isEmpty() ? null : roster);
+        }
+    }
+
+    static void loadVCards(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        if (VCardManager.getProvider() instanceof DefaultVCardProvider) {
+            UserExportDAO.loadVCards(users);
+            return;
+        }
+        for (final UserExportEntity user : users.values()) {
+            final Element vcard = VCardManager.getProvider().loadVCard(user.getUsername());
+            if (vcard != null) {
+                user.setVcard(vcard.asXML());
+            }
+        }
+    }
+
+    /**
+     * Consumes a window of exported users.
+     */
+    @FunctionalInterface
+    public interface WindowConsumer {
+        void accept(@Nonnull List<UserExportEntity> window) throws IOException;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.lockout.DefaultLockOutProvider;
+import org.jivesoftware.openfire.lockout.LockOutFlag;
+import org.jivesoftware.openfire.lockout.LockOutManager;
+import org.jivesoftware.openfire.plugin.rest.dao.LockOutDAO;
+import org.jivesoftware.openfire.plugin.rest.dao.UserExportDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.UserBatchReadEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserFacetsEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.UserFacetsEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.user.DefaultUserProvider;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+/**
+ * Reads the data (facets) of many users at once: their properties, groups, roster items, vCard and lockout status.
+ *
+ * Each facet is read for all users together, in one query when the default Openfire provider of that facet is used
+ * (other providers are asked one user at a time), and the facets are read in parallel, on the threads that process
+ * users in bulk.
+ */
+public class UserFacetsController {
+
+    /** The maximum amount of users of which data is read at once. */
+    public static final int MAX_USERS = 1000;
+
+    private static final Set<String> DEFAULT_FACETS = Set.of(UserBatchReadEntity.FACET_PROPERTIES, UserBatchReadEntity.FACET_GROUPS,
+        UserBatchReadEntity.FACET_ROSTER, UserBatchReadEntity.FACET_LOCKOUT);
+
+    private static final Set<String> FACETS = Set.of(UserBatchReadEntity.FACET_PROPERTIES, UserBatchReadEntity.FACET_GROUPS,
+        UserBatchReadEntity.FACET_ROSTER, UserBatchReadEntity.FACET_VCARD, UserBatchReadEntity.FACET_LOCKOUT);
+
+    /** The Constant INSTANCE. */
+    private static UserFacetsController INSTANCE = null;
+
+    /**
+     * Gets the single instance of UserFacetsController.
+     *
+     * @return single instance of UserFacetsController
+     */
+    public static synchronized UserFacetsController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserFacetsController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Reads the requested data of users.
+     *
+     * @param request the usernames of the users, and the facets to read. Usernames are normalized (nodeprep) the way
+     *                Openfire stores them, so that 'John' finds the user 'john'.
+     * @return the users that exist, in the order in which they were requested, and the usernames (as requested) of
+     *         those that do not
+     * @throws ServiceException when the request is invalid, or the data cannot be read
+     */
+    @Nonnull
+    public UserFacetsEntities read(@Nullable final UserBatchReadEntity request) throws ServiceException {
+        if (request == null || request.getUsernames() == null || request.getUsernames().isEmpty()) {
+            throw new ServiceException("No usernames were provided", "usernames", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        // The normalized form of each requested username, or null when it is not a valid username.
+        final Map<String, String> requested = new LinkedHashMap<>();
+        final Set<String> usernames = new LinkedHashSet<>();
+        for (final String username : request.getUsernames()) {
+            if (username != null && !username.isBlank() && !requested.containsKey(username)) {
+                final String normalized = normalize(username);
+                requested.put(username, normalized);
+                if (normalized != null) {
+                    usernames.add(normalized);
+                }
+            }
+        }
+        if (requested.size() > MAX_USERS) {
+            throw new ServiceException("No more than " + MAX_USERS + " users can be read at once", "usernames", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        final Set<String> facets = getFacets(request.getFacets());
+
+        final Map<String, UserFacetsEntity> users = getUsers(usernames);
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        if (facets.contains(UserBatchReadEntity.FACET_PROPERTIES)) {
+            tasks.add(() -> {
+                UserExportController.loadProperties(users);
+                return null;
+            });
+        }
+        if (facets.contains(UserBatchReadEntity.FACET_GROUPS)) {
+            tasks.add(() -> {
+                UserExportController.loadGroups(users);
+                return null;
+            });
+        }
+        if (facets.contains(UserBatchReadEntity.FACET_ROSTER)) {
+            tasks.add(() -> {
+                UserExportController.loadRosterItems(users);
+                return null;
+            });
+        }
+        if (facets.contains(UserBatchReadEntity.FACET_VCARD)) {
+            tasks.add(() -> {
+                UserExportController.loadVCards(users);
+                return null;
+            });
+        }
+        if (facets.contains(UserBatchReadEntity.FACET_LOCKOUT)) {
+            tasks.add(() -> {
+                loadLockOuts(users);
+                return null;
+            });
+        }
+        if (!users.isEmpty()) {
+            UserBulkController.getInstance().invokeAll(tasks);
+        }
+
+        final List<UserFacetsEntity> found = new ArrayList<>();
+        final List<String> notFound = new ArrayList<>();
+        final Set<String> reported = new HashSet<>();
+        for (final Map.Entry<String, String> entry : requested.entrySet()) {
+            final UserFacetsEntity user = entry.getValue() == null ? null : users.get(entry.getValue());
+            if (user == null) {
+                notFound.add(entry.getKey());
+            } else if (reported.add(entry.getValue())) {
+                found.add(user);
+            }
+        }
+        return new UserFacetsEntities(found, notFound.isEmpty() ? null : notFound);
+    }
+
+    @Nullable
+    private static String normalize(@Nonnull final String username) {
+        try {
+            return JID.nodeprep(username);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Nonnull
+    private static Set<String> getFacets(@Nullable final List<String> requested) throws ServiceException {
+        if (requested == null || requested.isEmpty()) {
+            return DEFAULT_FACETS;
+        }
+        for (final String facet : requested) {
+            if (facet == null || !FACETS.contains(facet)) {
+                throw new ServiceException("Unknown facet: " + facet + ". Possible facets are: " + String.join(", ", new TreeSet<>(FACETS)), String.valueOf(facet), ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+            }
+        }
+        return Set.copyOf(requested);
+    }
+
+    @Nonnull
+    private static Map<String, UserFacetsEntity> getUsers(@Nonnull final Set<String> usernames) throws ServiceException {
+        if (UserManager.getUserProvider() instanceof DefaultUserProvider) {
+            return UserExportDAO.getUsers(usernames, UserFacetsEntity::new);
+        }
+        final Map<String, UserFacetsEntity> users = new HashMap<>();
+        for (final String username : usernames) {
+            try {
+                final User user = UserManager.getInstance().getUser(username);
+                users.put(username, new UserFacetsEntity(user.getUsername(), user.getName(), user.getEmail()));
+            } catch (UserNotFoundException e) {
+                // Reported as not found.
+            }
+        }
+        return users;
+    }
+
+    private static void loadLockOuts(@Nonnull final Map<String, UserFacetsEntity> users) throws ServiceException {
+        if (LockOutManager.getLockOutProvider() instanceof DefaultLockOutProvider) {
+            final Map<String, LockOutFlag> flags;
+            try {
+                flags = LockOutDAO.getLockOuts(users.keySet());
+            } catch (SQLException e) {
+                throw new ServiceException("Could not read the lockouts of users", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+            }
+            final Date now = new Date();
+            users.forEach((username, user) -> user.setLockedOut(isActive(flags.get(username), now)));
+            return;
+        }
+        users.forEach((username, user) -> user.setLockedOut(LockOutManager.getInstance().isAccountDisabled(username)));
+    }
+
+    /**
+     * Checks whether a lockout applies at a moment, the way the lockout manager does.
+     */
+    private static boolean isActive(@Nullable final LockOutFlag flag, @Nonnull final Date now) {
+        if (flag == null) {
+            return false;
+        }
+        if (flag.getStartTime() != null && now.before(flag.getStartTime())) {
+            return false;
+        }
+        return flag.getEndTime() == null || !now.after(flag.getEndTime());
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.group.Group;
+import org.jivesoftware.openfire.group.GroupManager;
+import org.jivesoftware.openfire.group.GroupNotFoundException;
+import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.dao.UserImportDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.GroupEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.ImportResultEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.CsvParser;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserAlreadyExistsException;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.property.DefaultUserPropertyProvider;
+import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.SystemProperty;
+import org.jivesoftware.util.cache.Cache;
+import org.jivesoftware.util.cache.CacheFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmpp.packet.JID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports users from a stream of lines, each of which defines one user (including its properties and the names of the
+ * groups that it is to be added to).
+ *
+ * Lines are processed in batches. The users of a batch are created in parallel. When the default user property
+ * provider is used, the properties of all users in a batch are stored in one transaction, rather than one property at
+ * a time. Users are added to the groups of a batch group by group, in parallel for different groups. The outcome of
+ * each line is reported when its batch has been processed.
+ */
+public class UserImportController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserImportController.class);
+
+    /**
+     * The amount of lines that is processed at once, and the maximum amount of users for which properties are stored
+     * in one transaction.
+     */
+    public static final SystemProperty<Integer> BATCH_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.import.batch-size")
+        .setDefaultValue(500)
+        .setMinValue(1)
+        .setMaxValue(10000)
+        .setDynamic(true)
+        .build();
+
+    /**
+     * The amount of threads that create users and update groups. Changes are applied when the plugin is restarted.
+     */
+    public static final SystemProperty<Integer> PARALLELISM = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.import.parallelism")
+        .setDefaultValue(4)
+        .setMinValue(1)
+        .setMaxValue(64)
+        .setDynamic(false)
+        .build();
+
+    /** Reads the users on the lines of a JSON import. */
+    private static final ObjectReader USER_READER = CustomJacksonMapperProvider.createObjectMapper(new JsonFactory()).readerFor(UserExportEntity.class);
+
+    /** The CSV columns that do not hold a property. */
+    private static final Set<String> CSV_COLUMNS = Set.of("username", "password", "name", "email", "groups");
+
+    /** The Constant INSTANCE. */
+    private static UserImportController INSTANCE = null;
+
+    private ExecutorService workers;
+
+    /**
+     * Gets the single instance of UserImportController.
+     *
+     * @return single instance of UserImportController
+     */
+    public static synchronized UserImportController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserImportController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    /**
+     * Starts the threads that import users.
+     */
+    public synchronized void start() {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        workers = Executors.newFixedThreadPool(PARALLELISM.getValue(), runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the threads that import users. Imports that are in progress fail.
+     */
+    public synchronized void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    /**
+     * Imports the users on the lines that are read from a reader. Blank lines are ignored. Usernames are normalized
+     * (nodeprep) the way Openfire stores them; the outcome of a line reports the normalized username.
+     *
+     * @param reader provides the lines
+     * @param parser parses each line
+     * @param consumer consumes the outcome of each line, in order of the lines, one batch at a time
+     * @throws IOException when the lines cannot be read, or the consumer fails
+     * @throws ServiceException when the import is stopped
+     */
+    public void importUsers(@Nonnull final BufferedReader reader, @Nonnull final LineParser parser, @Nonnull final ResultConsumer consumer) throws IOException, ServiceException {
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = workers;
+        }
+        if (executor == null) {
+            throw new ServiceException("The import of users is not available", "users", ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE);
+        }
+
+        final List<Line> batch = new ArrayList<>();
+        long number = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            final Line line = new Line(number);
+            try {
+                line.user = parser.parse(text);
+                if (line.user == null) {
+                    // A header.
+                    continue;
+                }
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                line.failure = "The line cannot be parsed: " + e.getMessage();
+            }
+            if (line.user != null && line.user.getUsername() != null && !line.user.getUsername().isEmpty()) {
+                // Normalize the username the way Openfire stores it, so that 'John' and 'john' denote the same user.
+                try {
+                    line.user.setUsername(JID.nodeprep(line.user.getUsername()));
+                } catch (IllegalArgumentException e) {
+                    line.failure = "The username is not valid: " + e.getMessage();
+                }
+            }
+            batch.add(line);
+            if (batch.size() >= BATCH_SIZE.getValue()) {
+                process(executor, batch);
+                consumer.accept(toResults(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            process(executor, batch);
+            consumer.accept(toResults(batch));
+        }
+    }
+
+    private void process(@Nonnull final ExecutorService executor, @Nonnull final List<Line> batch) throws ServiceException {
+        final List<Line> lines = new ArrayList<>();
+        final Set<String> usernames = new HashSet<>();
+        for (final Line line : batch) {
+            if (line.failure != null) {
+                continue;
+            }
+            final UserExportEntity user = line.user;
+            if (user.getUsername() == null || user.getUsername().isEmpty()) {
+                line.failure = "A username is required.";
+            } else if (user.getPassword() == null) {
+                line.failure = "A password is required.";
+            } else if (!usernames.add(user.getUsername())) {
+                line.failure = "The username occurs more than once.";
+            } else {
+                lines.add(line);
+            }
+        }
+
+        // Create the users.
+        final List<Future<?>> creations = new ArrayList<>();
+        for (final Line line : lines) {
+            creations.add(executor.submit(() -> {
+                final UserExportEntity user = line.user;
+                try {
+                    UserManager.getInstance().createUser(user.getUsername(), user.getPassword(), user.getName(), user.getEmail());
+                } catch (UserAlreadyExistsException e) {
+                    line.fail("The user already exists.");
+                } catch (RuntimeException e) {
+                    line.fail("The user cannot be created: " + e.getMessage());
+                }
+            }));
+        }
+        await(creations);
+        lines.removeIf(line -> line.failure != null);
+        log("Imported " + lines.size() + " of " + batch.size() + " users.");
+
+        storeProperties(executor, lines);
+        addToGroups(executor, lines);
+    }
+
+    private void storeProperties(@Nonnull final ExecutorService executor, @Nonnull final List<Line> lines) throws ServiceException {
+        final Map<Line, Map<String, String>> propertiesByLine = new LinkedHashMap<>();
+        for (final Line line : lines) {
+            if (line.user.getProperties() != null && !line.user.getProperties().isEmpty()) {
+                final Map<String, String> properties = new LinkedHashMap<>();
+                line.user.getProperties().forEach(property -> properties.put(property.getKey(), property.getValue()));
+                propertiesByLine.put(line, properties);
+            }
+        }
+        if (propertiesByLine.isEmpty()) {
+            return;
+        }
+
+        if (UserManager.getUserPropertyProvider() instanceof DefaultUserPropertyProvider) {
+            final Map<String, List<UserProperty>> properties = new LinkedHashMap<>();
+            propertiesByLine.forEach((line, map) -> {
+                final List<UserProperty> list = new ArrayList<>();
+                map.forEach((key, value) -> list.add(new UserProperty(key, value)));
+                properties.put(line.user.getUsername(), list);
+            });
+            try {
+                UserImportDAO.insertProperties(properties);
+
+                // The properties were stored without the user manager noticing. Make it load them from the database,
+                // and tell listeners about every property, as if it was set after the user was created.
+                final Cache<String, User> userCache = CacheFactory.createCache("User");
+                properties.keySet().forEach(userCache::remove);
+                final List<Future<?>> notifications = new ArrayList<>();
+                propertiesByLine.forEach((line, map) -> notifications.add(executor.submit(() -> {
+                    try {
+                        final User user = UserManager.getInstance().getUser(line.user.getUsername());
+                        map.keySet().forEach(key -> UserServiceController.dispatchPropertyEvent(user, "propertyAdd", key, null));
+                    } catch (Exception e) {
+                        LOG.warn("Unable to notify listeners of the imported properties of user {}", line.user.getUsername(), e);
+                    }
+                })));
+                await(notifications);
+                return;
+            } catch (SQLException e) {
+                LOG.debug("Unable to store the properties of a batch of users. Storing them one user at a time.", e);
+            }
+        }
+
+        final List<Future<?>> updates = new ArrayList<>();
+        propertiesByLine.forEach((line, properties) -> updates.add(executor.submit(() -> {
+            try {
+                UserManager.getInstance().getUser(line.user.getUsername()).getProperties().putAll(properties);
+            } catch (Exception e) {
+                line.fail("The user was created, but its properties cannot be stored: " + e.getMessage());
+            }
+        })));
+        await(updates);
+    }
+
+    private void addToGroups(@Nonnull final ExecutorService executor, @Nonnull final List<Line> lines) throws ServiceException {
+        final Map<String, List<Line>> linesByGroup = new LinkedHashMap<>();
+        for (final Line line : lines) {
+            if (line.user.getGroups() != null) {
+                for (final String groupName : new HashSet<>(line.user.getGroups())) {
+                    if (groupName != null && !groupName.isEmpty()) {
+                        linesByGroup.computeIfAbsent(groupName, name -> new ArrayList<>()).add(line);
+                    }
+                }
+            }
+        }
+
+        // Members of one group are added by one thread, as a group is not safe for concurrent modification.
+        final List<Future<?>> updates = new ArrayList<>();
+        linesByGroup.forEach((groupName, members) -> updates.add(executor.submit(() -> {
+            final Group group;
+            try {
+                group = getOrCreateGroup(groupName);
+            } catch (ServiceException | RuntimeException e) {
+                members.forEach(line -> line.fail("The user was created, but cannot be added to group '" + groupName + "': " + e.getMessage()));
+                return;
+            }
+            for (final Line line : members) {
+                try {
+                    group.getMembers().add(XMPPServer.getInstance().createJID(line.user.getUsername(), null));
+                } catch (RuntimeException e) {
+                    line.fail("The user was created, but cannot be added to group '" + groupName + "': " + e.getMessage());
+                }
+            }
+        })));
+        await(updates);
+    }
+
+    @Nonnull
+    private static Group getOrCreateGroup(@Nonnull final String groupName) throws ServiceException {
+        try {
+            return GroupManager.getInstance().getGroup(groupName);
+        } catch (GroupNotFoundException e) {
+            return GroupController.getInstance().createGroup(new GroupEntity(groupName, ""));
+        }
+    }
+
+    private static void await(@Nonnull final List<Future<?>> futures) throws ServiceException {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceException("The import of users was interrupted", "users", ExceptionType.SERVICE_UNAVAILABLE, Response.Status.SERVICE_UNAVAILABLE, e);
+        } catch (ExecutionException e) {
+            // Tasks handle their own failures. This is unexpected.
+            throw new ServiceException("The import of users failed", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e.getCause());
+        }
+    }
+
+    @Nonnull
+    private static List<ImportResultEntity> toResults(@Nonnull final List<Line> batch) {
+        final List<ImportResultEntity> results = new ArrayList<>(batch.size());
+        for (final Line line : batch) {
+            final String username = line.user == null ? null : line.user.getUsername();
+            results.add(line.failure == null
+                ? new ImportResultEntity(line.number, username, ImportResultEntity.STATUS_CREATED, null)
+                : new ImportResultEntity(line.number, username, ImportResultEntity.STATUS_FAILED, line.failure));
+        }
+        return results;
+    }
+
+    /**
+     * Creates a parser for lines that each hold a user as a JSON object, in the format of a user export.
+     *
+     * @return a parser
+     */
+    @Nonnull
+    public static LineParser jsonParser() {
+        return line -> USER_READER.readValue(line);
+    }
+
+    /**
+     * Creates a parser for comma-separated values. The first line is a header, that names the columns: 'username',
+     * 'password', 'name', 'email' and 'groups' (the names of which are separated by semicolons). Every other column
+     * holds a property, the key of which is the name of the column. Empty values are ignored.
+     *
+     * @return a parser, that is to be used for one import only
+     */
+    @Nonnull
+    public static LineParser csvParser() {
+        return new LineParser() {
+            private List<String> header;
+
+            @Override
+            public UserExportEntity parse(@Nonnull final String line) {
+                final List<String> values = CsvParser.parseLine(line);
+                if (header == null) {
+                    header = values.stream().map(String::trim).toList();
+                    if (!header.contains("username")) {
+                        throw new IllegalArgumentException("The header does not contain a 'username' column.");
+                    }
+                    return null;
+                }
+                if (values.size() > header.size()) {
+                    throw new IllegalArgumentException("The line has more values than the header has columns.");
+                }
+                final UserExportEntity user = new UserExportEntity();
+                final List<UserProperty> properties = new ArrayList<>();
+                for (int i = 0; i < values.size(); i++) {
+                    final String column = header.get(i);
+                    final String value = values.get(i);
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    switch (column) {
+                        case "username": user.setUsername(value); break;
+                        case "password": user.setPassword(value); break;
+                        case "name": user.setName(value); break;
+                        case "email": user.setEmail(value); break;
+                        case "groups": user.setGroups(Arrays.stream(value.split(";")).map(String::trim).filter(name -> !name.isEmpty()).toList()); break;
+                        default:
+                            if (!CSV_COLUMNS.contains(column)) {
+                                properties.add(new UserProperty(column, value));
+                            }
+                    }
+                }
+                user.setProperties(properties.isEmpty() ? null : properties);
+                return user;
+            }
+        };
+    }
+
+    /**
+     * Parses a line of an import.
+     */
+    @FunctionalInterface
+    public interface LineParser {
+        /**
+         * @param line a line that is not blank
+         * @return the user on the line, or null when the line does not hold a user (such as a header)
+         * @throws IllegalArgumentException when the line is not valid
+         * @throws JsonProcessingException when the line is not valid JSON
+         */
+        @Nullable
+        UserExportEntity parse(@Nonnull String line) throws JsonProcessingException;
+    }
+
+    /**
+     * Consumes the outcomes of a batch of lines.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+        void accept(@Nonnull List<ImportResultEntity> results) throws IOException;
+    }
+
+    /**
+     * A line of an import, and its outcome.
+     */
+    private static class Line {
+        final long number;
+        UserExportEntity user;
+        volatile String failure;
+
+        Line(final long number) {
+            this.number = number;
+        }
+
+        synchronized void fail(@Nonnull final String failure) {
+            // Keep the first failure, as a user can be in more than one group.
+            if (this.failure == null) {
+                this.failure = failure;
+            }
+        }
+    }
+}
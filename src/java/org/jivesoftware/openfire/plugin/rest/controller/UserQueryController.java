@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.plugin.rest.dao.UserQueryDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.PropertyPredicateEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryResultEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.UserUtils;
+import org.jivesoftware.openfire.user.DefaultUserProvider;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.jivesoftware.openfire.user.property.DefaultUserPropertyProvider;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Finds the users that meet a combination of conditions on their properties, creation date, name and email address.
+ *
+ * When the default Openfire user and property providers are used, a query is answered by one SQL statement, which
+ * returns no more than a page of users, and one more that returns the properties of these users. Otherwise, the users
+ * of the providers are evaluated one by one.
+ */
+public class UserQueryController {
+
+    /** The amount of users that is returned when a query does not specify a limit. */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /** The maximum amount of users that is returned by a query. */
+    public static final int MAX_LIMIT = 1000;
+
+    /** The Constant INSTANCE. */
+    private static UserQueryController INSTANCE = null;
+
+    /**
+     * Gets the single instance of UserQueryController.
+     *
+     * @return single instance of UserQueryController
+     */
+    public static synchronized UserQueryController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserQueryController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a page of the users that meet all conditions of a query, ordered by username.
+     *
+     * @param query the conditions, and the page to return
+     * @return the users, with their properties, and the cursor for the next page
+     * @throws ServiceException when the query is invalid, or the users cannot be read
+     */
+    @Nonnull
+    public UserQueryResultEntity query(@Nonnull final UserQueryEntity query) throws ServiceException {
+        validate(query);
+        final int limit = query.getLimit() == null ? DEFAULT_LIMIT : Math.min(query.getLimit(), MAX_LIMIT);
+
+        if (UserManager.getUserProvider() instanceof DefaultUserProvider && UserManager.getUserPropertyProvider() instanceof DefaultUserPropertyProvider) {
+            return UserQueryDAO.query(query, limit);
+        }
+        return queryProviders(query, limit);
+    }
+
+    private static void validate(@Nonnull final UserQueryEntity query) throws ServiceException {
+        if (query.getLimit() != null && query.getLimit() < 1) {
+            throw new ServiceException("The limit must be positive", String.valueOf(query.getLimit()), ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        if (query.getProperties() == null) {
+            return;
+        }
+        for (final PropertyPredicateEntity predicate : query.getProperties()) {
+            if (predicate == null || predicate.getKey() == null || predicate.getKey().isEmpty()) {
+                throw new ServiceException("A property condition has no key", "properties", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+            }
+            if (predicate.getOperator() == null) {
+                predicate.setOperator(predicate.getValue() == null ? PropertyPredicateEntity.OPERATOR_EXISTS : PropertyPredicateEntity.OPERATOR_EQUALS);
+            }
+            switch (predicate.getOperator()) {
+                case PropertyPredicateEntity.OPERATOR_EQUALS:
+                case PropertyPredicateEntity.OPERATOR_PREFIX:
+                    if (predicate.getValue() == null) {
+                        throw new ServiceException("The condition on property '" + predicate.getKey() + "' has no value", predicate.getKey(), ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+                    }
+                    break;
+                case PropertyPredicateEntity.OPERATOR_EXISTS:
+                    break;
+                default:
+                    throw new ServiceException("Unknown operator: " + predicate.getOperator(), predicate.getKey(), ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+            }
+        }
+    }
+
+    @Nonnull
+    private static UserQueryResultEntity queryProviders(@Nonnull final UserQueryEntity query, final int limit) {
+        final UserManager userManager = UserManager.getInstance();
+        final NavigableSet<String> usernames = new TreeSet<>(userManager.getUsernames());
+        final List<UserEntity> users = new ArrayList<>();
+        for (final String username : query.getAfter() == null ? usernames : usernames.tailSet(query.getAfter(), false)) {
+            final User user;
+            try {
+                user = userManager.getUser(username);
+            } catch (UserNotFoundException e) {
+                continue;
+            }
+            if (!matches(query, user)) {
+                continue;
+            }
+            if (users.size() == limit) {
+                return new UserQueryResultEntity(users, users.get(users.size() - 1).getUsername());
+            }
+            users.add(UserUtils.convertUserToUserEntity(user));
+        }
+        return new UserQueryResultEntity(users, null);
+    }
+
+    private static boolean matches(@Nonnull final UserQueryEntity query, @Nonnull final User user) {
+        final Date created = user.getCreationDate();
+        if (query.getCreatedAfter() != null && (created == null || created.before(query.getCreatedAfter()))) {
+            return false;
+        }
+        if (query.getCreatedBefore() != null && (created == null || !created.before(query.getCreatedBefore()))) {
+            return false;
+        }
+        if (query.getName() != null && !containsIgnoreCase(user.getName(), query.getName())) {
+            return false;
+        }
+        if (query.getEmail() != null && !containsIgnoreCase(user.getEmail(), query.getEmail())) {
+            return false;
+        }
+        if (query.getProperties() != null) {
+            final Map<String, String> properties = user.getProperties();
+            for (final PropertyPredicateEntity predicate : query.getProperties()) {
+                final String value = properties.get(predicate.getKey());
+                if (value == null) {
+                    return false;
+                }
+                if (PropertyPredicateEntity.OPERATOR_EQUALS.equals(predicate.getOperator()) && !value.equals(predicate.getValue())) {
+                    return false;
+                }
+                if (PropertyPredicateEntity.OPERATOR_PREFIX.equals(predicate.getOperator()) && !value.startsWith(predicate.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(final String value, @Nonnull final String part) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(part.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.cluster.ClusterManager;
+import org.jivesoftware.openfire.event.UserEventDispatcher;
+import org.jivesoftware.openfire.event.UserEventListener;
+import org.jivesoftware.openfire.plugin.rest.dao.UserExportDAO;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.TrigramIndex;
+import org.jivesoftware.openfire.user.DefaultUserProvider;
+import org.jivesoftware.openfire.user.User;
+import org.jivesoftware.openfire.user.UserManager;
+import org.jivesoftware.util.SystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Finds users of which the username, name or email address contains a search string.
+ *
+ * Searches are answered from an in-memory trigram index of all users, which is built in the background when the plugin
+ * starts, and which is kept up to date by listening for users that are created, modified and deleted. Until the index
+ * is ready (or when it is disabled), searches are delegated to the user provider.
+ *
+ * User events are not shared between cluster nodes, so the index of one cluster node would not reflect the changes
+ * that are made on other nodes. While clustering is enabled, searches are therefore always delegated to the user
+ * provider. The index is disabled by default, as it uses memory in proportion to the amount of users.
+ */
+public class UserSearchController implements UserEventListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserSearchController.class);
+
+    /**
+     * Whether searches for users are answered from an in-memory index. Changes are applied when the plugin is restarted.
+     */
+    public static final SystemProperty<Boolean> INDEX_ENABLED = SystemProperty.Builder.ofType(Boolean.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.search.index.enabled")
+        .setDefaultValue(false)
+        .setDynamic(false)
+        .build();
+
+    /** The amount of users that is read at once while building the index. */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * A field of a user that can be searched.
+     */
+    public enum Field {
+        USERNAME("Username"), NAME("Name"), EMAIL("Email");
+
+        /** The name of the field, as used by user providers. */
+        private final String providerField;
+
+        Field(@Nonnull final String providerField) {
+            this.providerField = providerField;
+        }
+
+        /**
+         * Parses a comma-separated list of field names (case-insensitive).
+         *
+         * @param fields the field names
+         * @return the fields
+         * @throws ServiceException when a field name is not recognized
+         */
+        @Nonnull
+        public static Set<Field> parse(@Nonnull final String fields) throws ServiceException {
+            final Set<Field> result = new HashSet<>();
+            for (final String name : fields.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                try {
+                    result.add(Field.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new ServiceException("Unknown search field: " + name.trim(), fields, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST, e);
+                }
+            }
+            if (result.isEmpty()) {
+                throw new ServiceException("No search field", fields, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+            }
+            return result;
+        }
+    }
+
+    /** The Constant INSTANCE. */
+    private static UserSearchController INSTANCE = null;
+
+    private TrigramIndex index;
+
+    private Thread builder;
+
+    private volatile boolean ready;
+
+    /** Users that were deleted while the index was being built, which the builder must not add. */
+    private final Set<String> deletedWhileBuilding = new HashSet<>();
+
+    /**
+     * Gets the single instance of UserSearchController.
+     *
+     * @return single instance of UserSearchController
+     */
+    public static synchronized UserSearchController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserSearchController();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts building the index in the background, and keeping it up to date.
+     */
+    public synchronized void start() {
+        if (!INDEX_ENABLED.getValue()) {
+            return;
+        }
+        index = new TrigramIndex(Field.values().length);
+        UserEventDispatcher.addListener(this);
+        final TrigramIndex building = index;
+        builder = new Thread(() -> build(building), "restapi-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Stops keeping the index up to date, and discards it.
+     */
+    public synchronized void stop() {
+        UserEventDispatcher.removeListener(this);
+        if (builder != null) {
+            builder.interrupt();
+            builder = null;
+        }
+        ready = false;
+        index = null;
+        deletedWhileBuilding.clear();
+    }
+
+    private void build(@Nonnull final TrigramIndex building) {
+        final long start = System.nanoTime();
+        try {
+            if (UserManager.getUserProvider() instanceof DefaultUserProvider) {
+                String after = null;
+                List<UserExportEntity> page;
+                do {
+                    page = UserExportDAO.getUsers(after, PAGE_SIZE);
+                    for (final UserExportEntity user : page) {
+                        addWhileBuilding(building, user.getUsername(), user.getName(), user.getEmail());
+                    }
+                    after = page.isEmpty() ? null : page.get(page.size() - 1).getUsername();
+                } while (page.size() == PAGE_SIZE && !Thread.currentThread().isInterrupted());
+            } else {
+                for (final User user : UserManager.getInstance().getUsers()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+                    addWhileBuilding(building, user.getUsername(), user.getName(), user.getEmail());
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Unable to index users for searching. Searches are delegated to the user provider.", e);
+            return;
+        }
+
+        synchronized (this) {
+            if (index != building || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            deletedWhileBuilding.clear();
+            ready = true;
+        }
+        LOG.info("Indexed {} users for searching in {} ms ({} distinct trigrams).", building.size(), (System.nanoTime() - start) / 1_000_000, building.getTrigramCount());
+    }
+
+    private synchronized void addWhileBuilding(@Nonnull final TrigramIndex building, @Nonnull final String username, final String name, final String email) {
+        // A user that was created or modified while building was added by its event, with more recent data.
+        if (!deletedWhileBuilding.contains(username)) {
+            building.putIfAbsent(username, username, name, email);
+        }
+    }
+
+    /**
+     * @return true when searches are answered from the index
+     */
+    public boolean isReady() {
+        return ready && !ClusterManager.isClusteringEnabled();
+    }
+
+    /**
+     * Finds the users of which at least one of the provided fields contains the query. The index ignores case; when a
+     * search is delegated to the user provider, whether case is ignored depends on that provider.
+     *
+     * @param query the string to look for
+     * @param fields the fields to look in
+     * @return the usernames of the matching users, sorted
+     */
+    @Nonnull
+    public List<String> search(@Nonnull final String query, @Nonnull final Set<Field> fields) {
+        final TrigramIndex current = index;
+        if (isReady() && current != null) {
+            int mask = 0;
+            for (final Field field : fields) {
+                mask |= 1 << field.ordinal();
+            }
+            return current.search(query, mask);
+        }
+        return searchProvider(query, fields);
+    }
+
+    @Nonnull
+    private static List<String> searchProvider(@Nonnull final String query, @Nonnull final Set<Field> fields) {
+        final UserManager userManager = UserManager.getInstance();
+        final String normalized = query.toLowerCase(Locale.ROOT);
+        final Set<String> usernames = new TreeSet<>();
+        try {
+            // Providers combine the fields of one search differently (the default provider requires all of them to
+            // match), so every field is searched on its own. Providers can also interpret characters of the query as
+            // wildcards (like '%' and '_' in SQL), so the users that are found are filtered on the literal query.
+            final Collection<String> searchFields = userManager.getSearchFields();
+            for (final Field field : fields) {
+                if (!searchFields.contains(field.providerField)) {
+                    continue;
+                }
+                for (final User user : userManager.findUsers(Set.of(field.providerField), "*" + query + "*")) {
+                    if (matches(user, fields, normalized)) {
+                        usernames.add(user.getUsername());
+                    }
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // The provider does not support searching. Filter all users.
+            for (final User user : userManager.getUsers()) {
+                if (matches(user, fields, normalized)) {
+                    usernames.add(user.getUsername());
+                }
+            }
+        }
+        return new ArrayList<>(usernames);
+    }
+
+    private static boolean matches(@Nonnull final User user, @Nonnull final Set<Field> fields, @Nonnull final String normalizedQuery) {
+        return (fields.contains(Field.USERNAME) && contains(user.getUsername(), normalizedQuery))
+            || (fields.contains(Field.NAME) && contains(user.getName(), normalizedQuery))
+            || (fields.contains(Field.EMAIL) && contains(user.getEmail(), normalizedQuery));
+    }
+
+    private static boolean contains(final String value, @Nonnull final String normalizedQuery) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(normalizedQuery);
+    }
+
+    @Override
+    public synchronized void userCreated(final User user, final Map<String, Object> params) {
+        if (index != null) {
+            deletedWhileBuilding.remove(user.getUsername());
+            index.put(user.getUsername(), user.getUsername(), user.getName(), user.getEmail());
+        }
+    }
+
+    @Override
+    public synchronized void userDeleting(final User user, final Map<String, Object> params) {
+        if (index != null) {
+            if (!ready) {
+                deletedWhileBuilding.add(user.getUsername());
+            }
+            index.remove(user.getUsername());
+        }
+    }
+
+    @Override
+    public synchronized void userModified(final User user, final Map<String, Object> params) {
+        if (index != null) {
+            // The index ignores entries that did not change, such as when a property was modified.
+            index.put(user.getUsername(), user.getUsername(), user.getName(), user.getEmail());
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.dom4j.Element;
 import org.jivesoftware.openfire.SessionManager;
 import org.jivesoftware.openfire.SharedGroupException;
 import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.event.UserEventDispatcher;
 import org.jivesoftware.openfire.group.Group;
 import org.jivesoftware.openfire.group.GroupManager;
 import org.jivesoftware.openfire.group.GroupNotFoundException;
@@ -32,6 +33,7 @@ import org.jivesoftware.openfire.plugin.rest.dao.PropertyDAO;
 import org.jivesoftware.openfire.plugin.rest.entity.*;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.PropertyDiff;
 import org.jivesoftware.openfire.plugin.rest.utils.UserUtils;
 import org.jivesoftware.openfire.roster.Roster;
 import org.jivesoftware.openfire.roster.RosterItem;
@@ -41,17 +43,25 @@ import org.jivesoftware.openfire.user.User;
 import org.jivesoftware.openfire.user.UserAlreadyExistsException;
 import org.jivesoftware.openfire.user.UserManager;
 import org.jivesoftware.openfire.user.UserNotFoundException;
+import org.jivesoftware.openfire.user.property.DefaultUserPropertyProvider;
 import org.jivesoftware.openfire.vcard.VCardManager;
 import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.cache.CacheFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.StreamError;
 
 import javax.ws.rs.core.Response;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * The Class UserServiceController.
@@ -154,6 +164,22 @@ public class UserServiceController {
      *             the service exception
      */
     public void updateUser(String username, UserEntity userEntity) throws ServiceException {
+        updateUser(username, userEntity, null);
+    }
+
+    /**
+     * Update user, reporting its progress. A rename reports each of its phases; other updates report one item.
+     *
+     * @param username
+     *            the username
+     * @param userEntity
+     *            the user entity
+     * @param progress
+     *            receives the progress, when the update is executed as a job (can be null)
+     * @throws ServiceException
+     *             the service exception
+     */
+    public void updateUser(String username, UserEntity userEntity, JobsController.Progress progress) throws ServiceException {
         if (userEntity != null && !username.isEmpty()) {
             log("Update the user: " + userEntity.getUsername());
             // Payload contains another username than provided over path
@@ -161,7 +187,7 @@ public class UserServiceController {
             if (userEntity.getUsername() != null) {
                 if (!userEntity.getUsername().equals(username)) {
                     JustMarriedController.changeName(username, userEntity.getUsername(), true, userEntity.getEmail(),
-                            userEntity.getName());
+                            userEntity.getName(), progress);
                     addProperties(userEntity.getUsername(), userEntity.getProperties());
                     return;
                 }
@@ -179,6 +205,10 @@ public class UserServiceController {
 
             addProperties(username, userEntity.getProperties());
         }
+        if (progress != null) {
+            progress.setTotal(1);
+            progress.completed(null);
+        }
     }
 
     /**
@@ -215,13 +245,62 @@ public class UserServiceController {
      */
     public UserEntities getUserEntities(String userSearch, String propertyKey, String propertyValue)
             throws ServiceException {
+        return getUserEntities(userSearch, null, 0, null, propertyKey, propertyValue);
+    }
+
+    /**
+     * Gets the user entities.
+     *
+     * When a search string is provided, then the users that are returned are those of which at least one of the
+     * search fields contains it (case-insensitively), sorted by username. When a property key (and possibly value) is
+     * provided, then the users that are returned are those for which the specified property has been defined.
+     *
+     * @param userSearch
+     *            the user search (can be null)
+     * @param searchFields
+     *            the fields to search, comma-separated (null to search the username)
+     * @param offset
+     *            the amount of matching users to skip
+     * @param limit
+     *            the maximum amount of matching users to return (null for no limit)
+     * @param propertyKey
+     *            the property key (can be null)
+     * @param propertyValue
+     *            the property value (can be null)
+     * @return the user entities
+     * @throws ServiceException
+     *              the service exception
+     */
+    public UserEntities getUserEntities(String userSearch, String searchFields, int offset, Integer limit, String propertyKey, String propertyValue)
+            throws ServiceException {
         if (propertyKey != null) {
             log("Get users by property");
             return getUserEntitiesByProperty(propertyKey, propertyValue);
         }
-        log("Get all users");
         UserEntities userEntities = new UserEntities();
-        userEntities.setUsers(UserUtils.convertUsersToUserEntities(userManager.getUsers(), userSearch));
+        if (userSearch == null) {
+            log("Get all users");
+            userEntities.setUsers(UserUtils.convertUsersToUserEntities(userManager.getUsers(), null));
+            return userEntities;
+        }
+
+        log("Search users: " + userSearch);
+        final Set<UserSearchController.Field> fields = searchFields == null
+            ? Set.of(UserSearchController.Field.USERNAME)
+            : UserSearchController.Field.parse(searchFields);
+        final List<String> usernames = UserSearchController.getInstance().search(userSearch, fields);
+        final int from = Math.min(Math.max(offset, 0), usernames.size());
+        final int to = limit == null ? usernames.size() : Math.min(from + Math.max(limit, 0), usernames.size());
+
+        final List<UserEntity> users = new ArrayList<>(to - from);
+        for (String username : usernames.subList(from, to)) {
+            try {
+                users.add(UserUtils.convertUserToUserEntity(userManager.getUser(username)));
+            } catch (UserNotFoundException e) {
+                // Deleted after it was found.
+            }
+        }
+        userEntities.setUsers(users);
         return userEntities;
     }
 
@@ -544,6 +623,19 @@ public class UserServiceController {
      */
     public UserEntities getUserEntitiesByProperty(String propertyKey, String propertyValue) throws ServiceException {
         log("Get user entities by property key : " + propertyKey + "and property value: " + propertyValue);
+        final Set<String> indexed = PropertyIndexController.getInstance().lookup(propertyKey, propertyValue);
+        if (indexed != null) {
+            final List<UserEntity> users = new ArrayList<>(indexed.size());
+            for (String username : new TreeSet<>(indexed)) {
+                try {
+                    users.add(UserUtils.convertUserToUserEntity(userManager.getUser(username)));
+                } catch (UserNotFoundException e) {
+                    // Deleted after it was found.
+                }
+            }
+            return new UserEntities(users);
+        }
+
         List<String> usernames = PropertyDAO.getUsernameByProperty(propertyKey, propertyValue);
         List<UserEntity> users = new ArrayList<>();
         UserEntities userEntities = new UserEntities();
@@ -567,14 +659,100 @@ public class UserServiceController {
      *             the service exception
      */
     private void addProperties(String username, List<UserProperty> properties) throws ServiceException {
-        log("Adding a property to user: " + username);
+        log("Replacing the properties of user: " + username);
         User user = getAndCheckUser(username);
-        user.getProperties().clear();
+        applyProperties(user, PropertyDiff.replace(new HashMap<>(user.getProperties()), toMap(properties)));
+    }
+
+    /**
+     * Sets and removes properties of a user, leaving its other properties unchanged.
+     *
+     * @param username
+     *            the username
+     * @param properties
+     *            the properties to set, and the properties to remove (those without a value)
+     * @return the properties of the user, after the changes
+     * @throws ServiceException
+     *             the service exception
+     */
+    public UserPropertiesEntity patchProperties(String username, List<UserProperty> properties) throws ServiceException {
+        log("Updating the properties of user: " + username);
+        User user = getAndCheckUser(username);
+        applyProperties(user, PropertyDiff.patch(new HashMap<>(user.getProperties()), toMap(properties)));
+
+        final List<UserProperty> result = new ArrayList<>();
+        getAndCheckUser(username).getProperties().forEach((key, value) -> result.add(new UserProperty(key, value)));
+        return new UserPropertiesEntity(result);
+    }
+
+    private static Map<String, String> toMap(List<UserProperty> properties) {
+        final Map<String, String> map = new LinkedHashMap<>();
         if (properties != null) {
             for (UserProperty property : properties) {
-                user.getProperties().put(property.getKey(), property.getValue());
+                if (property.getKey() != null) {
+                    map.put(property.getKey(), property.getValue());
+                }
             }
         }
+        return map;
+    }
+
+    /**
+     * Stores only the properties that change. With the default property provider, all changes are written in one
+     * transaction, after which listeners are notified of each change, like they would be by the user itself.
+     *
+     * @param user
+     *            the user
+     * @param diff
+     *            the changes to the properties of the user
+     * @throws ServiceException
+     *             the service exception
+     */
+    private void applyProperties(User user, PropertyDiff diff) throws ServiceException {
+        if (diff.isEmpty()) {
+            return;
+        }
+        final String username = user.getUsername();
+        if (UserManager.getUserPropertyProvider() instanceof DefaultUserPropertyProvider) {
+            final Map<String, String> original = new HashMap<>(user.getProperties());
+            try {
+                PropertyDAO.applyChanges(username, diff);
+            } catch (SQLException e) {
+                throw new ServiceException("Could not store the properties of the user", username,
+                        ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.INTERNAL_SERVER_ERROR, e);
+            }
+
+            // The properties were stored without the user noticing. Make the user manager load them again.
+            CacheFactory.createCache("User").remove(username);
+            final User updated = getAndCheckUser(username);
+            diff.getDeletes().forEach(key -> dispatchPropertyEvent(updated, "propertyDelete", key, original.get(key)));
+            diff.getUpdates().keySet().forEach(key -> dispatchPropertyEvent(updated, "propertyModify", key, original.get(key)));
+            diff.getInserts().keySet().forEach(key -> dispatchPropertyEvent(updated, "propertyAdd", key, null));
+            return;
+        }
+
+        final Map<String, String> properties = user.getProperties();
+        diff.getDeletes().forEach(properties::remove);
+        properties.putAll(diff.getUpdates());
+        properties.putAll(diff.getInserts());
+    }
+
+    /**
+     * Notifies listeners of a property of a user that was changed without the user manager noticing.
+     *
+     * @param user the user
+     * @param type one of propertyAdd, propertyModify or propertyDelete
+     * @param key the key of the property
+     * @param originalValue the value of the property before the change (null when it was added)
+     */
+    static void dispatchPropertyEvent(User user, String type, String key, String originalValue) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put("type", type);
+        params.put("propertyKey", key);
+        if (originalValue != null) {
+            params.put("originalValue", originalValue);
+        }
+        UserEventDispatcher.dispatchEvent(user, UserEventDispatcher.EventType.user_modified, params);
     }
 
     /**
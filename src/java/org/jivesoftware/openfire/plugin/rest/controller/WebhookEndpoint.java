@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.WebhookEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An HTTP endpoint to which events are posted, in batches.
+ *
+ * Events are queued in a buffer of limited size. When the buffer is full, the oldest queued events are dropped. Each
+ * batch is posted as one JSON document. A limited amount of batches is delivered concurrently; a batch that cannot be
+ * delivered is retried with an exponentially increasing delay, and dropped after a maximum amount of attempts. While a
+ * batch awaits a retry, it occupies one of the concurrent deliveries, which causes events to accumulate in (and
+ * eventually overflow) the buffer of an endpoint that is unavailable, rather than in memory elsewhere.
+ *
+ * As batches can be delivered concurrently and retried, the receiving end should use the identifiers of events to
+ * order them.
+ */
+class WebhookEndpoint
+{
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookEndpoint.class);
+
+    private static final ObjectMapper MAPPER = new CustomJacksonMapperProvider().getContext(WebhookEndpoint.class);
+
+    /** The name of the HTTP header that holds the HMAC-SHA256 signature of the body of a delivery. */
+    static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    /** The name of the HTTP header that holds the identifier of the webhook. */
+    static final String ID_HEADER = "X-Webhook-Id";
+
+    private final String id;
+    private final URI url;
+    private final Set<String> topics;
+    private final String secret;
+    private final Settings settings;
+    private final HttpClient client;
+    private final ScheduledExecutorService scheduler;
+
+    private final BlockingQueue<EventEntity> queue;
+    private final Semaphore deliveries;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong delivered = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong failedAttempts = new AtomicLong(0);
+
+    /**
+     * @param id the identifier of the webhook
+     * @param url the URL to which events are posted
+     * @param topics the topics for which events are delivered (all topics when empty)
+     * @param secret the secret used to sign deliveries (null to not sign deliveries)
+     * @param settings the settings that control delivery
+     * @param client the client that is used to post events
+     * @param scheduler the executor that is used to schedule retries
+     */
+    WebhookEndpoint(@Nonnull final String id, @Nonnull final URI url, @Nonnull final Set<String> topics, @Nullable final String secret, @Nonnull final Settings settings, @Nonnull final HttpClient client, @Nonnull final ScheduledExecutorService scheduler)
+    {
+        this.id = id;
+        this.url = url;
+        this.topics = topics;
+        this.secret = secret;
+        this.settings = settings;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.queueSize));
+        this.deliveries = new Semaphore(Math.max(1, settings.maxConcurrency));
+    }
+
+    @Nonnull
+    String getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return the topics for which events are delivered (all topics when empty)
+     */
+    @Nonnull
+    Set<String> getTopics()
+    {
+        return topics;
+    }
+
+    boolean accepts(@Nonnull final EventEntity event)
+    {
+        return topics.isEmpty() || topics.contains(event.getTopic());
+    }
+
+    /**
+     * Queues an event for delivery. When the queue is full, the oldest queued event is dropped.
+     *
+     * @param event the event to deliver
+     */
+    void offer(@Nonnull final EventEntity event)
+    {
+        if (closed.get()) {
+            return;
+        }
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Stops delivery. Queued events, and batches that await a retry, are discarded.
+     */
+    void close()
+    {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Describes this endpoint, including its delivery statistics. The secret is not included.
+     *
+     * @return a representation of this endpoint
+     */
+    @Nonnull
+    WebhookEntity toEntity()
+    {
+        final WebhookEntity entity = new WebhookEntity();
+        entity.setId(id);
+        entity.setUrl(url.toString());
+        entity.setTopics(topics.isEmpty() ? null : new ArrayList<>(topics));
+        entity.setQueued(queue.size());
+        entity.setInFlight(inFlight.get());
+        entity.setDelivered(delivered.get());
+        entity.setDropped(dropped.get());
+        entity.setFailedAttempts(failedAttempts.get());
+        final EventEntity oldest = queue.peek();
+        entity.setLagMillis(oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTimestamp()));
+        return entity;
+    }
+
+    private void dispatch()
+    {
+        // Events are queued before a delivery slot is requested, and slots are released before the queue is checked
+        // again, so an event cannot be left in the queue while no delivery is in progress.
+        while (!closed.get() && !queue.isEmpty() && deliveries.tryAcquire()) {
+            final List<EventEntity> batch = new ArrayList<>(settings.batchSize);
+            queue.drainTo(batch, Math.max(1, settings.batchSize));
+            if (batch.isEmpty()) {
+                deliveries.release();
+                continue;
+            }
+            inFlight.addAndGet(batch.size());
+
+            final byte[] body;
+            try {
+                final Map<String, Object> document = new LinkedHashMap<>();
+                document.put("webhook", id);
+                document.put("events", batch);
+                body = MAPPER.writeValueAsBytes(document);
+            } catch (JsonProcessingException e) {
+                LOG.warn("Unable to serialize a batch of {} events for webhook '{}'. The batch is dropped.", batch.size(), id, e);
+                finish(batch.size(), false);
+                continue;
+            }
+            send(body, batch.size(), 1);
+        }
+    }
+
+    private void send(@Nonnull final byte[] body, final int size, final int attempt)
+    {
+        if (closed.get()) {
+            finish(size, false);
+            return;
+        }
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(url)
+            .timeout(settings.requestTimeout)
+            .header("Content-Type", "application/json")
+            .header(ID_HEADER, id)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (secret != null && !secret.isEmpty()) {
+            request.header(SIGNATURE_HEADER, "sha256=" + sign(body));
+        }
+
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error == null && response.statusCode() >= 200 && response.statusCode() < 300) {
+                finish(size, true);
+                return;
+            }
+
+            failedAttempts.incrementAndGet();
+            LOG.debug("Delivery attempt {} of a batch of {} events to webhook '{}' failed: {}", attempt, size, id, error != null ? error.toString() : "HTTP status " + response.statusCode());
+            if (attempt >= settings.maxAttempts) {
+                LOG.warn("Unable to deliver a batch of {} events to webhook '{}' after {} attempts. The batch is dropped.", size, id, attempt);
+                finish(size, false);
+                return;
+            }
+            try {
+                scheduler.schedule(() -> send(body, size, attempt + 1), getBackoff(attempt), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                finish(size, false);
+            }
+        });
+    }
+
+    private void finish(final int size, final boolean success)
+    {
+        inFlight.addAndGet(-size);
+        if (success) {
+            delivered.addAndGet(size);
+        } else {
+            dropped.addAndGet(size);
+        }
+        deliveries.release();
+        dispatch();
+    }
+
+    /**
+     * Calculates the delay before the next attempt: the initial delay, doubled for every failed attempt, capped at the
+     * maximum delay, of which a random part is subtracted to prevent retries of many batches from coinciding.
+     */
+    long getBackoff(final int attempt)
+    {
+        final long initial = Math.max(1, settings.initialBackoff.toMillis());
+        final long max = Math.max(initial, settings.maxBackoff.toMillis());
+        final long delay = attempt >= 31 ? max : Math.min(max, initial << (attempt - 1));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    @Nonnull
+    private String sign(@Nonnull final byte[] body)
+    {
+        try {
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign webhook delivery.", e);
+        }
+    }
+
+    /**
+     * The settings that control the delivery of events to an endpoint.
+     */
+    static class Settings
+    {
+        final int queueSize;
+        final int batchSize;
+        final int maxConcurrency;
+        final int maxAttempts;
+        final Duration initialBackoff;
+        final Duration maxBackoff;
+        final Duration requestTimeout;
+
+        Settings(final int queueSize, final int batchSize, final int maxConcurrency, final int maxAttempts, @Nonnull final Duration initialBackoff, @Nonnull final Duration maxBackoff, @Nonnull final Duration requestTimeout)
+        {
+            this.queueSize = queueSize;
+            this.batchSize = batchSize;
+            this.maxConcurrency = maxConcurrency;
+            this.maxAttempts = maxAttempts;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            this.requestTimeout = requestTimeout;
+        }
+    }
+}
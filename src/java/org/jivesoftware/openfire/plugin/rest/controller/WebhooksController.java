@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.plugin.rest.RESTServicePlugin;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.WebhookEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.util.JiveGlobals;
+import org.jivesoftware.util.StringUtils;
+import org.jivesoftware.util.SystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers events (as collected by {@link EventsController}) to HTTP endpoints that are registered as webhooks.
+ *
+ * Webhooks are stored as properties (prefixed with {@link #PROPERTY_PREFIX}), and are loaded when the plugin starts.
+ * The way in which events are delivered is controlled by system properties, which are applied to a webhook when it is
+ * loaded or created.
+ */
+public class WebhooksController {
+    private static final Logger LOG = LoggerFactory.getLogger(WebhooksController.class);
+
+    /** The prefix of the properties that define webhooks: each webhook has a 'url', and optionally 'topics' and a 'secret'. */
+    public static final String PROPERTY_PREFIX = "plugin.restapi.webhooks.endpoint";
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /**
+     * The maximum amount of events that is queued for one webhook. When exceeded, the oldest events are dropped.
+     */
+    public static final SystemProperty<Integer> QUEUE_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.queue-size")
+        .setDefaultValue(10000)
+        .setMinValue(1)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum amount of events that is posted to a webhook in one request.
+     */
+    public static final SystemProperty<Integer> BATCH_SIZE = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.batch-size")
+        .setDefaultValue(100)
+        .setMinValue(1)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum amount of requests that is concurrently made to one webhook.
+     */
+    public static final SystemProperty<Integer> MAX_CONCURRENCY = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.max-concurrency")
+        .setDefaultValue(2)
+        .setMinValue(1)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum amount of attempts to deliver a batch of events, after which the batch is dropped.
+     */
+    public static final SystemProperty<Integer> MAX_ATTEMPTS = SystemProperty.Builder.ofType(Integer.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.max-attempts")
+        .setDefaultValue(10)
+        .setMinValue(1)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The delay before the first retry of a failed delivery. The delay doubles for every subsequent attempt.
+     */
+    public static final SystemProperty<Duration> INITIAL_BACKOFF = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.initial-backoff")
+        .setDefaultValue(Duration.ofSeconds(1))
+        .setChronoUnit(ChronoUnit.MILLIS)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum delay between two attempts to deliver a batch of events.
+     */
+    public static final SystemProperty<Duration> MAX_BACKOFF = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.max-backoff")
+        .setDefaultValue(Duration.ofMinutes(5))
+        .setChronoUnit(ChronoUnit.SECONDS)
+        .setDynamic(false)
+        .build();
+
+    /**
+     * The maximum duration of one request to a webhook.
+     */
+    public static final SystemProperty<Duration> REQUEST_TIMEOUT = SystemProperty.Builder.ofType(Duration.class)
+        .setPlugin("REST API")
+        .setKey("plugin.restapi.webhooks.request-timeout")
+        .setDefaultValue(Duration.ofSeconds(10))
+        .setChronoUnit(ChronoUnit.SECONDS)
+        .setDynamic(false)
+        .build();
+
+    /** The Constant INSTANCE. */
+    private static WebhooksController INSTANCE = null;
+
+    private final Map<String, WebhookEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final Consumer<EventEntity> consumer = this::deliver;
+
+    private ExecutorService senders;
+
+    private ScheduledExecutorService retries;
+
+    private HttpClient client;
+
+    /**
+     * Gets the single instance of WebhooksController.
+     *
+     * @return single instance of WebhooksController
+     */
+    public static synchronized WebhooksController getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new WebhooksController();
+        }
+        return INSTANCE;
+    }
+
+    public static void log(String logMessage) {
+        if (JiveGlobals.getBooleanProperty(RESTServicePlugin.SERVICE_LOGGING_ENABLED, false)) {
+            LOG.info(logMessage);
+        }
+    }
+
+    /**
+     * Loads all webhooks, and starts delivering events to them.
+     */
+    public synchronized void start() {
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        senders = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-webhooks-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "restapi-webhooks-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        client = HttpClient.newBuilder()
+            .executor(senders)
+            .connectTimeout(REQUEST_TIMEOUT.getValue())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+        for (final String name : JiveGlobals.getPropertyNames(PROPERTY_PREFIX)) {
+            final String id = name.substring(PROPERTY_PREFIX.length() + 1);
+            final String url = JiveGlobals.getProperty(name + ".url");
+            final String topics = JiveGlobals.getProperty(name + ".topics", "");
+            try {
+                final WebhookEndpoint endpoint = createEndpoint(id, url, parseTopics(Arrays.asList(topics.split(","))), JiveGlobals.getProperty(name + ".secret"));
+                endpoints.put(id, endpoint);
+            } catch (ServiceException e) {
+                LOG.warn("Ignoring invalid webhook definition '{}': {}", id, e.getMessage());
+            }
+        }
+        log("Loaded " + endpoints.size() + " webhook(s).");
+
+        updateConsumer();
+    }
+
+    /**
+     * Stops delivering events. Events that have not been delivered yet are discarded.
+     */
+    public synchronized void stop() {
+        EventsController.getInstance().removeConsumer(consumer);
+
+        endpoints.values().forEach(WebhookEndpoint::close);
+        endpoints.clear();
+
+        if (retries != null) {
+            retries.shutdownNow();
+            retries = null;
+        }
+        if (senders != null) {
+            senders.shutdownNow();
+            senders = null;
+        }
+        client = null;
+    }
+
+    /**
+     * Returns all webhooks, including their delivery statistics.
+     *
+     * @return the webhooks
+     */
+    @Nonnull
+    public List<WebhookEntity> getWebhooks() {
+        return endpoints.values().stream()
+            .map(WebhookEndpoint::toEntity)
+            .sorted(Comparator.comparing(WebhookEntity::getId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns one webhook, including its delivery statistics.
+     *
+     * @param id the identifier of the webhook
+     * @return the webhook
+     * @throws ServiceException when the webhook does not exist
+     */
+    @Nonnull
+    public WebhookEntity getWebhook(@Nonnull final String id) throws ServiceException {
+        return getEndpoint(id).toEntity();
+    }
+
+    /**
+     * Registers a new webhook, that immediately starts receiving events.
+     *
+     * @param webhookEntity the definition of the webhook
+     * @return the webhook as it was registered
+     * @throws ServiceException when the definition is invalid, or a webhook with the same identifier already exists
+     */
+    @Nonnull
+    public synchronized WebhookEntity createWebhook(@Nonnull final WebhookEntity webhookEntity) throws ServiceException {
+        if (client == null) {
+            throw new ServiceException("Webhooks are not available.", "webhooks", ExceptionType.NOT_ALLOWED, Response.Status.SERVICE_UNAVAILABLE);
+        }
+        final String id = webhookEntity.getId() == null || webhookEntity.getId().isEmpty() ? StringUtils.randomString(12) : webhookEntity.getId();
+        if (endpoints.containsKey(id)) {
+            throw new ServiceException("A webhook with this identifier already exists.", id, ExceptionType.ALREADY_EXISTS, Response.Status.CONFLICT);
+        }
+        final Set<String> topics = parseTopics(webhookEntity.getTopics());
+        final WebhookEndpoint endpoint = createEndpoint(id, webhookEntity.getUrl(), topics, webhookEntity.getSecret());
+
+        JiveGlobals.setProperty(PROPERTY_PREFIX + "." + id + ".url", webhookEntity.getUrl());
+        if (!topics.isEmpty()) {
+            JiveGlobals.setProperty(PROPERTY_PREFIX + "." + id + ".topics", String.join(",", topics));
+        }
+        if (webhookEntity.getSecret() != null && !webhookEntity.getSecret().isEmpty()) {
+            JiveGlobals.setProperty(PROPERTY_PREFIX + "." + id + ".secret", webhookEntity.getSecret(), true);
+        }
+        endpoints.put(id, endpoint);
+        updateConsumer();
+        log("Created webhook '" + id + "' for " + webhookEntity.getUrl());
+        return endpoint.toEntity();
+    }
+
+    /**
+     * Removes a webhook. Events that have not been delivered to it yet are discarded.
+     *
+     * @param id the identifier of the webhook
+     * @throws ServiceException when the webhook does not exist
+     */
+    public synchronized void deleteWebhook(@Nonnull final String id) throws ServiceException {
+        final WebhookEndpoint endpoint = getEndpoint(id);
+        endpoints.remove(id);
+        updateConsumer();
+        endpoint.close();
+        JiveGlobals.deleteProperty(PROPERTY_PREFIX + "." + id);
+        log("Deleted webhook '" + id + "'");
+    }
+
+    /**
+     * Subscribes to the topics that at least one webhook is interested in, so that events that no webhook needs are not
+     * constructed at all.
+     */
+    private void updateConsumer() {
+        final Set<String> topics = new HashSet<>();
+        for (final WebhookEndpoint endpoint : endpoints.values()) {
+            topics.addAll(endpoint.getTopics().isEmpty() ? EventsController.TOPICS : endpoint.getTopics());
+        }
+        if (topics.isEmpty()) {
+            EventsController.getInstance().removeConsumer(consumer);
+        } else {
+            EventsController.getInstance().addConsumer(topics, consumer);
+        }
+    }
+
+    private void deliver(@Nonnull final EventEntity event) {
+        for (final WebhookEndpoint endpoint : endpoints.values()) {
+            if (endpoint.accepts(event)) {
+                endpoint.offer(event);
+            }
+        }
+    }
+
+    @Nonnull
+    private WebhookEndpoint getEndpoint(@Nonnull final String id) throws ServiceException {
+        final WebhookEndpoint endpoint = endpoints.get(id);
+        if (endpoint == null) {
+            throw new ServiceException("Could not find webhook.", id, ExceptionType.WEBHOOK_NOT_FOUND, Response.Status.NOT_FOUND);
+        }
+        return endpoint;
+    }
+
+    @Nonnull
+    private WebhookEndpoint createEndpoint(@Nonnull final String id, @Nullable final String url, @Nonnull final Set<String> topics, @Nullable final String secret) throws ServiceException {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            throw new ServiceException("The identifier of a webhook can only contain letters, digits, '-' and '_'.", id, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        final URI uri;
+        try {
+            uri = url == null ? null : new URI(url);
+        } catch (URISyntaxException e) {
+            throw new ServiceException("Invalid webhook URL.", id, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST, e);
+        }
+        if (uri == null || uri.getHost() == null || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+            throw new ServiceException("A webhook requires an absolute 'http' or 'https' URL.", id, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+
+        final WebhookEndpoint.Settings settings = new WebhookEndpoint.Settings(QUEUE_SIZE.getValue(), BATCH_SIZE.getValue(), MAX_CONCURRENCY.getValue(), MAX_ATTEMPTS.getValue(), INITIAL_BACKOFF.getValue(), MAX_BACKOFF.getValue(), REQUEST_TIMEOUT.getValue());
+        return new WebhookEndpoint(id, uri, topics, secret, settings, client, retries);
+    }
+
+    @Nonnull
+    private static Set<String> parseTopics(@Nullable final Collection<String> values) throws ServiceException {
+        final Set<String> topics = new LinkedHashSet<>();
+        if (values != null) {
+            for (final String value : values) {
+                final String topic = value.trim().toLowerCase();
+                if (topic.isEmpty()) {
+                    continue;
+                }
+                if (!EventsController.TOPICS.contains(topic)) {
+                    throw new ServiceException("Invalid topic: " + value, "webhooks", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+                }
+                topics.add(topic);
+            }
+        }
+        return topics;
+    }
+}
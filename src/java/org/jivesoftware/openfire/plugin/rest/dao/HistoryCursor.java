@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Identifies a position in the message history of a chat room: the timestamp of a message, and a value that orders
+ * messages that share that timestamp.
+ *
+ * For messages read from the database, that value is the message ID. For messages read from the in-memory history of
+ * a room, it is the amount of messages with the same timestamp that precede (and include) the message.
+ *
+ * The textual representation of a cursor is opaque to clients, and only valid for the history source that issued it.
+ */
+public class HistoryCursor {
+
+    private final long timestamp;
+    private final long position;
+
+    public HistoryCursor(final long timestamp, final long position) {
+        this.timestamp = timestamp;
+        this.position = position;
+    }
+
+    /**
+     * Parses the textual representation of a cursor, as produced by {@link #toString()}.
+     *
+     * @param value the value to parse
+     * @return the parsed cursor
+     * @throws IllegalArgumentException when the value is not a valid cursor
+     */
+    @Nonnull
+    public static HistoryCursor parse(@Nonnull final String value) {
+        final int separator = value.indexOf('-');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Not a valid cursor: " + value);
+        }
+        try {
+            return new HistoryCursor(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a valid cursor: " + value, e);
+        }
+    }
+
+    /**
+     * @return the timestamp (in milliseconds since the epoch) of the message at this position
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the value that orders messages that share the same timestamp
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "-" + position;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import org.jivesoftware.database.DbConnectionManager;
+import org.jivesoftware.openfire.lockout.LockOutFlag;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the lockouts of users in the table of the default Openfire lockout provider, in batches.
+ */
+public class LockOutDAO {
+
+    private static final String DELETE_FLAG = "DELETE FROM ofUserFlag WHERE username=? AND name='lockout'";
+    private static final String ADD_FLAG = "INSERT INTO ofUserFlag (username, name, startTime, endTime) VALUES (?, 'lockout', ?, ?)";
+    private static final String LOAD_FLAGS = "SELECT username, startTime, endTime FROM ofUserFlag WHERE name='lockout' AND username IN %s";
+
+    /**
+     * Reads the lockouts of users, in one query.
+     *
+     * @param usernames the usernames of the users
+     * @return the lockouts of the users that have one, by username (these may have expired, or not have started yet)
+     * @throws SQLException when the lockouts cannot be read
+     */
+    @Nonnull
+    public static Map<String, LockOutFlag> getLockOuts(@Nonnull final Collection<String> usernames) throws SQLException {
+        final Map<String, LockOutFlag> flags = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return flags;
+        }
+        final String placeholders = "(" + String.join(",", Collections.nCopies(usernames.size(), "?")) + ")";
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            pstmt = con.prepareStatement(String.format(LOAD_FLAGS, placeholders));
+            int i = 1;
+            for (final String username : usernames) {
+                pstmt.setString(i++, username);
+            }
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                flags.put(rs.getString(1), new LockOutFlag(rs.getString(1), toDate(rs.getString(2)), toDate(rs.getString(3))));
+            }
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+        return flags;
+    }
+
+    /**
+     * Parses a time as stored by the default lockout provider: milliseconds since the epoch, padded with zeros.
+     */
+    @Nullable
+    private static Date toDate(@Nullable final String millis) {
+        return millis == null || millis.isBlank() ? null : new Date(Long.parseLong(millis.trim()));
+    }
+
+    /**
+     * Locks users out indefinitely, replacing any lockout that they had, in one transaction.
+     *
+     * @param usernames the usernames of the users
+     * @throws SQLException when the lockouts cannot be stored (in which case none are stored)
+     */
+    public static void disableAccounts(@Nonnull final Collection<String> usernames) throws SQLException {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        Connection con = null;
+        boolean abortTransaction = true;
+        try {
+            con = DbConnectionManager.getTransactionConnection();
+            try (PreparedStatement pstmt = con.prepareStatement(DELETE_FLAG)) {
+                for (final String username : usernames) {
+                    pstmt.setString(1, username);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            try (PreparedStatement pstmt = con.prepareStatement(ADD_FLAG)) {
+                for (final String username : usernames) {
+                    pstmt.setString(1, username);
+                    pstmt.setNull(2, Types.VARCHAR);
+                    pstmt.setNull(3, Types.VARCHAR);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            abortTransaction = false;
+        } finally {
+            DbConnectionManager.closeTransactionConnection(con, abortTransaction);
+        }
+    }
+
+    /**
+     * Removes the lockouts of users, in one transaction.
+     *
+     * @param usernames the usernames of the users
+     * @throws SQLException when the lockouts cannot be removed (in which case none are removed)
+     */
+    public static void enableAccounts(@Nonnull final Collection<String> usernames) throws SQLException {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        boolean abortTransaction = true;
+        try {
+            con = DbConnectionManager.getTransactionConnection();
+            pstmt = con.prepareStatement(DELETE_FLAG);
+            for (final String username : usernames) {
+                pstmt.setString(1, username);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            abortTransaction = false;
+        } finally {
+            DbConnectionManager.closeTransactionConnection(pstmt, con, abortTransaction);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+
+import org.jivesoftware.database.DbConnectionManager;
+import org.jivesoftware.openfire.plugin.rest.entity.MUCRoomMessageEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.util.StringUtils;
+import org.jivesoftware.util.XMPPDateTimeFormat;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.Message;
+
+/**
+ * Reads messages from the persisted conversation log of multi-user chat rooms.
+ *
+ * Results are ordered chronologically, and are paged using a keyset (the timestamp and message ID of the last message
+ * on the previous page) rather than an offset, so that retrieving a page deep into the history of a room is as cheap
+ * as retrieving the first one.
+ */
+public class MUCConversationLogDAO {
+
+    /** The Constant LOAD_MESSAGES. Conditions are appended by {@link #getMessages}. */
+    private final static String LOAD_MESSAGES = "SELECT messageID, nickname, logTime, body FROM ofMucConversationLog WHERE roomID=?";
+
+    /** The Constant ORDER_BY. */
+    private final static String ORDER_BY = " ORDER BY logTime, messageID";
+
+    /**
+     * Gets messages from the conversation log of a room.
+     *
+     * @param roomID
+     *            the database identifier of the room
+     * @param roomJID
+     *            the address of the room (used to construct the addressing of the returned messages)
+     * @param since
+     *            only messages sent at or after this instant are returned (can be null)
+     * @param before
+     *            only messages sent before this instant are returned (can be null)
+     * @param after
+     *            only messages after this position are returned (can be null)
+     * @param maxResults
+     *            the maximum amount of messages to return
+     * @return the messages, in chronological order
+     * @throws ServiceException
+     *             the service exception
+     */
+    @Nonnull
+    public static List<LoggedMessage> getMessages(final long roomID, @Nonnull final JID roomJID, @Nullable final Date since, @Nullable final Date before, @Nullable final HistoryCursor after, final int maxResults) throws ServiceException {
+        final StringBuilder sql = new StringBuilder(LOAD_MESSAGES);
+        if (since != null) {
+            sql.append(" AND logTime>=?");
+        }
+        if (before != null) {
+            sql.append(" AND logTime<?");
+        }
+        if (after != null) {
+            sql.append(" AND (logTime>? OR (logTime=? AND messageID>?))");
+        }
+        sql.append(ORDER_BY);
+
+        final List<LoggedMessage> messages = new ArrayList<>();
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            pstmt = con.prepareStatement(sql.toString());
+            pstmt.setMaxRows(maxResults);
+            pstmt.setFetchSize(Math.min(maxResults, 500));
+
+            int i = 1;
+            pstmt.setLong(i++, roomID);
+            if (since != null) {
+                pstmt.setString(i++, StringUtils.dateToMillis(since));
+            }
+            if (before != null) {
+                pstmt.setString(i++, StringUtils.dateToMillis(before));
+            }
+            if (after != null) {
+                final String logTime = StringUtils.dateToMillis(new Date(after.getTimestamp()));
+                pstmt.setString(i++, logTime);
+                pstmt.setString(i++, logTime);
+                pstmt.setLong(i, after.getPosition());
+            }
+
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                final long messageID = rs.getLong(1);
+                final String nickname = rs.getString(2);
+                final long logTime = Long.parseLong(rs.getString(3).trim());
+                final String body = rs.getString(4);
+
+                final MUCRoomMessageEntity entity = new MUCRoomMessageEntity();
+                entity.setTo(roomJID.toBareJID());
+                if (nickname != null && !nickname.isEmpty()) {
+                    entity.setFrom(new JID(roomJID.getNode(), roomJID.getDomain(), nickname, true).toFullJID());
+                }
+                entity.setType(Message.Type.groupchat.name());
+                if (body != null && !body.isEmpty()) {
+                    entity.setBody(body);
+                }
+                entity.setDelayStamp(XMPPDateTimeFormat.format(new Date(logTime)));
+                entity.setDelayFrom(roomJID.toBareJID());
+
+                messages.add(new LoggedMessage(entity, new HistoryCursor(logTime, messageID)));
+            }
+        } catch (SQLException | NumberFormatException e) {
+            throw new ServiceException("Could not get messages from the conversation log", roomJID.toBareJID(),
+                    ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+        return messages;
+    }
+
+    /**
+     * A message from the conversation log, together with its position in that log.
+     */
+    public static class LoggedMessage {
+        private final MUCRoomMessageEntity message;
+        private final HistoryCursor position;
+
+        LoggedMessage(@Nonnull final MUCRoomMessageEntity message, @Nonnull final HistoryCursor position) {
+            this.message = message;
+            this.position = position;
+        }
+
+        @Nonnull
+        public MUCRoomMessageEntity getMessage() {
+            return message;
+        }
+
+        @Nonnull
+        public HistoryCursor getPosition() {
+            return position;
+        }
+    }
+}
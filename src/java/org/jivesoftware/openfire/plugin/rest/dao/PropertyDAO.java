@@ -21,13 +21,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.core.Response;
 
 import org.jivesoftware.database.DbConnectionManager;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.PropertyDiff;
 
 /**
  * The Class PropertyDAO.
@@ -40,6 +43,18 @@ public class PropertyDAO {
     /** The Constant LOAD_PROPERTY_BY_KEY. */
     private final static String LOAD_PROPERTY_BY_KEY = "SELECT username FROM ofUserProp WHERE name=?";
 
+    /** The Constant LOAD_PROPERTIES_BY_KEY. */
+    private final static String LOAD_PROPERTIES_BY_KEY = "SELECT username, propValue FROM ofUserProp WHERE name=?";
+
+    /** The Constant INSERT_PROPERTY. */
+    private final static String INSERT_PROPERTY = "INSERT INTO ofUserProp (username, name, propValue) VALUES (?, ?, ?)";
+
+    /** The Constant UPDATE_PROPERTY. */
+    private final static String UPDATE_PROPERTY = "UPDATE ofUserProp SET propValue=? WHERE username=? AND name=?";
+
+    /** The Constant DELETE_PROPERTY. */
+    private final static String DELETE_PROPERTY = "DELETE FROM ofUserProp WHERE username=? AND name=?";
+
     /**
      * Gets the username by property key and or value.
      *
@@ -80,4 +95,92 @@ public class PropertyDAO {
         }
         return usernames;
     }
+
+    /**
+     * Gets the value of a property of every user that has it.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the values, by username
+     * @throws ServiceException
+     *             the service exception
+     */
+    public static Map<String, String> getPropertiesByKey(String propertyName) throws ServiceException {
+        Map<String, String> values = new HashMap<>();
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            pstmt = con.prepareStatement(LOAD_PROPERTIES_BY_KEY);
+            pstmt.setString(1, propertyName);
+            DbConnectionManager.setFetchSize(pstmt, 1000);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                values.put(rs.getString(1), rs.getString(2));
+            }
+        } catch (SQLException sqle) {
+            throw new ServiceException("Could not get properties by key", propertyName,
+                    ExceptionType.PROPERTY_NOT_FOUND, Response.Status.INTERNAL_SERVER_ERROR, sqle);
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+        return values;
+    }
+
+    /**
+     * Applies changes to the properties of a user, in one transaction. Each kind of change is executed as one batch.
+     *
+     * @param username
+     *            the username
+     * @param diff
+     *            the changes
+     * @throws SQLException
+     *             when the changes cannot be stored (in which case none are stored)
+     */
+    public static void applyChanges(String username, PropertyDiff diff) throws SQLException {
+        if (diff.isEmpty()) {
+            return;
+        }
+        Connection con = null;
+        boolean abortTransaction = true;
+        try {
+            con = DbConnectionManager.getTransactionConnection();
+            if (!diff.getDeletes().isEmpty()) {
+                try (PreparedStatement pstmt = con.prepareStatement(DELETE_PROPERTY)) {
+                    for (String key : diff.getDeletes()) {
+                        pstmt.setString(1, username);
+                        pstmt.setString(2, key);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            if (!diff.getUpdates().isEmpty()) {
+                try (PreparedStatement pstmt = con.prepareStatement(UPDATE_PROPERTY)) {
+                    for (Map.Entry<String, String> entry : diff.getUpdates().entrySet()) {
+                        pstmt.setString(1, entry.getValue());
+                        pstmt.setString(2, username);
+                        pstmt.setString(3, entry.getKey());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            if (!diff.getInserts().isEmpty()) {
+                try (PreparedStatement pstmt = con.prepareStatement(INSERT_PROPERTY)) {
+                    for (Map.Entry<String, String> entry : diff.getInserts().entrySet()) {
+                        pstmt.setString(1, username);
+                        pstmt.setString(2, entry.getKey());
+                        pstmt.setString(3, entry.getValue());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            abortTransaction = false;
+        } finally {
+            DbConnectionManager.closeTransactionConnection(con, abortTransaction);
+        }
+    }
 }
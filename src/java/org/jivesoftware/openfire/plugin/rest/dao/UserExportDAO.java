@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import org.jivesoftware.database.DbConnectionManager;
+import org.jivesoftware.openfire.plugin.rest.entity.RosterItemEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads users, and the data that belongs to them, from the tables of the default Openfire providers. Rather than
+ * querying once per user, each method reads the data of a window (or batch) of users in one query.
+ */
+public class UserExportDAO {
+
+    private static final String LOAD_USERS = "SELECT username, name, email FROM ofUser ORDER BY username";
+
+    private static final String LOAD_USERS_AFTER = "SELECT username, name, email FROM ofUser WHERE username > ? ORDER BY username";
+
+    private static final String LOAD_USERS_BY_USERNAME = "SELECT username, name, email FROM ofUser WHERE username IN %s";
+
+    private static final String LOAD_PROPERTIES = "SELECT username, name, propValue FROM ofUserProp WHERE username IN %s";
+
+    private static final String LOAD_GROUPS = "SELECT DISTINCT username, groupName FROM ofGroupUser WHERE username IN %s";
+
+    private static final String LOAD_ROSTER_ITEMS = "SELECT r.username, r.rosterID, r.jid, r.nick, r.sub, g.groupName FROM ofRoster r LEFT OUTER JOIN ofRosterGroups g ON r.rosterID = g.rosterID WHERE r.username IN %s ORDER BY r.username, r.rosterID";
+
+    private static final String LOAD_VCARDS = "SELECT username, vcard FROM ofVCard WHERE username IN %s";
+
+    /**
+     * Reads the next window of users, ordered by username.
+     *
+     * @param after the username after which to start (null to start at the first user)
+     * @param maxResults the maximum amount of users to read
+     * @return the users, without properties, groups, roster items and vCard
+     * @throws ServiceException when the users cannot be read
+     */
+    @Nonnull
+    public static List<UserExportEntity> getUsers(@Nullable final String after, final int maxResults) throws ServiceException {
+        final List<UserExportEntity> users = new ArrayList<>(maxResults);
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            if (after == null) {
+                pstmt = con.prepareStatement(LOAD_USERS);
+            } else {
+                pstmt = con.prepareStatement(LOAD_USERS_AFTER);
+                pstmt.setString(1, after);
+            }
+            DbConnectionManager.limitRowsAndFetchSize(pstmt, 0, maxResults);
+            rs = pstmt.executeQuery();
+            while (rs.next() && users.size() < maxResults) {
+                users.add(new UserExportEntity(rs.getString(1), rs.getString(2), rs.getString(3)));
+            }
+        } catch (SQLException e) {
+            throw new ServiceException("Could not read users", after, ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+        return users;
+    }
+
+    /**
+     * Reads the users with the provided usernames.
+     *
+     * @param usernames the usernames of the users
+     * @param factory creates the entity of a user from its username, name and email address
+     * @param <T> the type of the entities
+     * @return the users that exist, by username, without properties, groups, roster items and vCard
+     * @throws ServiceException when the users cannot be read
+     */
+    @Nonnull
+    public static <T extends UserExportEntity> Map<String, T> getUsers(@Nonnull final Collection<String> usernames, @Nonnull final UserFactory<T> factory) throws ServiceException {
+        final Map<String, T> users = new HashMap<>();
+        query(LOAD_USERS_BY_USERNAME, usernames, rs -> users.put(rs.getString(1), factory.create(rs.getString(1), rs.getString(2), rs.getString(3))));
+        return users;
+    }
+
+    /**
+     * Sets the properties of a window of users.
+     *
+     * @param users the users, by username
+     * @throws ServiceException when the properties cannot be read
+     */
+    public static void loadProperties(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        query(LOAD_PROPERTIES, users.keySet(), rs -> {
+            final UserExportEntity user = users.get(rs.getString(1));
+            if (user.getProperties() == null) {
+                user.setProperties(new ArrayList<>());
+            }
+            user.getProperties().add(new UserProperty(rs.getString(2), rs.getString(3)));
+        });
+    }
+
+    /**
+     * Sets the names of the groups of a window of users.
+     *
+     * @param users the users, by username
+     * @throws ServiceException when the groups cannot be read
+     */
+    public static void loadGroups(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        query(LOAD_GROUPS, users.keySet(), rs -> {
+            final UserExportEntity user = users.get(rs.getString(1));
+            if (user.getGroups() == null) {
+                user.setGroups(new ArrayList<>());
+            }
+            user.getGroups().add(rs.getString(2));
+        });
+    }
+
+    /**
+     * Sets the roster items of a window of users.
+     *
+     * @param users the users, by username
+     * @throws ServiceException when the roster items cannot be read
+     */
+    public static void loadRosterItems(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        final long[] lastRosterId = { -1 };
+        final RosterItemEntity[] lastItem = { null };
+        query(LOAD_ROSTER_ITEMS, users.keySet(), rs -> {
+            // An item is repeated for each of its groups.
+            final long rosterId = rs.getLong(2);
+            if (rosterId != lastRosterId[0]) {
+                final UserExportEntity user = users.get(rs.getString(1));
+                if (user.getRoster() == null) {
+                    user.setRoster(new ArrayList<>());
+                }
+                lastRosterId[0] = rosterId;
+                lastItem[0] = new RosterItemEntity(rs.getString(3), rs.getString(4), rs.getInt(5));
+                lastItem[0].setGroups(new ArrayList<>());
+                user.getRoster().add(lastItem[0]);
+            }
+            final String groupName = rs.getString(6);
+            if (groupName != null) {
+                lastItem[0].getGroups().add(groupName);
+            }
+        });
+    }
+
+    /**
+     * Sets the vCards of a window of users.
+     *
+     * @param users the users, by username
+     * @throws ServiceException when the vCards cannot be read
+     */
+    public static void loadVCards(@Nonnull final Map<String, ? extends UserExportEntity> users) throws ServiceException {
+        query(LOAD_VCARDS, users.keySet(), rs -> users.get(rs.getString(1)).setVcard(rs.getString(2)));
+    }
+
+    /**
+     * Executes a query for a window of users, and passes each row of the result to a consumer.
+     *
+     * @param sql the query, with a placeholder for the operand of an IN operator
+     * @param usernames the usernames of the window
+     * @param consumer consumes the rows of the result
+     * @throws ServiceException when the query fails
+     */
+    private static void query(@Nonnull final String sql, @Nonnull final Collection<String> usernames, @Nonnull final RowConsumer consumer) throws ServiceException {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        final String placeholders = "(" + String.join(",", Collections.nCopies(usernames.size(), "?")) + ")";
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            pstmt = con.prepareStatement(String.format(sql, placeholders));
+            final Iterator<String> iterator = usernames.iterator();
+            for (int i = 1; iterator.hasNext(); i++) {
+                pstmt.setString(i, iterator.next());
+            }
+            DbConnectionManager.setFetchSize(pstmt, 500);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                consumer.accept(rs);
+            }
+        } catch (SQLException e) {
+            throw new ServiceException("Could not read the data of users", usernames.iterator().next(), ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+    }
+
+    /**
+     * Creates the entity of a user.
+     */
+    @FunctionalInterface
+    public interface UserFactory<T extends UserExportEntity> {
+        @Nonnull
+        T create(@Nonnull String username, String name, String email);
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(@Nonnull ResultSet rs) throws SQLException;
+    }
+}
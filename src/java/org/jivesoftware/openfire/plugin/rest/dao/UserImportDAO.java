@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import org.jivesoftware.database.DbConnectionManager;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the data of imported users to the tables of the default Openfire providers, in batches.
+ */
+public class UserImportDAO {
+
+    private static final String INSERT_PROPERTY = "INSERT INTO ofUserProp (username, name, propValue) VALUES (?, ?, ?)";
+
+    /**
+     * Stores the properties of users that do not have any properties yet, in one transaction.
+     *
+     * @param properties the properties, by username
+     * @throws SQLException when the properties cannot be stored (in which case none are stored)
+     */
+    public static void insertProperties(@Nonnull final Map<String, List<UserProperty>> properties) throws SQLException {
+        if (properties.isEmpty()) {
+            return;
+        }
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        boolean abortTransaction = true;
+        try {
+            con = DbConnectionManager.getTransactionConnection();
+            pstmt = con.prepareStatement(INSERT_PROPERTY);
+            for (final Map.Entry<String, List<UserProperty>> entry : properties.entrySet()) {
+                for (final UserProperty property : entry.getValue()) {
+                    pstmt.setString(1, entry.getKey());
+                    pstmt.setString(2, property.getKey());
+                    pstmt.setString(3, property.getValue());
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+            abortTransaction = false;
+        } finally {
+            DbConnectionManager.closeTransactionConnection(pstmt, con, abortTransaction);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import org.jivesoftware.database.DbConnectionManager;
+import org.jivesoftware.openfire.plugin.rest.entity.PropertyPredicateEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserProperty;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryResultEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.util.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Response;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Queries the users in the tables of the default Openfire user and property providers.
+ *
+ * A query is compiled into one statement, that selects the usernames of a page of matching users, ordered by username,
+ * and that is bounded to the size of the page. The properties of the users of the page are then read in one more
+ * statement. Pages are delimited by the last username of the previous page (keyset pagination), so that a page does
+ * not require the users of earlier pages to be read.
+ */
+public class UserQueryDAO {
+
+    private static final String SELECT = "SELECT u.username, u.name, u.email FROM ofUser u";
+
+    private static final String ORDER = " ORDER BY u.username";
+
+    private static final String LOAD_PROPERTIES = "SELECT username, name, propValue FROM ofUserProp WHERE username IN %s ORDER BY username, name";
+
+    /**
+     * Returns a page of the users that match a query, with their properties.
+     *
+     * @param query the conditions (which have been validated)
+     * @param limit the maximum amount of users to return
+     * @return the users, and the cursor for the next page
+     * @throws ServiceException when the users cannot be read
+     */
+    @Nonnull
+    public static UserQueryResultEntity query(@Nonnull final UserQueryEntity query, final int limit) throws ServiceException {
+        final List<String> parameters = new ArrayList<>();
+        final String sql = toSql(query, parameters);
+
+        final Map<String, UserEntity> users = new LinkedHashMap<>();
+        boolean more = false;
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = DbConnectionManager.getConnection();
+            pstmt = con.prepareStatement(sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setString(i + 1, parameters.get(i));
+            }
+            // One more row than the page, to learn whether there is a next page.
+            DbConnectionManager.limitRowsAndFetchSize(pstmt, 0, limit + 1);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                if (users.size() == limit) {
+                    more = true;
+                    break;
+                }
+                final UserEntity user = new UserEntity(rs.getString(1), rs.getString(2), rs.getString(3));
+                user.setProperties(new ArrayList<>());
+                users.put(user.getUsername(), user);
+            }
+            DbConnectionManager.fastcloseStmt(rs, pstmt);
+            rs = null;
+            pstmt = null;
+
+            if (!users.isEmpty()) {
+                final String placeholders = "(" + String.join(",", Collections.nCopies(users.size(), "?")) + ")";
+                pstmt = con.prepareStatement(String.format(LOAD_PROPERTIES, placeholders));
+                int i = 1;
+                for (final String username : users.keySet()) {
+                    pstmt.setString(i++, username);
+                }
+                DbConnectionManager.setFetchSize(pstmt, 500);
+                rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    final UserEntity user = users.get(rs.getString(1));
+                    if (user != null) {
+                        user.getProperties().add(new UserProperty(rs.getString(2), rs.getString(3)));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new ServiceException("Could not query users", "users", ExceptionType.INTERNAL_ERROR, Response.Status.INTERNAL_SERVER_ERROR, e);
+        } finally {
+            DbConnectionManager.closeConnection(rs, pstmt, con);
+        }
+        final List<UserEntity> page = new ArrayList<>(users.values());
+        return new UserQueryResultEntity(page, more ? page.get(page.size() - 1).getUsername() : null);
+    }
+
+    /**
+     * Compiles a query into SQL.
+     *
+     * @param query the conditions (which have been validated)
+     * @param parameters receives the values of the parameters of the statement, in order
+     * @return the statement
+     */
+    @Nonnull
+    static String toSql(@Nonnull final UserQueryEntity query, @Nonnull final List<String> parameters) {
+        final List<String> conditions = new ArrayList<>();
+        if (query.getAfter() != null) {
+            conditions.add("u.username > ?");
+            parameters.add(query.getAfter());
+        }
+        if (query.getCreatedAfter() != null) {
+            // Dates are stored as zero-padded milliseconds, which sort like the dates that they represent.
+            conditions.add("u.creationDate >= ?");
+            parameters.add(StringUtils.dateToMillis(query.getCreatedAfter()));
+        }
+        if (query.getCreatedBefore() != null) {
+            conditions.add("u.creationDate < ?");
+            parameters.add(StringUtils.dateToMillis(query.getCreatedBefore()));
+        }
+        if (query.getName() != null) {
+            conditions.add("LOWER(u.name) LIKE ? ESCAPE '!'");
+            parameters.add("%" + escapeLike(query.getName().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (query.getEmail() != null) {
+            conditions.add("LOWER(u.email) LIKE ? ESCAPE '!'");
+            parameters.add("%" + escapeLike(query.getEmail().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (query.getProperties() != null) {
+            int alias = 0;
+            for (final PropertyPredicateEntity predicate : query.getProperties()) {
+                final String q = "q" + alias++;
+                final StringBuilder condition = new StringBuilder("EXISTS (SELECT 1 FROM ofUserProp ").append(q)
+                    .append(" WHERE ").append(q).append(".username = u.username AND ").append(q).append(".name = ?");
+                parameters.add(predicate.getKey());
+                switch (predicate.getOperator()) {
+                    case PropertyPredicateEntity.OPERATOR_EQUALS:
+                        condition.append(" AND ").append(q).append(".propValue = ?");
+                        parameters.add(predicate.getValue());
+                        break;
+                    case PropertyPredicateEntity.OPERATOR_PREFIX:
+                        condition.append(" AND ").append(q).append(".propValue LIKE ? ESCAPE '!'");
+                        parameters.add(escapeLike(predicate.getValue()) + "%");
+                        break;
+                    default:
+                        break;
+                }
+                conditions.add(condition.append(")").toString());
+            }
+        }
+        return conditions.isEmpty() ? SELECT + ORDER : SELECT + " WHERE " + String.join(" AND ", conditions) + ORDER;
+    }
+
+    @Nonnull
+    static String escapeLike(@Nonnull final String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
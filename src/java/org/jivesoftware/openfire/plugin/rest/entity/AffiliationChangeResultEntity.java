@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Describes the outcome of a modification of the list of users that have a particular affiliation with a room.
+ */
+@XmlRootElement(name = "affiliationChangeResult")
+@XmlType(propOrder = { "roomName", "affiliation", "added", "removed", "unchanged", "batchSize", "durationMillis" })
+public class AffiliationChangeResultEntity {
+
+    String roomName;
+    String affiliation;
+    int added;
+    int removed;
+    int unchanged;
+    int batchSize;
+    long durationMillis;
+
+    public AffiliationChangeResultEntity() {
+    }
+
+    public AffiliationChangeResultEntity(String roomName, String affiliation, int added, int removed, int unchanged) {
+        this.roomName = roomName;
+        this.affiliation = affiliation;
+        this.added = added;
+        this.removed = removed;
+        this.unchanged = unchanged;
+    }
+
+    @XmlElement
+    @Schema(description = "The name of the room that was modified", example = "lobby")
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    @XmlElement
+    @Schema(description = "The affiliation that was modified", example = "member")
+    public String getAffiliation() {
+        return affiliation;
+    }
+
+    public void setAffiliation(String affiliation) {
+        this.affiliation = affiliation;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of users that were given the affiliation", example = "12")
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of users that lost the affiliation", example = "3")
+    public int getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(int removed) {
+        this.removed = removed;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of requested users that already had the affiliation", example = "480")
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of concurrent requests that were applied to the room together with this one (including this one)", example = "1")
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @XmlElement
+    @Schema(description = "The time (in milliseconds) that it took to apply the batch that included this modification, measured from the moment the room was locked", example = "5")
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+/**
+ * The outcome of an operation that was applied in bulk, for each item to which it was applied.
+ */
+@XmlRootElement(name = "bulkResults")
+public class BulkResultEntities {
+
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_NOT_FOUND = "notFound";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_ADDED = "added";
+    public static final String STATUS_UPDATED = "updated";
+    public static final String STATUS_DELETED = "deleted";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    List<JobResultEntity> results;
+
+    public BulkResultEntities() {
+    }
+
+    public BulkResultEntities(List<JobResultEntity> results) {
+        this.results = results;
+    }
+
+    @XmlElement(name = "result")
+    @JsonProperty(value = "results")
+    public List<JobResultEntity> getResults() {
+        return results;
+    }
+
+    public void setResults(List<JobResultEntity> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * A page of the change log: the entities that changed after a particular token, and the token to use to obtain
+ * subsequent changes.
+ */
+@XmlRootElement(name = "changes")
+@XmlType(propOrder = { "token", "resyncRequired", "more", "changes" })
+public class ChangeEntities {
+
+    String token;
+    boolean resyncRequired;
+    boolean more;
+    List<ChangeEntity> changes;
+
+    public ChangeEntities() {
+    }
+
+    public ChangeEntities(String token, boolean resyncRequired, boolean more, List<ChangeEntity> changes) {
+        this.token = token;
+        this.resyncRequired = resyncRequired;
+        this.more = more;
+        this.changes = changes;
+    }
+
+    @XmlElement
+    @Schema(description = "The token to provide as 'since' to obtain the changes that follow the ones in this response", example = "lx2v9k1c:1024")
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    @XmlElement
+    @Schema(description = "True when the changes since the provided token are no longer available. All entities should then be retrieved again, after which changes can be obtained using the token in this response.", example = "false")
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public void setResyncRequired(boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+
+    @XmlElement
+    @Schema(description = "True when more changes are available than were returned", example = "false")
+    public boolean isMore() {
+        return more;
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    @XmlElement(name = "change")
+    @JsonProperty(value = "changes")
+    public List<ChangeEntity> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeEntity> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Describes the most recent change of an entity (a user, group or chat room), optionally including the current state
+ * of that entity.
+ */
+@XmlRootElement(name = "change")
+@XmlType(propOrder = { "sequence", "type", "id", "operation", "timestamp", "user", "group", "chatRoom" })
+public class ChangeEntity {
+
+    long sequence;
+    String type;
+    String id;
+    String operation;
+    long timestamp;
+    UserEntity user;
+    GroupEntity group;
+    MUCRoomEntity chatRoom;
+
+    public ChangeEntity() {
+    }
+
+    public ChangeEntity(long sequence, String type, String id, String operation, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.operation = operation;
+        this.timestamp = timestamp;
+    }
+
+    @XmlElement
+    @Schema(description = "The sequence number of the change in the change log", example = "1024")
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    @XmlElement
+    @Schema(description = "The type of the entity that changed. One of: 'user', 'group', 'chatroom'", example = "user")
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @XmlElement
+    @Schema(description = "The identifier of the entity that changed: a username, a group name, or the address of a chat room", example = "john")
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @XmlElement
+    @Schema(description = "The change. One of: 'created', 'modified', 'deleted'", example = "modified")
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    @XmlElement
+    @Schema(description = "The moment of the change, in milliseconds since the epoch", example = "1735689600000")
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @XmlElement
+    @Schema(description = "The current state of the user (only when requested, and the user still exists)")
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public void setUser(UserEntity user) {
+        this.user = user;
+    }
+
+    @XmlElement
+    @Schema(description = "The current state of the group (only when requested, and the group still exists)")
+    public GroupEntity getGroup() {
+        return group;
+    }
+
+    public void setGroup(GroupEntity group) {
+        this.group = group;
+    }
+
+    @XmlElement
+    @Schema(description = "The current state of the chat room (only when requested, and the room still exists)")
+    public MUCRoomEntity getChatRoom() {
+        return chatRoom;
+    }
+
+    public void setChatRoom(MUCRoomEntity chatRoom) {
+        this.chatRoom = chatRoom;
+    }
+}
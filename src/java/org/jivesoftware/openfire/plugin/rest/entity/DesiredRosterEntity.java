@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+/**
+ * The complete roster that a user is to have. It has the same format as a retrieved roster.
+ */
+@XmlRootElement(name = "roster")
+public class DesiredRosterEntity {
+
+    List<DesiredRosterItemEntity> roster;
+
+    public DesiredRosterEntity() {
+    }
+
+    public DesiredRosterEntity(List<DesiredRosterItemEntity> roster) {
+        this.roster = roster;
+    }
+
+    @XmlElement(name = "rosterItem")
+    @JsonProperty(value = "rosterItem")
+    public List<DesiredRosterItemEntity> getRoster() {
+        return roster;
+    }
+
+    public void setRoster(List<DesiredRosterItemEntity> roster) {
+        this.roster = roster;
+    }
+}
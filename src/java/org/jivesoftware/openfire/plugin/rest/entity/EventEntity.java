@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * An event that occurred in Openfire, as pushed to clients that subscribed to events.
+ */
+@XmlRootElement(name = "event")
+@XmlType(propOrder = { "id", "topic", "type", "timestamp", "jid", "room", "group", "nickname", "show", "status", "body" })
+public class EventEntity {
+
+    long id;
+    String topic;
+    String type;
+    long timestamp;
+    String jid;
+    String room;
+    String group;
+    String nickname;
+    String show;
+    String status;
+    String body;
+
+    public EventEntity() {
+    }
+
+    public EventEntity(String topic, String type) {
+        this.topic = topic;
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    @XmlElement
+    @Schema(description = "A sequence number that increases with every event", example = "1024")
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @XmlElement
+    @Schema(description = "The topic that the event belongs to. One of: 'sessions', 'presence', 'muc', 'users', 'groups'", example = "muc")
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    @XmlElement
+    @Schema(description = "The type of the event", example = "occupant_joined")
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @XmlElement
+    @Schema(description = "The moment the event occurred, in milliseconds since the epoch", example = "1735689600000")
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @XmlElement
+    @Schema(description = "The address of the user or session that the event relates to", example = "john@example.org/phone")
+    public String getJid() {
+        return jid;
+    }
+
+    public void setJid(String jid) {
+        this.jid = jid;
+    }
+
+    @XmlElement
+    @Schema(description = "The address of the chat room that the event relates to", example = "lobby@conference.example.org")
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    @XmlElement
+    @Schema(description = "The name of the group that the event relates to", example = "developers")
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    @XmlElement
+    @Schema(description = "The nickname of the chat room occupant that the event relates to", example = "john")
+    public String getNickname() {
+        return nickname;
+    }
+
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+
+    @XmlElement
+    @Schema(description = "The 'show' value of a presence", example = "away")
+    public String getShow() {
+        return show;
+    }
+
+    public void setShow(String show) {
+        this.show = show;
+    }
+
+    @XmlElement
+    @Schema(description = "The status text of a presence, or the new subject of a chat room", example = "Out for lunch")
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @XmlElement
+    @Schema(description = "The body of a chat room message", example = "Hello, world!")
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
@@ -21,6 +21,7 @@ import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.xml.bind.annotation.XmlElement;
@@ -172,4 +173,24 @@ public class GroupEntity {
      */
     public void setShared(Boolean shared) { this.shared = shared; }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final GroupEntity that = (GroupEntity) o;
+        return Objects.equals(name, that.name) &&
+            Objects.equals(description, that.description) &&
+            Objects.equals(admins, that.admins) &&
+            Objects.equals(members, that.members) &&
+            Objects.equals(shared, that.shared);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, description, admins, members, shared);
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * The outcome of importing the entity on one line of an import.
+ */
+@XmlRootElement(name = "result")
+@XmlType(propOrder = { "line", "username", "status", "message" })
+public class ImportResultEntity {
+
+    public static final String STATUS_CREATED = "created";
+    public static final String STATUS_FAILED = "failed";
+
+    long line;
+    String username;
+    String status;
+    String message;
+
+    public ImportResultEntity() {
+    }
+
+    public ImportResultEntity(long line, String username, String status, String message) {
+        this.line = line;
+        this.username = username;
+        this.status = status;
+        this.message = message;
+    }
+
+    @XmlElement
+    @Schema(description = "The number of the line in the request body, starting at 1", example = "2")
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    @XmlElement
+    @Schema(description = "The username on the line (if it could be read)", example = "john")
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @XmlElement
+    @Schema(description = "The outcome. One of: 'created', 'failed'", example = "created")
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @XmlElement
+    @Schema(description = "The reason why the line could not be imported (completely)", example = "The user already exists.")
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
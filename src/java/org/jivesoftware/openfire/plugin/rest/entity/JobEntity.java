@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * The state of an operation that is executed in the background.
+ */
+@XmlRootElement(name = "job")
+@XmlType(propOrder = { "id", "type", "status", "created", "started", "finished", "duration", "total", "completed", "error", "results" })
+public class JobEntity {
+
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_CANCELLED = "cancelled";
+
+    String id;
+    String type;
+    String status;
+    long created;
+    Long started;
+    Long finished;
+    Long duration;
+    Long total;
+    long completed;
+    String error;
+    List<JobResultEntity> results;
+
+    public JobEntity() {
+    }
+
+    @XmlElement
+    @Schema(description = "The identifier of the job", example = "4c6e3bd8-1f0a-4d3c-9a39-52d4d5b1c0aa")
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @XmlElement
+    @Schema(description = "The operation that the job executes", example = "chatrooms.bulk-create")
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @XmlElement
+    @Schema(description = "The state of the job. One of: 'queued', 'running', 'completed', 'failed', 'cancelled'", example = "running")
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @XmlElement
+    @Schema(description = "The moment the job was submitted, in milliseconds since the epoch", example = "1735689600000")
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    @XmlElement
+    @Schema(description = "The moment the job started, in milliseconds since the epoch (if it started)", example = "1735689600010")
+    public Long getStarted() {
+        return started;
+    }
+
+    public void setStarted(Long started) {
+        this.started = started;
+    }
+
+    @XmlElement
+    @Schema(description = "The moment the job finished, in milliseconds since the epoch (if it finished)", example = "1735689604210")
+    public Long getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Long finished) {
+        this.finished = finished;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of milliseconds that the job has been running, or ran", example = "4200")
+    public Long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Long duration) {
+        this.duration = duration;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of items that the job is to process (if known)", example = "1000")
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of items that the job processed", example = "420")
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    @XmlElement
+    @Schema(description = "The reason why the job failed (if it failed)", example = "Chat room service 'conference' does not exist.")
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @XmlElement(name = "result")
+    @XmlElementWrapper(name = "results")
+    @JsonProperty(value = "results")
+    @Schema(description = "The outcome of each item that the job processed so far")
+    public List<JobResultEntity> getResults() {
+        return results;
+    }
+
+    public void setResults(List<JobResultEntity> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * The outcome of one item (such as a chat room) that a job processed.
+ */
+@XmlRootElement(name = "result")
+@XmlType(propOrder = { "item", "status", "message" })
+public class JobResultEntity {
+
+    String item;
+    String status;
+    String message;
+
+    public JobResultEntity() {
+    }
+
+    public JobResultEntity(String item, String status, String message) {
+        this.item = item;
+        this.status = status;
+        this.message = message;
+    }
+
+    @XmlElement
+    @Schema(description = "The item that was processed", example = "lobby")
+    public String getItem() {
+        return item;
+    }
+
+    public void setItem(String item) {
+        this.item = item;
+    }
+
+    @XmlElement
+    @Schema(description = "The outcome of processing the item", example = "Success")
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @XmlElement
+    @Schema(description = "A message describing the outcome", example = "Room was successfully created")
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -16,16 +16,19 @@
 
 package org.jivesoftware.openfire.plugin.rest.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 @XmlRootElement(name = "chatRooms")
 public class MUCRoomEntities {
     List<MUCRoomEntity> mucRooms;
+    String serviceName;
 
     public MUCRoomEntities() {
     }
@@ -34,6 +37,11 @@ public class MUCRoomEntities {
         this.mucRooms = mucRooms;
     }
 
+    public MUCRoomEntities(List<MUCRoomEntity> mucRooms, String serviceName) {
+        this.mucRooms = mucRooms;
+        this.serviceName = serviceName;
+    }
+
     @XmlElement(name = "chatRoom")
     @JsonProperty(value = "chatRooms")
     public List<MUCRoomEntity> getMucRooms() {
@@ -43,4 +51,17 @@ public class MUCRoomEntities {
     public void setMucRooms(List<MUCRoomEntity> mucRooms) {
         this.mucRooms = mucRooms;
     }
+
+    /**
+     * The name of the service of the rooms. It is not part of the representation.
+     */
+    @XmlTransient
+    @JsonIgnore
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
 }
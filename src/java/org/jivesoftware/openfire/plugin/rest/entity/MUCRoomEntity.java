@@ -22,6 +22,7 @@ import org.xmpp.packet.JID;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
@@ -363,4 +364,48 @@ public class MUCRoomEntity {
         this.adminGroups = adminGroups;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final MUCRoomEntity that = (MUCRoomEntity) o;
+        return Objects.equals(roomName, that.roomName) &&
+            Objects.equals(description, that.description) &&
+            Objects.equals(password, that.password) &&
+            Objects.equals(subject, that.subject) &&
+            Objects.equals(naturalName, that.naturalName) &&
+            maxUsers == that.maxUsers &&
+            Objects.equals(creationDate, that.creationDate) &&
+            Objects.equals(modificationDate, that.modificationDate) &&
+            persistent == that.persistent &&
+            publicRoom == that.publicRoom &&
+            registrationEnabled == that.registrationEnabled &&
+            canAnyoneDiscoverJID == that.canAnyoneDiscoverJID &&
+            canOccupantsChangeSubject == that.canOccupantsChangeSubject &&
+            canOccupantsInvite == that.canOccupantsInvite &&
+            canChangeNickname == that.canChangeNickname &&
+            logEnabled == that.logEnabled &&
+            loginRestrictedToNickname == that.loginRestrictedToNickname &&
+            membersOnly == that.membersOnly &&
+            moderated == that.moderated &&
+            Objects.equals(allowPM, that.allowPM) &&
+            Objects.equals(broadcastPresenceRoles, that.broadcastPresenceRoles) &&
+            Objects.equals(owners, that.owners) &&
+            Objects.equals(ownerGroups, that.ownerGroups) &&
+            Objects.equals(admins, that.admins) &&
+            Objects.equals(adminGroups, that.adminGroups) &&
+            Objects.equals(members, that.members) &&
+            Objects.equals(memberGroups, that.memberGroups) &&
+            Objects.equals(outcasts, that.outcasts) &&
+            Objects.equals(outcastGroups, that.outcastGroups);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomName, description, password, subject, naturalName, maxUsers, creationDate, modificationDate, persistent, publicRoom, registrationEnabled, canAnyoneDiscoverJID, canOccupantsChangeSubject, canOccupantsInvite, canChangeNickname, logEnabled, loginRestrictedToNickname, membersOnly, moderated, allowPM, broadcastPresenceRoles, owners, ownerGroups, admins, adminGroups, members, memberGroups, outcasts, outcastGroups);
+    }
 }
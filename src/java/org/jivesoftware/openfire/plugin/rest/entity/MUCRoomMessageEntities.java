@@ -16,6 +16,8 @@
 
 package org.jivesoftware.openfire.plugin.rest.entity;
 
+import io.swagger.v3.oas.annotations.media.Schema;
+
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import java.util.List;
@@ -23,6 +25,7 @@ import java.util.List;
 @XmlRootElement(name = "messages")
 public class MUCRoomMessageEntities {
     List<MUCRoomMessageEntity> messages;
+    String nextCursor;
 
     public MUCRoomMessageEntities() {
     }
@@ -39,4 +42,14 @@ public class MUCRoomMessageEntities {
     public void setMessages(List<MUCRoomMessageEntity> messages) {
         this.messages = messages;
     }
+
+    @XmlElement
+    @Schema(description = "When more messages are available than were returned, the value to use as the 'after' parameter to retrieve the next page", example = "1700000000000-42")
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
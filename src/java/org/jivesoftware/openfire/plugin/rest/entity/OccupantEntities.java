@@ -17,6 +17,7 @@
 package org.jivesoftware.openfire.plugin.rest.entity;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
@@ -25,6 +26,7 @@ import java.util.List;
 @XmlRootElement(name = "occupants")
 public class OccupantEntities {
     List<OccupantEntity> occupants;
+    Integer count;
 
     public OccupantEntities() {
     }
@@ -42,4 +44,15 @@ public class OccupantEntities {
     public void setOccupants(List<OccupantEntity> occupants) {
         this.occupants = occupants;
     }
+
+    @XmlElement(name = "count")
+    @JsonProperty(value = "count")
+    @Schema(description = "The total amount of occupants that match the request (only present when filtering, paging or counting)", example = "42")
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
 }
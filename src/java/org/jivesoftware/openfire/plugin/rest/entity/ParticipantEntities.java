@@ -17,6 +17,7 @@
 package org.jivesoftware.openfire.plugin.rest.entity;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
 
@@ -26,6 +27,7 @@ import javax.xml.bind.annotation.XmlRootElement;
 @XmlRootElement(name = "participants")
 public class ParticipantEntities {
     List<ParticipantEntity> participants;
+    Integer count;
 
     public ParticipantEntities() {
     }
@@ -43,4 +45,15 @@ public class ParticipantEntities {
     public void setParticipants(List<ParticipantEntity> participants) {
         this.participants = participants;
     }
+
+    @XmlElement(name = "count")
+    @JsonProperty(value = "count")
+    @Schema(description = "The total amount of participants that match the request (only present when filtering, paging or counting)", example = "42")
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * A condition on a property of a user.
+ */
+@XmlRootElement(name = "property")
+public class PropertyPredicateEntity {
+
+    public static final String OPERATOR_EQUALS = "equals";
+    public static final String OPERATOR_PREFIX = "prefix";
+    public static final String OPERATOR_EXISTS = "exists";
+
+    String key;
+    String operator;
+    String value;
+
+    public PropertyPredicateEntity() {
+    }
+
+    public PropertyPredicateEntity(String key, String operator, String value) {
+        this.key = key;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    @XmlAttribute
+    @Schema(description = "The key of the property", example = "department")
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    @XmlAttribute
+    @Schema(description = "How the value of the property is compared. One of: 'equals', 'prefix', 'exists'", example = "equals")
+    public String getOperator() {
+        return operator;
+    }
+
+    public void setOperator(String operator) {
+        this.operator = operator;
+    }
+
+    @XmlAttribute
+    @Schema(description = "The value (or the start of the value) of the property. Not used by 'exists'", example = "Sales")
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
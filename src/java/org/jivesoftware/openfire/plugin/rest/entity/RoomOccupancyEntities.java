@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+@XmlRootElement(name = "occupancy")
+public class RoomOccupancyEntities {
+    List<RoomOccupancyEntity> rooms;
+    long totalOccupants;
+
+    public RoomOccupancyEntities() {
+    }
+
+    public RoomOccupancyEntities(List<RoomOccupancyEntity> rooms, long totalOccupants) {
+        this.rooms = rooms;
+        this.totalOccupants = totalOccupants;
+    }
+
+    @XmlElement(name = "room")
+    @JsonProperty(value = "rooms")
+    public List<RoomOccupancyEntity> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<RoomOccupancyEntity> rooms) {
+        this.rooms = rooms;
+    }
+
+    @XmlElement
+    @Schema(description = "The sum of the occupants of all listed rooms", example = "1042")
+    public long getTotalOccupants() {
+        return totalOccupants;
+    }
+
+    public void setTotalOccupants(long totalOccupants) {
+        this.totalOccupants = totalOccupants;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+@XmlRootElement(name = "room")
+@XmlType(propOrder = { "roomName", "occupants" })
+public class RoomOccupancyEntity {
+
+    String roomName;
+    int occupants;
+
+    public RoomOccupancyEntity() {
+    }
+
+    public RoomOccupancyEntity(String roomName, int occupants) {
+        this.roomName = roomName;
+        this.occupants = occupants;
+    }
+
+    @XmlElement
+    @Schema(description = "The name of the room", example = "lobby")
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of occupants of the room", example = "42")
+    public int getOccupants() {
+        return occupants;
+    }
+
+    public void setOccupants(int occupants) {
+        this.occupants = occupants;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * An operation on one entry of a roster: adding, updating or deleting it.
+ */
+@XmlRootElement(name = "operation")
+@XmlType(propOrder = { "action", "jid", "nickname", "subscriptionType", "groups" })
+public class RosterOperationEntity {
+
+    public static final String ACTION_ADD = "add";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_DELETE = "delete";
+
+    String action;
+    String jid;
+    String nickname;
+    Integer subscriptionType;
+    List<String> groups;
+
+    public RosterOperationEntity() {
+    }
+
+    public RosterOperationEntity(String action, String jid) {
+        this.action = action;
+        this.jid = jid;
+    }
+
+    @XmlElement
+    @Schema(description = "One of: 'add', 'update', 'delete'", example = "add")
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    @XmlElement
+    @Schema(description = "The JID of the contact", example = "john@example.org")
+    public String getJid() {
+        return jid;
+    }
+
+    public void setJid(String jid) {
+        this.jid = jid;
+    }
+
+    @XmlElement
+    @Schema(description = "The nickname of the contact (when updating: unchanged if absent)", example = "John")
+    public String getNickname() {
+        return nickname;
+    }
+
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+
+    @XmlElement
+    @Schema(description = "The subscription: 0 (none), 1 (to), 2 (from), 3 (both). When adding: none if absent. When updating: unchanged if absent.", example = "3")
+    public Integer getSubscriptionType() {
+        return subscriptionType;
+    }
+
+    public void setSubscriptionType(Integer subscriptionType) {
+        this.subscriptionType = subscriptionType;
+    }
+
+    @XmlElement(name = "group")
+    @XmlElementWrapper(name = "groups")
+    @JsonProperty(value = "groups")
+    @Schema(description = "The roster groups of the contact (when updating: unchanged if absent)")
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<String> groups) {
+        this.groups = groups;
+    }
+}
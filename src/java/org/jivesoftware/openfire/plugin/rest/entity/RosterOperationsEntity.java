@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.List;
+
+/**
+ * Operations that are applied to one roster, in order.
+ */
+@XmlRootElement(name = "rosterOperations")
+public class RosterOperationsEntity {
+
+    List<RosterOperationEntity> operations;
+
+    public RosterOperationsEntity() {
+    }
+
+    public RosterOperationsEntity(List<RosterOperationEntity> operations) {
+        this.operations = operations;
+    }
+
+    @XmlElement(name = "operation")
+    @JsonProperty(value = "operations")
+    public List<RosterOperationEntity> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<RosterOperationEntity> operations) {
+        this.operations = operations;
+    }
+}
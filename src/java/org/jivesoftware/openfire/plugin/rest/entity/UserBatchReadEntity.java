@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * The users of which to read data at once, and which data (facets) to read of each of them.
+ */
+@XmlRootElement(name = "batchRead")
+@XmlType(propOrder = { "usernames", "facets" })
+public class UserBatchReadEntity {
+
+    public static final String FACET_PROPERTIES = "properties";
+    public static final String FACET_GROUPS = "groups";
+    public static final String FACET_ROSTER = "roster";
+    public static final String FACET_VCARD = "vcard";
+    public static final String FACET_LOCKOUT = "lockout";
+
+    List<String> usernames;
+    List<String> facets;
+
+    public UserBatchReadEntity() {
+    }
+
+    public UserBatchReadEntity(List<String> usernames, List<String> facets) {
+        this.usernames = usernames;
+        this.facets = facets;
+    }
+
+    @XmlElement(name = "username")
+    @JsonProperty(value = "usernames")
+    @Schema(description = "The usernames of the users", example = "[\"john\", \"jane\"]")
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    @XmlElement(name = "facet")
+    @JsonProperty(value = "facets")
+    @Schema(description = "The data to read of each user, in addition to the name and email address: any of properties, groups, roster, vcard and lockout. All but the vCard when absent.", example = "[\"properties\", \"groups\", \"lockout\"]")
+    public List<String> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(List<String> facets) {
+        this.facets = facets;
+    }
+}
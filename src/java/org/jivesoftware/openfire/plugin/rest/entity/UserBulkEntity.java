@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * The users to which an operation is applied in bulk: either a list of usernames, or the users that have a property
+ * (with a value).
+ */
+@XmlRootElement(name = "bulk")
+@XmlType(propOrder = { "usernames", "propertyKey", "propertyValue" })
+public class UserBulkEntity {
+
+    List<String> usernames;
+    String propertyKey;
+    String propertyValue;
+
+    public UserBulkEntity() {
+    }
+
+    public UserBulkEntity(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    @XmlElement(name = "username")
+    @JsonProperty(value = "usernames")
+    @Schema(description = "The usernames of the users", example = "[\"john\", \"jane\"]")
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    @XmlElement
+    @Schema(description = "Instead of usernames: the key of a property that the users have", example = "department")
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public void setPropertyKey(String propertyKey) {
+        this.propertyKey = propertyKey;
+    }
+
+    @XmlElement
+    @Schema(description = "The value of the property that the users have (optional)", example = "Contractors")
+    public String getPropertyValue() {
+        return propertyValue;
+    }
+
+    public void setPropertyValue(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+}
@@ -19,6 +19,7 @@ package org.jivesoftware.openfire.plugin.rest.entity;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
+import java.util.Objects;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
@@ -170,4 +171,25 @@ public class UserEntity {
     public void setProperties(List<UserProperty> properties) {
         this.properties = properties;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final UserEntity that = (UserEntity) o;
+        return Objects.equals(username, that.username) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(email, that.email) &&
+            Objects.equals(password, that.password) &&
+            Objects.equals(properties, that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, name, email, password, properties);
+    }
 }
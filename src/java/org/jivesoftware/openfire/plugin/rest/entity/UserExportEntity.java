@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * A user, including the names of the groups that the user is in, the items on the roster of the user and (optionally)
+ * the vCard of the user. One of these is written for every line of a user export.
+ */
+@XmlRootElement(name = "user")
+@XmlType(propOrder = { "groups", "roster", "vcard" })
+@JsonPropertyOrder({ "username", "name", "email", "password", "properties", "groups", "roster", "vcard" })
+public class UserExportEntity extends UserEntity {
+
+    List<String> groups;
+    List<RosterItemEntity> roster;
+    String vcard;
+
+    public UserExportEntity() {
+    }
+
+    public UserExportEntity(String username, String name, String email) {
+        super(username, name, email);
+    }
+
+    @XmlElement(name = "group")
+    @XmlElementWrapper(name = "groups")
+    @JsonProperty(value = "groups")
+    @Schema(description = "The names of the groups that the user is a member or administrator of")
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<String> groups) {
+        this.groups = groups;
+    }
+
+    @XmlElement(name = "rosterItem")
+    @XmlElementWrapper(name = "roster")
+    @JsonProperty(value = "roster")
+    @Schema(description = "The items on the roster of the user")
+    public List<RosterItemEntity> getRoster() {
+        return roster;
+    }
+
+    public void setRoster(List<RosterItemEntity> roster) {
+        this.roster = roster;
+    }
+
+    @XmlElement
+    @Schema(description = "The vCard of the user, as XML (only when requested, and the user has a vCard)")
+    public String getVcard() {
+        return vcard;
+    }
+
+    public void setVcard(String vcard) {
+        this.vcard = vcard;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * The result of a batch read: the users that were found, with their requested data, and the usernames of the users
+ * that were not found.
+ */
+@XmlRootElement(name = "users")
+@XmlType(propOrder = { "users", "notFound" })
+public class UserFacetsEntities {
+
+    List<UserFacetsEntity> users;
+    List<String> notFound;
+
+    public UserFacetsEntities() {
+    }
+
+    public UserFacetsEntities(List<UserFacetsEntity> users, List<String> notFound) {
+        this.users = users;
+        this.notFound = notFound;
+    }
+
+    @XmlElement(name = "user")
+    @JsonProperty(value = "users")
+    @Schema(description = "The users that were found, in the order in which they were requested")
+    public List<UserFacetsEntity> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserFacetsEntity> users) {
+        this.users = users;
+    }
+
+    @XmlElement(name = "notFound")
+    @JsonProperty(value = "notFound")
+    @Schema(description = "The usernames of the users that do not exist")
+    public List<String> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<String> notFound) {
+        this.notFound = notFound;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * A user, including the data (facets) of the user that were requested in a batch read.
+ */
+@XmlRootElement(name = "user")
+@XmlType(propOrder = { "lockedOut" })
+@JsonPropertyOrder({ "username", "name", "email", "properties", "groups", "roster", "vcard", "lockedOut" })
+public class UserFacetsEntity extends UserExportEntity {
+
+    Boolean lockedOut;
+
+    public UserFacetsEntity() {
+    }
+
+    public UserFacetsEntity(String username, String name, String email) {
+        super(username, name, email);
+    }
+
+    @XmlElement
+    @Schema(description = "Whether the user is currently locked out (only when requested)")
+    public Boolean getLockedOut() {
+        return lockedOut;
+    }
+
+    public void setLockedOut(Boolean lockedOut) {
+        this.lockedOut = lockedOut;
+    }
+}
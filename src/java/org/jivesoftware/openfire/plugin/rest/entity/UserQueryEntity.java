@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The conditions that users must all meet to be returned by a query, and the page of users to return.
+ */
+@XmlRootElement(name = "query")
+@XmlType(propOrder = { "properties", "name", "email", "createdAfter", "createdBefore", "after", "limit" })
+public class UserQueryEntity {
+
+    List<PropertyPredicateEntity> properties;
+    String name;
+    String email;
+    Date createdAfter;
+    Date createdBefore;
+    String after;
+    Integer limit;
+
+    @XmlElementWrapper(name = "properties")
+    @XmlElement(name = "property")
+    @JsonProperty(value = "properties")
+    @Schema(description = "Conditions on the properties of the users")
+    public List<PropertyPredicateEntity> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(List<PropertyPredicateEntity> properties) {
+        this.properties = properties;
+    }
+
+    @XmlElement
+    @Schema(description = "Text that the name of the users contains (case-insensitive)", example = "doe")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @XmlElement
+    @Schema(description = "Text that the email address of the users contains (case-insensitive)", example = "@example.org")
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @XmlElement
+    @Schema(description = "The users must have been created at or after this date")
+    public Date getCreatedAfter() {
+        return createdAfter;
+    }
+
+    public void setCreatedAfter(Date createdAfter) {
+        this.createdAfter = createdAfter;
+    }
+
+    @XmlElement
+    @Schema(description = "The users must have been created before this date")
+    public Date getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(Date createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+
+    @XmlElement
+    @Schema(description = "The 'next' value of the previous page. Omit to obtain the first page", example = "john")
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    @XmlElement
+    @Schema(description = "The maximum amount of users to return (at most 1000)", example = "100")
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * A page of the users that match a query.
+ */
+@XmlRootElement(name = "queryResult")
+@XmlType(propOrder = { "users", "next" })
+public class UserQueryResultEntity {
+
+    List<UserEntity> users;
+    String next;
+
+    public UserQueryResultEntity() {
+    }
+
+    public UserQueryResultEntity(List<UserEntity> users, String next) {
+        this.users = users;
+        this.next = next;
+    }
+
+    @XmlElement(name = "user")
+    @JsonProperty(value = "users")
+    @Schema(description = "The matching users, ordered by username, with their properties")
+    public List<UserEntity> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserEntity> users) {
+        this.users = users;
+    }
+
+    @XmlElement
+    @Schema(description = "The value to pass as 'after' to obtain the next page. Absent on the last page", example = "john")
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
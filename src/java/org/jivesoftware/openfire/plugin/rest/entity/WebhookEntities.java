@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * The Class WebhookEntities.
+ */
+@XmlRootElement(name = "webhooks")
+public class WebhookEntities {
+
+    /** The webhooks. */
+    List<WebhookEntity> webhooks;
+
+    public WebhookEntities() {
+    }
+
+    public WebhookEntities(List<WebhookEntity> webhooks) {
+        this.webhooks = webhooks;
+    }
+
+    @XmlElement(name = "webhook")
+    @JsonProperty(value = "webhooks")
+    public List<WebhookEntity> getWebhooks() {
+        return webhooks;
+    }
+
+    public void setWebhooks(List<WebhookEntity> webhooks) {
+        this.webhooks = webhooks;
+    }
+}
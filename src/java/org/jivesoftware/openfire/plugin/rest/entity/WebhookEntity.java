@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.List;
+
+/**
+ * An HTTP endpoint to which events are delivered, including statistics that describe that delivery.
+ */
+@XmlRootElement(name = "webhook")
+@XmlType(propOrder = { "id", "url", "topics", "secret", "queued", "inFlight", "delivered", "dropped", "failedAttempts", "lagMillis" })
+public class WebhookEntity {
+
+    String id;
+    String url;
+    List<String> topics;
+    String secret;
+    Integer queued;
+    Integer inFlight;
+    Long delivered;
+    Long dropped;
+    Long failedAttempts;
+    Long lagMillis;
+
+    public WebhookEntity() {
+    }
+
+    @XmlElement
+    @Schema(description = "The identifier of the webhook. Generated when not provided upon creation.", example = "crm")
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @XmlElement
+    @Schema(description = "The URL to which batches of events are posted", example = "https://example.com/openfire-events")
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    @XmlElementWrapper(name = "topics")
+    @XmlElement(name = "topic")
+    @Schema(description = "The topics for which events are delivered. All topics when omitted.", example = "[\"users\", \"groups\"]")
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<String> topics) {
+        this.topics = topics;
+    }
+
+    @XmlElement
+    @Schema(description = "A secret that is used to sign each delivery (never returned)", example = "s3cr3t", accessMode = Schema.AccessMode.WRITE_ONLY)
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of events that await delivery", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    public Integer getQueued() {
+        return queued;
+    }
+
+    public void setQueued(Integer queued) {
+        this.queued = queued;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of events that are being delivered (including deliveries that are waiting to be retried)", example = "25", accessMode = Schema.AccessMode.READ_ONLY)
+    public Integer getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(Integer inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of events that were delivered since the webhook was loaded", example = "1024", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getDelivered() {
+        return delivered;
+    }
+
+    public void setDelivered(Long delivered) {
+        this.delivered = delivered;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of events that were discarded (because the queue was full, or delivery was not successful after the maximum amount of attempts) since the webhook was loaded", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(Long dropped) {
+        this.dropped = dropped;
+    }
+
+    @XmlElement
+    @Schema(description = "The amount of delivery attempts that failed since the webhook was loaded", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(Long failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    @XmlElement
+    @Schema(description = "The age (in milliseconds) of the oldest event that awaits delivery", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void setLagMillis(Long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+}
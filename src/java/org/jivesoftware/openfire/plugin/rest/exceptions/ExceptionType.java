@@ -55,6 +55,18 @@ public final class ExceptionType {
     /** The Constant CLUSTER_NODE_NOT_FOUND. */
     public static final String CLUSTER_NODE_NOT_FOUND = "ClusterNodeNotFoundException";
 
+    /** The Constant WEBHOOK_NOT_FOUND. */
+    public static final String WEBHOOK_NOT_FOUND = "WebhookNotFoundException";
+
+    /** The Constant JOB_NOT_FOUND. */
+    public static final String JOB_NOT_FOUND = "JobNotFoundException";
+
+    /** The Constant INTERNAL_ERROR. */
+    public static final String INTERNAL_ERROR = "InternalErrorException";
+
+    /** The Constant SERVICE_UNAVAILABLE. */
+    public static final String SERVICE_UNAVAILABLE = "ServiceUnavailableException";
+
     /**
      * Instantiates a new exception type.
      */
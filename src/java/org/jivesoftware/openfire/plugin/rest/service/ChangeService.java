@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.controller.ChangeLogController;
+import org.jivesoftware.openfire.plugin.rest.entity.ChangeEntities;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("restapi/v1/changes")
+@Tag(name = "Changes", description = "Obtaining the users, groups and chat rooms that changed.")
+public class ChangeService {
+
+    private ChangeLogController changeLogController;
+
+    @PostConstruct
+    public void init() {
+        changeLogController = ChangeLogController.getInstance();
+    }
+
+    @GET
+    @Operation( summary = "Get changes",
+        description = "Get the users, groups and chat rooms that changed after the position identified by a token. Without a token, a token for the current position is returned. When the changes after the provided token are no longer available, 'resyncRequired' is set, and all entities should be retrieved again. The log is kept in memory by each cluster node: tokens are only valid on the node that issued them, and changes made on other nodes might be missing. Changes to the configuration of chat rooms are only recorded when they are made through this API, not when they are made by XMPP clients or in the admin console.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The changes, and a token for subsequent changes.", content = @Content(schema = @Schema(implementation = ChangeEntities.class))),
+            @ApiResponse(responseCode = "400", description = "The token or limit is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public ChangeEntities getChanges(
+            @Parameter(description = "The token returned by a previous request. Omit to obtain a token for the current position.", example = "lx2v9k1c:1024", required = false) @QueryParam("since") String since,
+            @Parameter(description = "The maximum amount of changes to return.", example = "100", required = false) @QueryParam("limit") Integer limit,
+            @Parameter(description = "Include the current state of each user, group or chat room that was not deleted.", example = "false", required = false) @DefaultValue("false") @QueryParam("hydrate") boolean hydrate)
+        throws ServiceException
+    {
+        if (limit != null && limit < 1) {
+            throw new ServiceException("The 'limit' must be a positive number.", "changes", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        return changeLogController.getChanges(since, limit, hydrate);
+    }
+}
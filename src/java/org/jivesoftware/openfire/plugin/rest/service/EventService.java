@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.XMPPServer;
+import org.jivesoftware.openfire.plugin.rest.controller.EventsController;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.xmpp.packet.JID;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Path("restapi/v1/events")
+@Tag(name = "Events", description = "Receiving events as they occur.")
+public class EventService {
+
+    @GET
+    @Operation( summary = "Subscribe to events",
+        description = "Opens a Server-Sent Events stream that pushes session, presence, multi-user chat, user and group events as they occur. Each event carries a JSON representation of the event. When the client does not keep up, events are dropped (announced by a 'dropped' event) or the stream is closed, depending on server configuration.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The event stream.", content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS, schema = @Schema(implementation = EventEntity.class))),
+            @ApiResponse(responseCode = "400", description = "A provided parameter value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "The maximum amount of subscribers has been reached.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void getEvents(
+            @Parameter(description = "Comma-separated list of topics to receive events for. Any of: 'sessions', 'presence', 'muc', 'users', 'groups'. All topics when omitted.", example = "sessions,muc", required = false) @QueryParam("topics") String topics,
+            @Parameter(description = "Only receive 'muc' events for this chat room (a room name, or the bare JID of the room).", example = "lobby", required = false) @QueryParam("room") String room,
+            @Parameter(description = "The name of the MUC service of the room (when 'room' is a room name).", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
+            @Context SseEventSink sink,
+            @Context Sse sse)
+        throws ServiceException
+    {
+        final Set<String> requestedTopics = new LinkedHashSet<>();
+        if (topics == null || topics.trim().isEmpty()) {
+            requestedTopics.addAll(EventsController.TOPICS);
+        } else {
+            for (final String topic : topics.split(",")) {
+                final String value = topic.trim().toLowerCase();
+                if (!EventsController.TOPICS.contains(value)) {
+                    throw new ServiceException("Invalid 'topics' value: " + topic, "events", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+                }
+                requestedTopics.add(value);
+            }
+        }
+
+        String roomJID = null;
+        if (room != null && !room.trim().isEmpty()) {
+            try {
+                roomJID = room.contains("@")
+                    ? new JID(room).toBareJID()
+                    : new JID(JID.nodeprep(room), serviceName + "." + XMPPServer.getInstance().getServerInfo().getXMPPDomain(), null).toBareJID();
+            } catch (IllegalArgumentException e) {
+                throw new ServiceException("Invalid 'room' value: " + room, "events", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST, e);
+            }
+        }
+
+        EventsController.getInstance().subscribe(sink, sse, requestedTopics, roomJID);
+    }
+}
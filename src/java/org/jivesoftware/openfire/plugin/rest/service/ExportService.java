@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.controller.UserExportController;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+
+@Path("restapi/v1/export")
+@Tag(name = "Export", description = "Exporting data in bulk.")
+public class ExportService {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /** Writes one user per line. The entity stream is closed by Jersey. */
+    private static final ObjectWriter USER_WRITER = CustomJacksonMapperProvider.createObjectMapper(new JsonFactory())
+        .writerFor(UserExportEntity.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private UserExportController exportController;
+
+    @PostConstruct
+    public void init() {
+        exportController = UserExportController.getInstance();
+    }
+
+    @GET
+    @Path("/users")
+    @Operation( summary = "Export users",
+        description = "Export all users as newline-delimited JSON: one line per user, ordered by username, including the properties of the user, the names of the groups that the user is in, and the items on the roster of the user. When an export is interrupted, it can be resumed by requesting the users after the username on the last complete line.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The users, one per line.", content = @Content(mediaType = APPLICATION_NDJSON, schema = @Schema(implementation = UserExportEntity.class)))
+        })
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput exportUsers(
+            @Parameter(description = "Export the users with a username that sorts after this username. Omit to start at the first user.", example = "john", required = false) @QueryParam("after") String after,
+            @Parameter(description = "Include the vCard of each user, as XML.", example = "false", required = false) @DefaultValue("false") @QueryParam("vcard") boolean vcard)
+    {
+        final String cursor = after == null || after.isEmpty() ? null : after;
+        return out -> {
+            try {
+                exportController.exportUsers(cursor, vcard, window -> {
+                    for (final UserExportEntity user : window) {
+                        USER_WRITER.writeValue(out, user);
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (ServiceException e) {
+                // The response has likely been committed. Abort it, so that the client notices the export is incomplete.
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+    }
+}
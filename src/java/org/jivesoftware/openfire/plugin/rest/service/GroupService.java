@@ -23,14 +23,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
 import org.jivesoftware.openfire.plugin.rest.controller.GroupController;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
 import org.jivesoftware.openfire.plugin.rest.entity.GroupEntities;
 import org.jivesoftware.openfire.plugin.rest.entity.GroupEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntity;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 
 import javax.annotation.PostConstruct;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 @Path("restapi/v1/groups")
@@ -45,6 +52,7 @@ public class GroupService {
     }
 
     @GET
+    @Coalesced
     @Operation( summary = "Get groups",
                 description = "Get a list of all user groups.",
                 responses = {
@@ -79,13 +87,16 @@ public class GroupService {
         description = "Get one specific user group by name.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The group.", content = @Content(schema = @Schema(implementation = GroupEntity.class))),
+            @ApiResponse(responseCode = "304", description = "The group did not change since the version identified by the 'If-None-Match' header."),
             @ApiResponse(responseCode = "404", description = "Group with this name not found.")
         })
     @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
-    public GroupEntity getGroup(@Parameter(description = "The name of the group that needs to be fetched.", example = "Colleagues", required = true) @PathParam("groupName") String groupName)
+    public Response getGroup(@Parameter(description = "The name of the group that needs to be fetched.", example = "Colleagues", required = true) @PathParam("groupName") String groupName,
+                             @Context Request request)
         throws ServiceException
     {
-        return groupController.getGroup(groupName);
+        final EntityTag tag = EntityTagController.getInstance().checkGroup(request, groupName);
+        return Response.ok(groupController.getGroup(groupName)).tag(tag).build();
     }
 
     @PUT
@@ -94,14 +105,23 @@ public class GroupService {
         description = "Updates / overwrites an existing user group. Note that the name of the group cannot be changed.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Group updated."),
+            @ApiResponse(responseCode = "202", description = "The group is being updated in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
             @ApiResponse(responseCode = "400", description = "Group or group name missing, or name does not match existing group, or invalid syntax for a property."),
             @ApiResponse(responseCode = "404", description = "Group with this name not found."),
         })
     @Consumes({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
     public Response updateGroup(@Parameter(description = "The name of the group that needs to be fetched.", example = "Colleagues", required = true) @PathParam("groupName") String groupName,
+                                @Parameter(description = "Whether to update the group in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
                                 @RequestBody(description = "The new group definition that needs to overwrite the old definition.", required = true) GroupEntity groupEntity )
         throws ServiceException
     {
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("groups.update", progress -> {
+                progress.setTotal(1);
+                groupController.updateGroup(groupName, groupEntity);
+                progress.completed(null);
+            }));
+        }
         groupController.updateGroup(groupName, groupEntity);
         return Response.status(Response.Status.OK).build();
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.controller.UserImportController;
+import org.jivesoftware.openfire.plugin.rest.entity.ImportResultEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserExportEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.jivesoftware.openfire.plugin.rest.service.ExportService.APPLICATION_NDJSON;
+
+@Path("restapi/v1/import")
+@Tag(name = "Import", description = "Importing data in bulk.")
+public class ImportService {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    /** Writes one result per line. The entity stream is closed by Jersey. */
+    private static final ObjectWriter RESULT_WRITER = CustomJacksonMapperProvider.createObjectMapper(new JsonFactory())
+        .writerFor(ImportResultEntity.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private UserImportController importController;
+
+    @PostConstruct
+    public void init() {
+        importController = UserImportController.getInstance();
+    }
+
+    @POST
+    @Path("/users")
+    @Operation( summary = "Import users",
+        description = "Create users from newline-delimited JSON (one user per line, in the format of a user export, with a password) or from comma-separated values (with a header that names the columns: 'username', 'password', 'name', 'email', 'groups', and any other column as a property). The request body is processed while it is being received. The response holds one result per line, and is written while the users are being imported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The result of each line, one per line.", content = @Content(mediaType = APPLICATION_NDJSON, schema = @Schema(implementation = ImportResultEntity.class)))
+        })
+    @Consumes({APPLICATION_NDJSON, TEXT_CSV})
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput importUsers(
+            @Context HttpHeaders headers,
+            @RequestBody(description = "The users to create.", required = true, content = {
+                @Content(mediaType = APPLICATION_NDJSON, schema = @Schema(implementation = UserExportEntity.class)),
+                @Content(mediaType = TEXT_CSV)
+            }) InputStream body)
+        throws ServiceException
+    {
+        final MediaType mediaType = headers.getMediaType();
+        final boolean csv = mediaType != null && "csv".equalsIgnoreCase(mediaType.getSubtype());
+        final String charsetName = mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+        final Charset charset;
+        try {
+            charset = charsetName == null ? StandardCharsets.UTF_8 : Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("Unsupported character set: " + charsetName, "users", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST, e);
+        }
+        final UserImportController.LineParser parser = csv ? UserImportController.csvParser() : UserImportController.jsonParser();
+
+        return out -> {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+            try {
+                importController.importUsers(reader, parser, results -> {
+                    for (final ImportResultEntity result : results) {
+                        RESULT_WRITER.writeValue(out, result);
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (ServiceException e) {
+                // The response has likely been committed. Abort it, so that the client notices the import is incomplete.
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+    }
+}
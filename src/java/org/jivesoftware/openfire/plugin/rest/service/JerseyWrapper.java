@@ -16,10 +16,17 @@
 
 package org.jivesoftware.openfire.plugin.rest.service;
 
+import org.glassfish.jersey.media.sse.SseFeature;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.jivesoftware.openfire.plugin.rest.AuthFilter;
+import org.jivesoftware.openfire.plugin.rest.BinaryFormatFilter;
+import org.jivesoftware.openfire.plugin.rest.BinaryJacksonProvider;
 import org.jivesoftware.openfire.plugin.rest.CORSFilter;
+import org.jivesoftware.openfire.plugin.rest.CompressionFilter;
 import org.jivesoftware.openfire.plugin.rest.CustomJacksonMapperProvider;
+import org.jivesoftware.openfire.plugin.rest.FragmentedListWriter;
+import org.jivesoftware.openfire.plugin.rest.PooledJaxbProvider;
+import org.jivesoftware.openfire.plugin.rest.RequestCoalescingFilter;
 import org.jivesoftware.openfire.plugin.rest.StatisticsFilter;
 import org.jivesoftware.openfire.plugin.rest.exceptions.RESTExceptionMapper;
 import org.jivesoftware.util.JiveGlobals;
@@ -97,16 +104,25 @@ public class JerseyWrapper extends ResourceConfig {
         loadAuthenticationFilter();
         register(CORSFilter.class);
         register(StatisticsFilter.class);
+        register(RequestCoalescingFilter.class);
+        register(CompressionFilter.class);
+        register(BinaryFormatFilter.class);
 
         // Services
         registerClasses(
+            ChangeService.class,
             ClusteringService.class,
+            EventService.class,
+            ExportService.class,
             GroupService.class,
+            ImportService.class,
+            JobService.class,
             MessageService.class,
             MsgArchiveService.class,
             MUCRoomAffiliationsService.class,
             MUCRoomService.class,
             MUCServiceService.class,
+            QueryService.class,
             SystemService.class,
             SecurityAuditLogService.class,
             SessionService.class,
@@ -116,15 +132,31 @@ public class JerseyWrapper extends ResourceConfig {
             UserRosterService.class,
             UserService.class,
             UserServiceLegacy.class,
-            UserVCardService.class
+            UserVCardService.class,
+            WebhookService.class
         );
 
+        // Server-Sent Events
+        register(SseFeature.class);
+
         // Exception mapper
         register(RESTExceptionMapper.class);
 
         // Jackson's Object Mapper
         register(CustomJacksonMapperProvider.class);
 
+        // Binary data formats (CBOR and Smile)
+        register(BinaryJacksonProvider.Cbor.class);
+        register(BinaryJacksonProvider.Smile.class);
+
+        // XML, written with pooled marshallers
+        register(PooledJaxbProvider.class);
+
+        // Lists of users, groups and chat rooms, written from cached fragments
+        register(FragmentedListWriter.Users.class);
+        register(FragmentedListWriter.Groups.class);
+        register(FragmentedListWriter.ChatRooms.class);
+
         // Documentation (Swagger)
         register( new CustomOpenApiResource() );
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+
+@Path(JobService.PATH)
+@Tag(name = "Jobs", description = "Following operations that are executed in the background.")
+public class JobService {
+
+    public static final String PATH = "restapi/v1/jobs";
+
+    private JobsController jobsController;
+
+    @PostConstruct
+    public void init() {
+        jobsController = JobsController.getInstance();
+    }
+
+    /**
+     * Creates the response to a request for an operation that was submitted as a job.
+     *
+     * @param job the job that executes the operation
+     * @return a response with status 202 (Accepted), that refers to the job
+     */
+    @Nonnull
+    public static Response accepted(@Nonnull final JobEntity job) {
+        return Response.status(Response.Status.ACCEPTED)
+            .location(URI.create(PATH + "/" + job.getId()))
+            .entity(job)
+            .build();
+    }
+
+    @GET
+    @Operation( summary = "Get all jobs",
+        description = "Get the jobs that are queued, running, or that finished recently. The results of the jobs are not included.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "All jobs", content = @Content(schema = @Schema(implementation = JobEntities.class)))
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public JobEntities getJobs()
+    {
+        return jobsController.getJobs();
+    }
+
+    @GET
+    @Path("/{id}")
+    @Operation( summary = "Get job",
+        description = "Get the progress, the (partial) results and the outcome of a job.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The job", content = @Content(schema = @Schema(implementation = JobEntity.class))),
+            @ApiResponse(responseCode = "404", description = "The job does not exist, or finished too long ago.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public JobEntity getJob(@Parameter(description = "The identifier of the job", required = true) @PathParam("id") String id)
+        throws ServiceException
+    {
+        return jobsController.getJob(id);
+    }
+
+    @DELETE
+    @Path("/{id}")
+    @Operation( summary = "Cancel job",
+        description = "Cancel a job. A job that is queued does not start. A job that is running stops before its next item; items that it already processed are not reverted.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The job", content = @Content(schema = @Schema(implementation = JobEntity.class))),
+            @ApiResponse(responseCode = "404", description = "The job does not exist, or finished too long ago.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public JobEntity cancelJob(@Parameter(description = "The identifier of the job", required = true) @PathParam("id") String id)
+        throws ServiceException
+    {
+        return jobsController.cancel(id);
+    }
+}
@@ -97,7 +97,7 @@ public class MUCRoomAffiliationsService
     @Operation( summary = "Replace room affiliations",
         description = "Replaces the list of users in a multi-user chat room with a specific affiliation with a new list of users. Note that a user can only have one type of affiliation with a room. By affiliating a user to a room, any other pre-existing affiliation for that user is removed.",
         responses = {
-            @ApiResponse(responseCode = "201", description = "Affiliations of the room have been replaced."),
+            @ApiResponse(responseCode = "201", description = "Affiliations of the room have been replaced. The response describes the applied changes.", content = @Content(schema = @Schema(implementation = AffiliationChangeResultEntity.class))),
             @ApiResponse(responseCode = "400", description = "Provided values cannot be parsed as JIDs, or provided 'affiliations' value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not allowed to perform this affiliation change.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -120,8 +120,8 @@ public class MUCRoomAffiliationsService
         } catch (RuntimeException e) {
             throw new ServiceException("Invalid 'affiliations' value: " + affiliations, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
         }
-        MUCRoomController.getInstance().replaceAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, affiliatedEntities.asUserReferences());
-        return Response.status(Status.CREATED).build();
+        final AffiliationChangeResultEntity result = MUCRoomController.getInstance().replaceAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, affiliatedEntities.asUserReferences());
+        return Response.status(Status.CREATED).entity(result).build();
     }
 
     @POST
@@ -129,7 +129,7 @@ public class MUCRoomAffiliationsService
     @Operation( summary = "Add room affiliations",
         description = "Affiliatione multiple users to a particular multi-user chat room (without removing existing affiliated users of that type). Note that a user can only have one type of affiliation with a room. By affiliating a user to a room, any other pre-existing affiliation for that user is removed.",
         responses = {
-            @ApiResponse(responseCode = "201", description = "Users have been affiliated to the room."),
+            @ApiResponse(responseCode = "201", description = "Users have been affiliated to the room. The response describes the applied changes.", content = @Content(schema = @Schema(implementation = AffiliationChangeResultEntity.class))),
             @ApiResponse(responseCode = "400", description = "Provided values cannot be parsed as JIDs, or provided 'affiliations' value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not allowed to perform this affiliation change.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -152,8 +152,8 @@ public class MUCRoomAffiliationsService
         } catch (RuntimeException e) {
             throw new ServiceException("Invalid 'affiliations' value: " + affiliations, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
         }
-        MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, affiliatedEntities.asUserReferences());
-        return Response.status(Status.CREATED).build();
+        final AffiliationChangeResultEntity result = MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, affiliatedEntities.asUserReferences());
+        return Response.status(Status.CREATED).entity(result).build();
     }
 
     @POST
@@ -161,7 +161,7 @@ public class MUCRoomAffiliationsService
     @Operation( summary = "Add room affiliation",
         description = "Affiliates a single use to a multi-user chat room. Note that a user can only have one type of affiliation with a room. By affiliating a user to a room, any other pre-existing affiliation for that user is removed.",
         responses = {
-            @ApiResponse(responseCode = "201", description = "User to affiliate to the room."),
+            @ApiResponse(responseCode = "201", description = "User to affiliate to the room. The response describes the applied changes.", content = @Content(schema = @Schema(implementation = AffiliationChangeResultEntity.class))),
             @ApiResponse(responseCode = "400", description = "Provided 'affiliations' value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not allowed to perform this affiliation change.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -183,8 +183,8 @@ public class MUCRoomAffiliationsService
         } catch (RuntimeException e) {
             throw new ServiceException("Invalid 'affiliations' value: " + affiliations, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
         }
-        MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, jid);
-        return Response.status(Status.CREATED).build();
+        final AffiliationChangeResultEntity result = MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, jid);
+        return Response.status(Status.CREATED).entity(result).build();
     }
 
     @POST
@@ -192,7 +192,7 @@ public class MUCRoomAffiliationsService
     @Operation( summary = "Add room affiliations",
         description = "Affiliate all members of an Openfire user group to a multi-user chat room. Note that a user can only have one type of affiliation with a room. By affiliating a user to a room, any other pre-existing affiliation for that user is removed.",
         responses = {
-            @ApiResponse(responseCode = "201", description = "Affiliations added to the room."),
+            @ApiResponse(responseCode = "201", description = "Affiliations added to the room. The response describes the applied changes.", content = @Content(schema = @Schema(implementation = AffiliationChangeResultEntity.class))),
             @ApiResponse(responseCode = "400", description = "Provided 'affiliations' value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not allowed to perform this affiliation change.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -214,8 +214,8 @@ public class MUCRoomAffiliationsService
         } catch (RuntimeException e) {
             throw new ServiceException("Invalid 'affiliations' value: " + affiliations, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
         }
-        MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, groupname);
-        return Response.status(Status.CREATED).build();
+        final AffiliationChangeResultEntity result = MUCRoomController.getInstance().addAffiliatedUsers(serviceName, roomName, affiliation, sendInvitations, groupname);
+        return Response.status(Status.CREATED).entity(result).build();
     }
 
     @DELETE
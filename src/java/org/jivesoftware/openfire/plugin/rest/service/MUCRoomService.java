@@ -24,39 +24,59 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.muc.Affiliation;
+import org.jivesoftware.openfire.muc.Role;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
 import org.jivesoftware.openfire.plugin.rest.controller.MUCRoomController;
+import org.jivesoftware.openfire.plugin.rest.dao.HistoryCursor;
 import org.jivesoftware.openfire.plugin.rest.entity.*;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.jivesoftware.openfire.plugin.rest.utils.MUCRoomUtils;
+import org.jivesoftware.util.XMPPDateTimeFormat;
 import org.xmpp.packet.JID;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
 
 @Path("restapi/v1/chatrooms")
 @Tag(name = "Chat room", description = "Managing Multi-User chat rooms.")
 public class MUCRoomService {
 
     @GET
+    @Coalesced
     @Operation( summary = "Get chat rooms",
         description = "Get a list of all multi-user chat rooms of a particular chat room service.",
         responses = {
             @ApiResponse(responseCode = "200", description = "All chat rooms", content = @Content(schema = @Schema(implementation = MUCRoomEntities.class))),
+            @ApiResponse(responseCode = "304", description = "The chat rooms did not change since the version identified by the 'If-None-Match' header."),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "MUC service does not exist or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
         })
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public MUCRoomEntities getMUCRooms(
+    public Response getMUCRooms(
             @Parameter(description = "The name of the MUC service for which to return all chat rooms.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
             @Parameter(description = "Room type-based filter: 'all' or 'public'", examples = { @ExampleObject(value = "public", description = "Only return rooms configured with 'List Room in Directory'"), @ExampleObject(value = "all", description = "Return all rooms")}, required = false) @DefaultValue(MUCChannelType.PUBLIC) @QueryParam("type") String channelType,
             @Parameter(description = "Search/Filter by room name.\nThis act like the wildcard search %String%", example = "conference", required = false) @QueryParam("search") String roomSearch,
-            @Parameter(description = "For all groups defined in owners, admins, members and outcasts, list individual members instead of the group name.", required = false) @DefaultValue("false") @QueryParam("expandGroups") Boolean expand)
+            @Parameter(description = "For all groups defined in owners, admins, members and outcasts, list individual members instead of the group name.", required = false) @DefaultValue("false") @QueryParam("expandGroups") Boolean expand,
+            @Context Request request)
         throws ServiceException
     {
-        return MUCRoomController.getInstance().getChatRooms(serviceName, channelType, roomSearch, expand);
+        final MUCRoomEntities rooms = MUCRoomController.getInstance().getChatRooms(serviceName, channelType, roomSearch, expand);
+        final EntityTag tag = EntityTagController.getInstance().checkContent(request, rooms);
+        return Response.ok(rooms).tag(tag).build();
     }
 
     @GET
@@ -128,19 +148,34 @@ public class MUCRoomService {
         description = "Create a number of new multi-user chat rooms.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Request has been processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = RoomCreationResultEntities.class))),
+            @ApiResponse(responseCode = "202", description = "The rooms are being created in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "MUC Service does not exist or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
         })
     @Consumes({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
-    public RoomCreationResultEntities createMUCRooms(
+    public Response createMUCRooms(
         @Parameter(description = "The name of the MUC service in which to create a chat room.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
         @Parameter(description = "Whether to send invitations to newly affiliated users.", example = "true", required = false) @DefaultValue("false") @QueryParam("sendInvitations") boolean sendInvitations,
+        @Parameter(description = "Whether to create the rooms in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
         @RequestBody(description = "The MUC rooms that need to be created.", required = true) MUCRoomEntities mucRoomEntities)
         throws ServiceException
     {
-        return MUCRoomController.getInstance().createMultipleChatRooms(serviceName, mucRoomEntities, sendInvitations);
+        if (!async) {
+            return Response.ok(MUCRoomController.getInstance().createMultipleChatRooms(serviceName, mucRoomEntities, sendInvitations)).build();
+        }
+        final List<MUCRoomEntity> rooms = mucRoomEntities.getMucRooms() == null ? List.of() : mucRoomEntities.getMucRooms();
+        return JobService.accepted(JobsController.getInstance().submit("chatrooms.bulk-create", progress -> {
+            progress.setTotal(rooms.size());
+            for (final MUCRoomEntity room : rooms) {
+                if (progress.isCancelled()) {
+                    return;
+                }
+                final RoomCreationResultEntity result = MUCRoomController.getInstance().createChatRoomWithResult(serviceName, room, sendInvitations);
+                progress.completed(new JobResultEntity(result.getRoomName(), result.getResultType().name(), result.getMessage()));
+            }
+        }));
     }
 
     @PUT
@@ -171,9 +206,10 @@ public class MUCRoomService {
     @GET
     @Path("/{roomName}/participants")
     @Operation( summary = "Get room participants",
-        description = "Get all participants of a specific multi-user chat room.",
+        description = "Get all participants of a specific multi-user chat room. Participants can be filtered by role and affiliation, and can be paged. Alternatively, only the amount of (matching) participants can be requested.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The chat room participants", content = @Content(schema = @Schema(implementation = ParticipantEntities.class))),
+            @ApiResponse(responseCode = "400", description = "A provided parameter value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "The chat room (or its service) can not be found or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
@@ -181,19 +217,29 @@ public class MUCRoomService {
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
     public ParticipantEntities getMUCRoomParticipants(
             @Parameter(description = "The name of the chat room for which to return participants", example = "lobby", required = true) @PathParam("roomName") String roomName,
-            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName)
+            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
+            @Parameter(description = "Only return participants with this role. One of: 'moderator', 'participant', 'visitor'.", example = "moderator", required = false) @QueryParam("role") String role,
+            @Parameter(description = "Only return participants with this affiliation. One of: 'owner', 'admin', 'member', 'outcast', 'none'.", example = "member", required = false) @QueryParam("affiliation") String affiliation,
+            @Parameter(description = "Number of (matching) participants to skip.", example = "0", required = false) @QueryParam("offset") int offset,
+            @Parameter(description = "Maximum number of participants to return.", example = "100", required = false) @QueryParam("limit") Integer limit,
+            @Parameter(description = "Only return the amount of (matching) participants.", example = "true", required = false) @DefaultValue("false") @QueryParam("count") boolean countOnly)
         throws ServiceException
     {
         roomName = JID.nodeprep(roomName);
-        return MUCRoomController.getInstance().getRoomParticipants(roomName, serviceName);
+        if (role == null && affiliation == null && offset == 0 && limit == null && !countOnly) {
+            return MUCRoomController.getInstance().getRoomParticipants(roomName, serviceName);
+        }
+        validatePaging(offset, limit, roomName);
+        return MUCRoomController.getInstance().getRoomParticipants(roomName, serviceName, parseRole(role, roomName), parseAffiliation(affiliation, roomName), offset, limit, countOnly);
     }
 
     @GET
     @Path("/{roomName}/occupants")
     @Operation( summary = "Get room occupants",
-        description = "Get all occupants of a specific multi-user chat room.",
+        description = "Get all occupants of a specific multi-user chat room. Occupants can be filtered by role and affiliation, and can be paged. Alternatively, only the amount of (matching) occupants can be requested.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The chat room participants", content = @Content(schema = @Schema(implementation = OccupantEntities.class))),
+            @ApiResponse(responseCode = "400", description = "A provided parameter value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "The chat room (or its service) can not be found or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
@@ -201,19 +247,29 @@ public class MUCRoomService {
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
     public OccupantEntities getMUCRoomOccupants(
             @Parameter(description = "The name of the chat room for which to return occupants", example = "lobby", required = true) @PathParam("roomName") String roomName,
-            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName)
+            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
+            @Parameter(description = "Only return occupants with this role. One of: 'moderator', 'participant', 'visitor'.", example = "moderator", required = false) @QueryParam("role") String role,
+            @Parameter(description = "Only return occupants with this affiliation. One of: 'owner', 'admin', 'member', 'outcast', 'none'.", example = "member", required = false) @QueryParam("affiliation") String affiliation,
+            @Parameter(description = "Number of (matching) occupants to skip.", example = "0", required = false) @QueryParam("offset") int offset,
+            @Parameter(description = "Maximum number of occupants to return.", example = "100", required = false) @QueryParam("limit") Integer limit,
+            @Parameter(description = "Only return the amount of (matching) occupants.", example = "true", required = false) @DefaultValue("false") @QueryParam("count") boolean countOnly)
         throws ServiceException
     {
         roomName = JID.nodeprep(roomName);
-        return MUCRoomController.getInstance().getRoomOccupants(roomName, serviceName);
+        if (role == null && affiliation == null && offset == 0 && limit == null && !countOnly) {
+            return MUCRoomController.getInstance().getRoomOccupants(roomName, serviceName);
+        }
+        validatePaging(offset, limit, roomName);
+        return MUCRoomController.getInstance().getRoomOccupants(roomName, serviceName, parseRole(role, roomName), parseAffiliation(affiliation, roomName), offset, limit, countOnly);
     }
 
     @GET
     @Path("/{roomName}/chathistory")
     @Operation( summary = "Get room history",
-        description = "Get messages that have been exchanged in a specific multi-user chat room.",
+        description = "Get messages that have been exchanged in a specific multi-user chat room, in chronological order. By default, the (limited) in-memory history of the room is returned. Older messages can be retrieved from the database, which is paged.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The chat room message history", content = @Content(schema = @Schema(implementation = MUCRoomMessageEntities.class))),
+            @ApiResponse(responseCode = "400", description = "A provided parameter value is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "The chat room (or its service) can not be found or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
@@ -221,11 +277,74 @@ public class MUCRoomService {
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
     public MUCRoomMessageEntities getMUCRoomHistory(
             @Parameter(description = "The name of the chat room for which to return message history", example = "lobby", required = true) @PathParam("roomName") String roomName,
-            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName)
+            @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
+            @Parameter(description = "Where to read the history from. One of: 'memory', 'database'.", example = "database", required = false) @DefaultValue("memory") @QueryParam("source") String source,
+            @Parameter(description = "The maximum amount of messages to return. When reading from the database, this is capped by a server-configured maximum.", example = "100", required = false) @QueryParam("limit") Integer limit,
+            @Parameter(description = "Only return messages sent at or after this moment (XEP-0082 format).", example = "2025-01-01T00:00:00Z", required = false) @QueryParam("since") String since,
+            @Parameter(description = "Only return messages sent before this moment (XEP-0082 format).", example = "2025-02-01T00:00:00Z", required = false) @QueryParam("before") String before,
+            @Parameter(description = "Only return messages after this position. Use the 'nextCursor' value of a previous response, obtained from the same source.", example = "1735689600000-42", required = false) @QueryParam("after") String after)
         throws ServiceException
     {
         roomName = JID.nodeprep(roomName);
-        return MUCRoomController.getInstance().getRoomHistory(roomName, serviceName);
+        if (source == null || source.isEmpty() || "memory".equalsIgnoreCase(source)) {
+            if (limit == null && since == null && before == null && after == null) {
+                return MUCRoomController.getInstance().getRoomHistory(roomName, serviceName);
+            }
+        } else if (!"database".equalsIgnoreCase(source)) {
+            throw new ServiceException("Invalid 'source' value: " + source, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
+        }
+        if (limit != null && limit < 1) {
+            throw new ServiceException("Invalid 'limit' value (must be a positive number): " + limit, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
+        }
+        final HistoryCursor cursor;
+        try {
+            cursor = after == null || after.isEmpty() ? null : HistoryCursor.parse(after);
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("Invalid 'after' value: " + after, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST, e);
+        }
+        return MUCRoomController.getInstance().getRoomHistory(roomName, serviceName, "database".equalsIgnoreCase(source), parseTimestamp("since", since, roomName), parseTimestamp("before", before, roomName), cursor, limit);
+    }
+
+    private static void validatePaging(int offset, Integer limit, String roomName) throws ServiceException {
+        if (offset < 0) {
+            throw new ServiceException("Invalid 'offset' value (must not be negative): " + offset, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
+        }
+        if (limit != null && limit < 0) {
+            throw new ServiceException("Invalid 'limit' value (must not be negative): " + limit, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST);
+        }
+    }
+
+    private static Role parseRole(String value, String roomName) throws ServiceException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Role.valueOf(value.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("Invalid 'role' value: " + value, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST, e);
+        }
+    }
+
+    private static Affiliation parseAffiliation(String value, String roomName) throws ServiceException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return MUCRoomUtils.convertPluralStringToAffiliation(value.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("Invalid 'affiliation' value: " + value, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST, e);
+        }
+    }
+
+    private static Date parseTimestamp(String name, String value, String roomName) throws ServiceException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return XMPPDateTimeFormat.parseString(value);
+        } catch (ParseException e) {
+            throw new ServiceException("Invalid '" + name + "' value: " + value, roomName, ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Status.BAD_REQUEST, e);
+        }
     }
 
     @POST
@@ -263,6 +382,7 @@ public class MUCRoomService {
         description = "Invites a collection of users and/or groups to join a specific multi-user chat room.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Invitation sent"),
+            @ApiResponse(responseCode = "202", description = "The invitations are being sent in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not allowed to invite a user or group to this room.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "The chat room (or its service) can not be found or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -272,11 +392,19 @@ public class MUCRoomService {
     public Response inviteUsersAndOrGroupsToMUCRoom(
         @Parameter(description = "The name of the chat room in which to invite a user or group", example = "lobby", required = true) @PathParam("roomName") String roomName,
         @Parameter(description = "The name of the chat room's MUC service.", example = "conference", required = false) @DefaultValue("conference") @QueryParam("servicename") String serviceName,
+        @Parameter(description = "Whether to send the invitations in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
         @RequestBody(description = "The invitation message to send and whom to send it to.", required = true) MUCInvitationsEntity mucInvitationsEntity)
         throws ServiceException
     {
-        roomName = JID.nodeprep(roomName);
-        MUCRoomController.getInstance().inviteUsersAndOrGroups(serviceName, roomName, mucInvitationsEntity);
+        final String room = JID.nodeprep(roomName);
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("chatrooms.invite", progress -> {
+                progress.setTotal(1);
+                MUCRoomController.getInstance().inviteUsersAndOrGroups(serviceName, room, mucInvitationsEntity);
+                progress.completed(null);
+            }));
+        }
+        MUCRoomController.getInstance().inviteUsersAndOrGroups(serviceName, room, mucInvitationsEntity);
         return Response.status(Status.OK).build();
     }
 
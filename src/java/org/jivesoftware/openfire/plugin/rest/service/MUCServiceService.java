@@ -17,19 +17,27 @@
 package org.jivesoftware.openfire.plugin.rest.service;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
+import org.jivesoftware.openfire.plugin.rest.controller.MUCRoomController;
 import org.jivesoftware.openfire.plugin.rest.controller.MUCServiceController;
 import org.jivesoftware.openfire.plugin.rest.entity.MUCServiceEntities;
 import org.jivesoftware.openfire.plugin.rest.entity.MUCServiceEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.RoomOccupancyEntities;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -38,17 +46,21 @@ import javax.ws.rs.core.Response.Status;
 public class MUCServiceService {
 
     @GET
+    @Coalesced
     @Operation( summary = "Get chat services",
         description = "Get a list of all multi-user chat services.",
         responses = {
             @ApiResponse(responseCode = "200", description = "All chat services", content = @Content(schema = @Schema(implementation = MUCServiceEntities.class))),
+            @ApiResponse(responseCode = "304", description = "The chat services did not change since the version identified by the 'If-None-Match' header."),
             @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
         })
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public MUCServiceEntities getMUCServices()
+    public Response getMUCServices(@Context Request request)
     {
-        return MUCServiceController.getInstance().getChatServices();
+        final MUCServiceEntities services = MUCServiceController.getInstance().getChatServices();
+        final EntityTag tag = EntityTagController.getInstance().checkContent(request, services);
+        return Response.ok(services).tag(tag).build();
     }
 
     @POST
@@ -69,4 +81,24 @@ public class MUCServiceService {
         MUCServiceController.getInstance().createChatService(mucServiceEntity);
         return Response.status(Status.CREATED).build();
     }
+
+    @GET
+    @Coalesced
+    @Path("/{serviceName}/occupancy")
+    @Operation( summary = "Get occupancy of chat rooms",
+        description = "Get the amount of occupants of each active multi-user chat room of a particular chat service.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The amount of occupants per room", content = @Content(schema = @Schema(implementation = RoomOccupancyEntities.class))),
+            @ApiResponse(responseCode = "401", description = "Web service authentication failed.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "MUC service does not exist or is not accessible.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Unexpected, generic error condition.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public RoomOccupancyEntities getMUCServiceOccupancy(
+            @Parameter(description = "The name of the MUC service.", example = "conference", required = true) @PathParam("serviceName") String serviceName,
+            @Parameter(description = "Whether to include rooms that have no occupants.", example = "false", required = false) @DefaultValue("false") @QueryParam("includeEmpty") boolean includeEmpty)
+        throws ServiceException
+    {
+        return MUCRoomController.getInstance().getOccupancySummary(serviceName, includeEmpty);
+    }
 }
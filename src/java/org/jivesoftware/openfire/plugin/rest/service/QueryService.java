@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.controller.UserQueryController;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryResultEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ErrorResponse;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("restapi/v1/query")
+@Tag(name = "Query", description = "Finding entities that meet a combination of conditions.")
+public class QueryService {
+
+    private UserQueryController queryController;
+
+    @PostConstruct
+    public void init() {
+        queryController = UserQueryController.getInstance();
+    }
+
+    @POST
+    @Path("/users")
+    @Operation( summary = "Query users",
+        description = "Find the users that meet all provided conditions: on their properties (a value that equals or starts with a string, or just the presence of a property), their creation date, and (parts of) their name and email address. The users are returned with their properties, ordered by username, a page at a time. To obtain the next page, repeat the query with the 'next' value of the response as 'after'.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "A page of matching users.", content = @Content(schema = @Schema(implementation = UserQueryResultEntity.class))),
+            @ApiResponse(responseCode = "400", description = "The query is invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public UserQueryResultEntity queryUsers(
+            @RequestBody(description = "The conditions that the users must meet.", required = true) UserQueryEntity query)
+        throws ServiceException
+    {
+        if (query == null) {
+            throw new ServiceException("Missing query", "users", ExceptionType.ILLEGAL_ARGUMENT_EXCEPTION, Response.Status.BAD_REQUEST);
+        }
+        return queryController.query(query);
+    }
+}
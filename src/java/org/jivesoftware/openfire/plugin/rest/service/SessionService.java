@@ -22,6 +22,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
 import org.jivesoftware.openfire.plugin.rest.controller.SessionController;
 import org.jivesoftware.openfire.plugin.rest.entity.SessionEntities;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
@@ -43,6 +44,7 @@ public class SessionService {
     }
 
     @GET
+    @Coalesced
     @Operation( summary = "Get all sessions",
         description = "Retrieve all live client sessions.",
         responses = {
@@ -23,6 +23,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
 import org.jivesoftware.openfire.plugin.rest.controller.SystemController;
 import org.jivesoftware.openfire.plugin.rest.entity.SystemProperties;
 import org.jivesoftware.openfire.plugin.rest.entity.SystemProperty;
@@ -30,7 +32,10 @@ import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 import org.jivesoftware.openfire.spi.ConnectionType;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 @Path("restapi/v1/system")
@@ -38,15 +43,18 @@ import javax.ws.rs.core.Response;
 public class SystemService {
 
     @GET
+    @Coalesced
     @Path("/properties")
     @Operation( summary = "Get system properties",
         description = "Get all Openfire system properties.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The system properties.", content = @Content(schema = @Schema(implementation = SystemProperties.class))),
+            @ApiResponse(responseCode = "304", description = "The system properties did not change since the version identified by the 'If-None-Match' header."),
         })
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public SystemProperties getSystemProperties() {
-        return SystemController.getInstance().getSystemProperties();
+    public Response getSystemProperties(@Context Request request) {
+        final EntityTag tag = EntityTagController.getInstance().checkSystemProperties(request);
+        return Response.ok(SystemController.getInstance().getSystemProperties()).tag(tag).build();
     }
 
     @GET
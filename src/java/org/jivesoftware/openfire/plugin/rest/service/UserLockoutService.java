@@ -18,17 +18,31 @@ package org.jivesoftware.openfire.plugin.rest.service;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserBulkController;
 import org.jivesoftware.openfire.plugin.rest.controller.UserServiceController;
+import org.jivesoftware.openfire.plugin.rest.entity.BulkResultEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserBulkEntity;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 
 import javax.annotation.PostConstruct;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.List;
 
 @Path("restapi/v1/lockouts")
 @Tag(name = "Users", description = "Managing Openfire users.")
@@ -72,4 +86,52 @@ public class UserLockoutService {
         plugin.enableUser(username);
         return Response.status(Response.Status.OK).build();
     }
+
+    @POST
+    @Path("/bulk/disable")
+    @Operation( summary = "Lock users out",
+        description = "Lockout / ban many users from the chat server: those with the provided usernames, or those that have a property (with a value). Users that are online are kicked, in parallel. The outcome for each user is reported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Request has been processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = BulkResultEntities.class))),
+            @ApiResponse(responseCode = "202", description = "The users are being locked out in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both usernames and a property were provided.")
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response disableUsers(
+            @Parameter(description = "Whether to lock the users out in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
+            @RequestBody(description = "The usernames of the users to lock out, or the property that they have.", required = true) UserBulkEntity bulk)
+        throws ServiceException
+    {
+        final List<String> usernames = UserBulkController.getInstance().getUsernames(bulk);
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("lockouts.bulk-disable",
+                progress -> UserBulkController.getInstance().process(UserBulkController.Operation.DISABLE, usernames, progress)));
+        }
+        return Response.ok(UserBulkController.getInstance().process(UserBulkController.Operation.DISABLE, usernames, null)).build();
+    }
+
+    @POST
+    @Path("/bulk/enable")
+    @Operation( summary = "Unlock users",
+        description = "Removes previously applied lockouts / bans of many users: those with the provided usernames, or those that have a property (with a value). The outcome for each user is reported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Request has been processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = BulkResultEntities.class))),
+            @ApiResponse(responseCode = "202", description = "The users are being unlocked in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both usernames and a property were provided.")
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response enableUsers(
+            @Parameter(description = "Whether to unlock the users in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
+            @RequestBody(description = "The usernames of the users to unlock, or the property that they have.", required = true) UserBulkEntity bulk)
+        throws ServiceException
+    {
+        final List<String> usernames = UserBulkController.getInstance().getUsernames(bulk);
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("lockouts.bulk-enable",
+                progress -> UserBulkController.getInstance().process(UserBulkController.Operation.ENABLE, usernames, progress)));
+        }
+        return Response.ok(UserBulkController.getInstance().process(UserBulkController.Operation.ENABLE, usernames, null)).build();
+    }
 }
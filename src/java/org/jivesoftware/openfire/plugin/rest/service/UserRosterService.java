@@ -24,9 +24,13 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.jivesoftware.openfire.SharedGroupException;
+import org.jivesoftware.openfire.plugin.rest.controller.RosterController;
 import org.jivesoftware.openfire.plugin.rest.controller.UserServiceController;
+import org.jivesoftware.openfire.plugin.rest.entity.BulkResultEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.DesiredRosterEntity;
 import org.jivesoftware.openfire.plugin.rest.entity.RosterEntities;
 import org.jivesoftware.openfire.plugin.rest.entity.RosterItemEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.RosterOperationsEntity;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ExceptionType;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 import org.jivesoftware.openfire.user.UserAlreadyExistsException;
@@ -94,6 +98,40 @@ public class UserRosterService {
         return Response.status(Response.Status.CREATED).build();
     }
 
+    @PATCH
+    @Operation( summary = "Change roster entries",
+        description = "Applies a list of operations to the roster (buddies / contact list) of a particular user, in order: adding, updating and deleting entries. The roster is loaded once, and each entry that changes is written and pushed to the user once, even when several operations apply to it. An operation that fails does not prevent the others from being applied; the outcome of each operation is reported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The operations were processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = BulkResultEntities.class))),
+            @ApiResponse(responseCode = "404", description = "No user of with this username exists.")
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public BulkResultEntities patchRoster(
+            @Parameter(description = "The username of the user of which to change the roster.", required = true) @PathParam("username") String username,
+            @RequestBody(description = "The operations to apply, in order.", required = true) RosterOperationsEntity operations)
+        throws ServiceException
+    {
+        return RosterController.getInstance().applyOperations(username, operations == null ? null : operations.getOperations());
+    }
+
+    @PUT
+    @Operation( summary = "Replace roster",
+        description = "Makes the roster (buddies / contact list) of a particular user equal to the provided roster, by adding, updating and deleting the entries that differ. Entries that are already equal are neither written nor pushed to the user. Entries that the user has because of shared groups are kept when absent, and the names of shared groups in the groups of an entry are ignored. Only the entries that changed, or could not be changed, are reported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The roster was processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = BulkResultEntities.class))),
+            @ApiResponse(responseCode = "404", description = "No user of with this username exists.")
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public BulkResultEntities replaceRoster(
+            @Parameter(description = "The username of the user of which to replace the roster.", required = true) @PathParam("username") String username,
+            @RequestBody(description = "The complete desired roster.", required = true) DesiredRosterEntity roster)
+        throws ServiceException
+    {
+        return RosterController.getInstance().replaceRoster(username, roster == null ? null : roster.getRoster());
+    }
+
     @DELETE
     @Path("/{rosterJid}")
     @Operation( summary = "Remove roster entry",
@@ -23,15 +23,30 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.Coalesced;
+import org.jivesoftware.openfire.plugin.rest.controller.EntityTagController;
+import org.jivesoftware.openfire.plugin.rest.controller.JobsController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserBulkController;
+import org.jivesoftware.openfire.plugin.rest.controller.UserFacetsController;
 import org.jivesoftware.openfire.plugin.rest.controller.UserServiceController;
+import org.jivesoftware.openfire.plugin.rest.entity.BulkResultEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.JobEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserBatchReadEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserBulkEntity;
 import org.jivesoftware.openfire.plugin.rest.entity.UserEntities;
 import org.jivesoftware.openfire.plugin.rest.entity.UserEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserFacetsEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.UserPropertiesEntity;
 import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
 
 import javax.annotation.PostConstruct;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import java.util.List;
 
 @Path("restapi/v1/users")
 @Tag(name = "Users", description = "Managing Openfire users.")
@@ -45,6 +60,7 @@ public class UserService {
     }
 
     @GET
+    @Coalesced
     @Operation( summary = "Get users",
         description = "Retrieve all users defined in Openfire (with optional filtering).",
         responses = {
@@ -52,12 +68,15 @@ public class UserService {
         })
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
     public UserEntities getUsers(
-            @Parameter(description = "Search/Filter by username. This act like the wildcard search %String%", required = false) @QueryParam("search") String userSearch,
+            @Parameter(description = "Search/Filter by username (or the fields in 'searchFields'). Finds the users of which at least one of the searched fields contains the value. Characters such as '*', '%' and '_' are not wildcards. Case-insensitive when answered by the search index; otherwise, whether case is ignored depends on the user provider.", required = false) @QueryParam("search") String userSearch,
+            @Parameter(description = "The fields to search, comma-separated: 'username', 'name' and/or 'email'. Only used in combination with a search.", example = "username,name,email", required = false) @QueryParam("searchFields") String searchFields,
+            @Parameter(description = "Number of (matching) users to skip. Only used in combination with a search.", example = "0", required = false) @QueryParam("offset") int offset,
+            @Parameter(description = "Maximum number of (matching) users to return. Only used in combination with a search.", example = "100", required = false) @QueryParam("limit") Integer limit,
             @Parameter(description = "Filter by a user property name.", required = false) @QueryParam("propertyKey") String propertyKey,
             @Parameter(description = "Filter by user property value. Note: This can only be used in combination with a property name parameter", required = false) @QueryParam("propertyValue") String propertyValue)
         throws ServiceException
     {
-        return plugin.getUserEntities(userSearch, propertyKey, propertyValue);
+        return plugin.getUserEntities(userSearch, searchFields, offset, limit, propertyKey, propertyValue);
     }
 
     @POST
@@ -81,14 +100,17 @@ public class UserService {
         description = "Retrieve a user that is defined in Openfire.",
         responses = {
             @ApiResponse(responseCode = "200", description = "A list of Openfire users.", content = @Content(schema = @Schema(implementation = UserEntity.class))),
+            @ApiResponse(responseCode = "304", description = "The user did not change since the version identified by the 'If-None-Match' header."),
             @ApiResponse(responseCode = "404", description = "No user with that username was found."),
         })
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public UserEntity getUser(
-            @Parameter(description = "The username of the user to return.", required = true) @PathParam("username") String username)
+    public Response getUser(
+            @Parameter(description = "The username of the user to return.", required = true) @PathParam("username") String username,
+            @Context Request request)
         throws ServiceException
     {
-        return plugin.getUserEntity(username);
+        final EntityTag tag = EntityTagController.getInstance().checkUser(request, username);
+        return Response.ok(plugin.getUserEntity(username)).tag(tag).build();
     }
 
     @PUT
@@ -97,17 +119,40 @@ public class UserService {
         description = "Update an existing user in Openfire.",
         responses = {
             @ApiResponse(responseCode = "200", description = "The user was updated."),
+            @ApiResponse(responseCode = "202", description = "The user is being updated in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
         })
     @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
     public Response updateUser(
             @Parameter(description = "The username of the user to update.", required = true) @PathParam("username") String username,
+            @Parameter(description = "Whether to update the user in the background, as a job. Renaming a user updates the rosters of all of its contacts, which can take a long time.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
             @RequestBody(description = "The definition update of the user.", required = true) UserEntity userEntity)
         throws ServiceException
     {
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("users.update", progress -> plugin.updateUser(username, userEntity, progress)));
+        }
         plugin.updateUser(username, userEntity);
         return Response.status(Response.Status.OK).build();
     }
 
+    @PATCH
+    @Path("/{username}/properties")
+    @Operation( summary = "Update user properties",
+        description = "Set and remove properties of a user, leaving its other properties unchanged. A property without a value is removed. Only properties that change are stored.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The properties were updated. The response holds all properties of the user.", content = @Content(schema = @Schema(implementation = UserPropertiesEntity.class))),
+            @ApiResponse(responseCode = "404", description = "No user with that username was found."),
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public UserPropertiesEntity patchUserProperties(
+            @Parameter(description = "The username of the user to update.", required = true) @PathParam("username") String username,
+            @RequestBody(description = "The properties to set, and the properties to remove.", required = true) UserPropertiesEntity properties)
+        throws ServiceException
+    {
+        return plugin.patchProperties(username, properties == null ? null : properties.getProperties());
+    }
+
     @DELETE
     @Path("/{username}")
     @Operation( summary = "Delete user",
@@ -120,4 +165,45 @@ public class UserService {
         plugin.deleteUser(username);
         return Response.status(Response.Status.OK).build();
     }
+
+    @POST
+    @Path("/bulk/delete")
+    @Operation( summary = "Delete users",
+        description = "Remove many existing users from Openfire: those with the provided usernames, or those that have a property (with a value). The users are removed in parallel. The outcome for each user is reported.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Request has been processed. Results are reported in the response.", content = @Content(schema = @Schema(implementation = BulkResultEntities.class))),
+            @ApiResponse(responseCode = "202", description = "The users are being removed in the background, by the job in the response.", content = @Content(schema = @Schema(implementation = JobEntity.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both usernames and a property were provided."),
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response deleteUsers(
+            @Parameter(description = "Whether to remove the users in the background, as a job.", example = "false", required = false) @DefaultValue("false") @QueryParam("async") boolean async,
+            @RequestBody(description = "The usernames of the users to remove, or the property that they have.", required = true) UserBulkEntity bulk)
+        throws ServiceException
+    {
+        final List<String> usernames = UserBulkController.getInstance().getUsernames(bulk);
+        if (async) {
+            return JobService.accepted(JobsController.getInstance().submit("users.bulk-delete",
+                progress -> UserBulkController.getInstance().process(UserBulkController.Operation.DELETE, usernames, progress)));
+        }
+        return Response.ok(UserBulkController.getInstance().process(UserBulkController.Operation.DELETE, usernames, null)).build();
+    }
+
+    @POST
+    @Path("/bulk/read")
+    @Operation( summary = "Read users",
+        description = "Retrieve many users at once, including the requested data of each: their properties, groups, roster, vCard and lockout status. Each kind of data is read for all users together, and the kinds of data are read in parallel.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The users that exist, in the requested order, and the usernames of those that do not.", content = @Content(schema = @Schema(implementation = UserFacetsEntities.class))),
+            @ApiResponse(responseCode = "400", description = "No usernames, too many usernames, or an unknown facet were provided."),
+        })
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public UserFacetsEntities readUsers(
+            @RequestBody(description = "The usernames of the users to retrieve, and the data to retrieve of each.", required = true) UserBatchReadEntity request)
+        throws ServiceException
+    {
+        return UserFacetsController.getInstance().read(request);
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jivesoftware.openfire.plugin.rest.controller.WebhooksController;
+import org.jivesoftware.openfire.plugin.rest.entity.WebhookEntities;
+import org.jivesoftware.openfire.plugin.rest.entity.WebhookEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("restapi/v1/webhooks")
+@Tag(name = "Webhooks", description = "Managing HTTP endpoints to which events are delivered.")
+public class WebhookService {
+
+    private WebhooksController webhooksController;
+
+    @PostConstruct
+    public void init() {
+        webhooksController = WebhooksController.getInstance();
+    }
+
+    @GET
+    @Operation( summary = "Get webhooks",
+        description = "Get a list of all webhooks, including their delivery statistics.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "All webhooks", content = @Content(schema = @Schema(implementation = WebhookEntities.class)))
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public WebhookEntities getWebhooks() throws ServiceException
+    {
+        return new WebhookEntities(webhooksController.getWebhooks());
+    }
+
+    @POST
+    @Operation( summary = "Create webhook",
+        description = "Registers an HTTP endpoint to which events are delivered, in batches.",
+        responses = {
+            @ApiResponse(responseCode = "201", description = "Webhook created.", content = @Content(schema = @Schema(implementation = WebhookEntity.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid identifier, URL or topic."),
+            @ApiResponse(responseCode = "409", description = "A webhook with this identifier already exists.")
+        })
+    @Consumes({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public Response createWebhook(
+            @RequestBody(description = "The webhook that needs to be created.", required = true) WebhookEntity webhookEntity)
+        throws ServiceException
+    {
+        return Response.status(Response.Status.CREATED).entity(webhooksController.createWebhook(webhookEntity)).build();
+    }
+
+    @GET
+    @Path("/{id}")
+    @Operation( summary = "Get webhook",
+        description = "Get one specific webhook, including its delivery statistics.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The webhook.", content = @Content(schema = @Schema(implementation = WebhookEntity.class))),
+            @ApiResponse(responseCode = "404", description = "Webhook with this identifier not found.")
+        })
+    @Produces({ MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON })
+    public WebhookEntity getWebhook(@Parameter(description = "The identifier of the webhook that needs to be fetched.", example = "crm", required = true) @PathParam("id") String id)
+        throws ServiceException
+    {
+        return webhooksController.getWebhook(id);
+    }
+
+    @DELETE
+    @Path("/{id}")
+    @Operation( summary = "Delete webhook",
+        description = "Removes a webhook. Events that have not yet been delivered to it are discarded.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Webhook deleted."),
+            @ApiResponse(responseCode = "404", description = "Webhook with this identifier not found.")
+        })
+    public Response deleteWebhook(@Parameter(description = "The identifier of the webhook that needs to be removed.", example = "crm", required = true) @PathParam("id") String id)
+        throws ServiceException
+    {
+        webhooksController.deleteWebhook(id);
+        return Response.status(Response.Status.OK).build();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.utils;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The changes that turn one set of key/value properties into another: the properties to insert, the properties of
+ * which the value is to be updated, and the keys of the properties to delete. Properties that do not change are not
+ * part of the diff.
+ */
+public final class PropertyDiff {
+
+    private final Map<String, String> inserts = new LinkedHashMap<>();
+
+    private final Map<String, String> updates = new LinkedHashMap<>();
+
+    private final Set<String> deletes = new LinkedHashSet<>();
+
+    private PropertyDiff() {
+    }
+
+    /**
+     * Computes the changes that replace all current properties with the desired properties. Current properties that
+     * are not desired are deleted. A desired property with a null value is not desired.
+     *
+     * @param current the current properties
+     * @param desired the properties after the changes
+     * @return the changes
+     */
+    @Nonnull
+    public static PropertyDiff replace(@Nonnull final Map<String, String> current, @Nonnull final Map<String, String> desired) {
+        final PropertyDiff diff = patch(current, desired);
+        for (final String key : current.keySet()) {
+            if (!desired.containsKey(key)) {
+                diff.deletes.add(key);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Computes the changes that apply a partial update to the current properties. A change with a null value deletes
+     * the property. Current properties that are not changed are kept.
+     *
+     * @param current the current properties
+     * @param changes the properties to set, or to delete (when their value is null)
+     * @return the changes
+     */
+    @Nonnull
+    public static PropertyDiff patch(@Nonnull final Map<String, String> current, @Nonnull final Map<String, String> changes) {
+        final PropertyDiff diff = new PropertyDiff();
+        for (final Map.Entry<String, String> change : changes.entrySet()) {
+            final String key = change.getKey();
+            final String value = change.getValue();
+            if (value == null) {
+                if (current.containsKey(key)) {
+                    diff.deletes.add(key);
+                }
+            } else if (!current.containsKey(key)) {
+                diff.inserts.put(key, value);
+            } else if (!Objects.equals(current.get(key), value)) {
+                diff.updates.put(key, value);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * @return the properties that do not exist yet
+     */
+    @Nonnull
+    public Map<String, String> getInserts() {
+        return Collections.unmodifiableMap(inserts);
+    }
+
+    /**
+     * @return the properties that exist, with their new values
+     */
+    @Nonnull
+    public Map<String, String> getUpdates() {
+        return Collections.unmodifiableMap(updates);
+    }
+
+    /**
+     * @return the keys of the properties that are to be removed
+     */
+    @Nonnull
+    public Set<String> getDeletes() {
+        return Collections.unmodifiableSet(deletes);
+    }
+
+    /**
+     * @return true when nothing changes
+     */
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2025 Ignite Realtime Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jivesoftware.openfire.plugin.rest.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index that finds entries of which a field contains a substring, case-insensitively.
+ *
+ * Each entry has a key and a fixed amount of fields. For every field, the index maps each sequence of three characters
+ * (a trigram) to the (sorted) identifiers of the entries that contain it in that field. A query of at least three
+ * characters is answered by intersecting the lists of its trigrams, after which only the remaining candidates are
+ * verified. Shorter queries are answered by scanning all entries.
+ *
+ * This class is thread-safe.
+ */
+public final class TrigramIndex {
+
+    private final int fieldCount;
+
+    private final Map<String, Integer> idByKey = new HashMap<>();
+
+    /** The entries, by identifier. Removed entries leave a null element. */
+    private Entry[] entries = new Entry[1024];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The identifier of the next entry. Identifiers are not reused until the entries are compacted, so that appending
+     * keeps every list of postings sorted.
+     */
+    private int nextId;
+
+    /**
+     * @param fieldCount the amount of fields of each entry (at most 32)
+     */
+    public TrigramIndex(final int fieldCount) {
+        if (fieldCount < 1 || fieldCount > 32) {
+            throw new IllegalArgumentException("The amount of fields must be between 1 and 32: " + fieldCount);
+        }
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * Adds an entry, or replaces the entry with the same key.
+     *
+     * @param key the key of the entry
+     * @param values the values of the fields of the entry, in order (null values match nothing)
+     */
+    public void put(@Nonnull final String key, @Nonnull final String... values) {
+        put(key, values, true);
+    }
+
+    /**
+     * Adds an entry, unless an entry with the same key exists.
+     *
+     * @param key the key of the entry
+     * @param values the values of the fields of the entry, in order (null values match nothing)
+     * @return true when the entry was added
+     */
+    public boolean putIfAbsent(@Nonnull final String key, @Nonnull final String... values) {
+        return put(key, values, false);
+    }
+
+    private boolean put(@Nonnull final String key, @Nonnull final String[] values, final boolean replace) {
+        if (values.length != fieldCount) {
+            throw new IllegalArgumentException("Expected " + fieldCount + " values, got " + values.length);
+        }
+        final String[] normalized = new String[fieldCount];
+        for (int field = 0; field < fieldCount; field++) {
+            normalized[field] = values[field] == null ? null : values[field].toLowerCase(Locale.ROOT);
+        }
+
+        lock.writeLock().lock();
+        try {
+            final Integer existing = idByKey.get(key);
+            if (existing != null) {
+                if (!replace || Arrays.equals(entries[existing].values, normalized)) {
+                    return false;
+                }
+                remove(existing);
+            }
+            if (nextId == entries.length) {
+                compact();
+            }
+            final int id = nextId++;
+            idByKey.put(key, id);
+            entries[id] = new Entry(key, normalized);
+            for (int field = 0; field < fieldCount; field++) {
+                for (final long trigram : trigrams(field, normalized[field])) {
+                    postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key the key of the entry
+     */
+    public void remove(@Nonnull final String key) {
+        lock.writeLock().lock();
+        try {
+            final Integer id = idByKey.get(key);
+            if (id != null) {
+                remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(final int id) {
+        final Entry entry = entries[id];
+        entries[id] = null;
+        idByKey.remove(entry.key);
+        for (int field = 0; field < fieldCount; field++) {
+            for (final long trigram : trigrams(field, entry.values[field])) {
+                final Postings list = postings.get(trigram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the entries of which at least one of the selected fields contains the query, case-insensitively.
+     *
+     * @param query the substring to look for
+     * @param fields the fields to look in, as a bit mask (bit 0 for the first field)
+     * @return the keys of the matching entries, in natural order
+     */
+    @Nonnull
+    public List<String> search(@Nonnull final String query, final int fields) {
+        final String normalized = query.toLowerCase(Locale.ROOT);
+        final BitSet matches = new BitSet();
+
+        lock.readLock().lock();
+        try {
+            for (int field = 0; field < fieldCount; field++) {
+                if ((fields & (1 << field)) == 0) {
+                    continue;
+                }
+                if (normalized.length() < 3) {
+                    for (int id = 0; id < nextId; id++) {
+                        if (entries[id] != null && entries[id].contains(field, normalized)) {
+                            matches.set(id);
+                        }
+                    }
+                } else {
+                    searchField(field, normalized, matches);
+                }
+            }
+
+            final List<String> keys = new ArrayList<>(matches.cardinality());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                keys.add(entries[id].key);
+            }
+            Collections.sort(keys);
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void searchField(final int field, @Nonnull final String query, @Nonnull final BitSet matches) {
+        final long[] trigrams = trigrams(field, query);
+        final Postings[] lists = new Postings[trigrams.length];
+        for (int t = 0; t < trigrams.length; t++) {
+            lists[t] = postings.get(trigrams[t]);
+            if (lists[t] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        // The candidates are visited in ascending order, so every other list is only ever searched forward.
+        final int[] positions = new int[lists.length];
+        final Postings smallest = lists[0];
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            final int id = smallest.ids[i];
+            for (int l = 1; l < lists.length; l++) {
+                positions[l] = lists[l].seek(positions[l], id);
+                if (positions[l] == lists[l].size) {
+                    return;
+                }
+                if (lists[l].ids[positions[l]] != id) {
+                    continue candidates;
+                }
+            }
+            // Having all trigrams does not imply having them in sequence.
+            if (entries[id].contains(field, query)) {
+                matches.set(id);
+            }
+        }
+    }
+
+    /**
+     * @return the amount of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the amount of distinct trigrams (per field) in the index
+     */
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the entries to the lowest identifiers, and grows the array of entries when needed. The lists of postings
+     * stay sorted, as the relative order of the entries does not change.
+     */
+    private void compact() {
+        final int[] newIds = new int[nextId];
+        int count = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (entries[id] != null) {
+                newIds[id] = count++;
+            }
+        }
+        final Entry[] compacted = new Entry[Math.max(1024, count * 2)];
+        for (int id = 0; id < nextId; id++) {
+            if (entries[id] != null) {
+                compacted[newIds[id]] = entries[id];
+                idByKey.put(entries[id].key, newIds[id]);
+            }
+        }
+        for (final Postings list : postings.values()) {
+            for (int i = 0; i < list.size; i++) {
+                list.ids[i] = newIds[list.ids[i]];
+            }
+        }
+        entries = compacted;
+        nextId = count;
+    }
+
+    /**
+     * @return the distinct trigrams of a value, in ascending order
+     */
+    @Nonnull
+    private static long[] trigrams(final int field, @Nullable final String value) {
+        if (value == null || value.length() < 3) {
+            return new long[0];
+        }
+        final long[] result = new long[value.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) field << 48) | ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static final class Entry {
+        final String key;
+        final String[] values;
+
+        Entry(@Nonnull final String key, @Nonnull final String[] values) {
+            this.key = key;
+            this.values = values;
+        }
+
+        boolean contains(final int field, @Nonnull final String query) {
+            return values[field] != null && values[field].contains(query);
+        }
+    }
+
+    /**
+     * The identifiers of the entries that contain a trigram, in ascending order.
+     */
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(final int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(final int id) {
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * @return the position of the first identifier from a position onward that is not lower than an identifier
+         */
+        int seek(final int from, final int id) {
+            // Gallop, then search the range that was skipped.
+            int bound = 1;
+            while (from + bound < size && ids[from + bound] < id) {
+                bound <<= 1;
+            }
+            final int index = Arrays.binarySearch(ids, from, Math.min(from + bound + 1, size), id);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the content coding negotiation, the output of {@link CompressionFilter}, and the limit on the decompressed
+ * size of request bodies.
+ */
+public class CompressionFilterTest {
+
+    @Test
+    public void testNegotiate() {
+        assertEquals(CompressionFilter.Encoding.GZIP, CompressionFilter.negotiate("gzip, deflate, br"));
+        assertEquals(CompressionFilter.Encoding.DEFLATE, CompressionFilter.negotiate("deflate;q=1.0, gzip;q=0.5"));
+        assertEquals(CompressionFilter.Encoding.GZIP, CompressionFilter.negotiate("*"));
+        assertNull(CompressionFilter.negotiate("identity"));
+        assertNull(CompressionFilter.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(CompressionFilter.negotiate(null));
+    }
+
+    @Test
+    public void testSmallResponseIsNotCompressed() throws Exception {
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, headers, CompressionFilter.Encoding.GZIP, "{\"users\":[]}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"users\":[]}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLargeResponseIsCompressed() throws Exception {
+        final byte[] data = createPayload();
+        for (final CompressionFilter.Encoding encoding : CompressionFilter.Encoding.values()) {
+            // Repeated, to use compressors that were returned to the pool.
+            for (int i = 0; i < 3; i++) {
+                final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                write(out, headers, encoding, data);
+
+                assertEquals(encoding == CompressionFilter.Encoding.GZIP ? "gzip" : "deflate", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+                assertTrue(out.size() < data.length / 2);
+                try (final InputStream in = encoding == CompressionFilter.Encoding.GZIP ? new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())) : new InflaterInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                    assertArrayEquals(data, in.readAllBytes());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRequestBodyWithinLimitIsRead() throws Exception {
+        final byte[] data = createPayload();
+        final CompressionFilter.BoundedInputStream in = new CompressionFilter.BoundedInputStream(new InflaterInputStream(new ByteArrayInputStream(deflate(data))), data.length);
+
+        assertArrayEquals(data, in.readAllBytes());
+        assertFalse(in.isExceeded());
+    }
+
+    @Test
+    public void testRequestBodyBeyondLimitIsRefused() throws Exception {
+        final byte[] data = createPayload();
+        final CompressionFilter.BoundedInputStream in = new CompressionFilter.BoundedInputStream(new InflaterInputStream(new ByteArrayInputStream(deflate(data))), data.length - 1);
+
+        try {
+            in.readAllBytes();
+            fail("Reading more than the limit should fail.");
+        } catch (IOException e) {
+            assertTrue(in.isExceeded());
+        }
+    }
+
+    private static byte[] deflate(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(final ByteArrayOutputStream out, final MultivaluedMap<String, Object> headers, final CompressionFilter.Encoding encoding, final byte[] data) throws IOException {
+        final CompressionFilter.CompressingOutputStream stream = new CompressionFilter.CompressingOutputStream(out, headers, encoding, 1024, 6);
+        try {
+            // Written in parts, like a serializer would.
+            for (int offset = 0; offset < data.length; offset += 500) {
+                stream.write(data, offset, Math.min(500, data.length - offset));
+            }
+            stream.finish();
+        } finally {
+            stream.release();
+        }
+    }
+
+    private static byte[] createPayload() {
+        final StringBuilder result = new StringBuilder("{\"users\":[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append("{\"username\":\"user").append(i).append("\",\"name\":\"User ").append(i).append("\",\"properties\":[]}");
+        }
+        return result.append("]}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import org.jivesoftware.openfire.plugin.rest.entity.UserBulkEntity;
+import org.jivesoftware.openfire.plugin.rest.exceptions.ServiceException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies how {@link UserBulkController} determines the users to which an operation is applied.
+ */
+public class UserBulkControllerTest {
+
+    /**
+     * Usernames are normalized the way Openfire stores them, so that a mixed-case username denotes the same user as its
+     * lowercase form, and that user is processed only once.
+     */
+    @Test
+    public void testMixedCaseUsernamesAreNormalized() throws Exception {
+        final List<String> usernames = UserBulkController.getInstance().getUsernames(new UserBulkEntity(Arrays.asList("John", "john", "", "JANE")));
+
+        assertEquals(Arrays.asList("john", "jane"), usernames);
+    }
+
+    /**
+     * A username that is not valid is kept as requested, so that it is reported as a user that does not exist.
+     */
+    @Test
+    public void testInvalidUsernameIsKept() throws Exception {
+        final List<String> usernames = UserBulkController.getInstance().getUsernames(new UserBulkEntity(Arrays.asList("John", "jo hn@")));
+
+        assertEquals(Arrays.asList("john", "jo hn@"), usernames);
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testNeitherUsernamesNorPropertyIsRejected() throws Exception {
+        UserBulkController.getInstance().getUsernames(new UserBulkEntity());
+    }
+}
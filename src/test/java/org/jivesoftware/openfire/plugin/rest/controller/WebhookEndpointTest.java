@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.jivesoftware.openfire.plugin.rest.entity.EventEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.WebhookEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the delivery of events by {@link WebhookEndpoint}, using a local HTTP server as a stand-in for the
+ * receiving end of a webhook.
+ */
+public class WebhookEndpointTest {
+
+    private HttpServer server;
+    private ScheduledExecutorService scheduler;
+    private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+    private final AtomicInteger failuresToRespond = new AtomicInteger(0);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hook", exchange -> {
+            final byte[] body = exchange.getRequestBody().readAllBytes();
+            final boolean fail = failuresToRespond.getAndUpdate(i -> Math.max(0, i - 1)) > 0;
+            if (!fail) {
+                deliveries.add(new Delivery(body, exchange.getRequestHeaders().getFirst(WebhookEndpoint.SIGNATURE_HEADER)));
+            }
+            exchange.sendResponseHeaders(fail ? 503 : 204, -1);
+            exchange.close();
+        });
+        server.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    private WebhookEndpoint createEndpoint(final String secret, final int batchSize, final int maxAttempts) {
+        final WebhookEndpoint.Settings settings = new WebhookEndpoint.Settings(100, batchSize, 1, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofSeconds(5));
+        final URI url = URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/hook");
+        return new WebhookEndpoint("test", url, Collections.emptySet(), secret, settings, HttpClient.newHttpClient(), scheduler);
+    }
+
+    private static EventEntity event(final long id) {
+        final EventEntity event = new EventEntity(EventsController.TOPIC_USERS, "user_created");
+        event.setId(id);
+        event.setJid("user" + id + "@example.org");
+        return event;
+    }
+
+    @Test
+    public void testDeliversAllEventsInBatches() throws Exception {
+        final WebhookEndpoint endpoint = createEndpoint("s3cr3t", 10, 3);
+        for (int i = 1; i <= 25; i++) {
+            endpoint.offer(event(i));
+        }
+
+        int received = 0;
+        while (received < 25) {
+            final Delivery delivery = deliveries.poll(5, TimeUnit.SECONDS);
+            assertNotNull("Expected another delivery", delivery);
+            final JsonNode document = new ObjectMapper().readTree(delivery.body);
+            assertEquals("test", document.get("webhook").asText());
+            assertTrue(document.get("events").size() <= 10);
+            assertNotNull(delivery.signature);
+            assertTrue(delivery.signature.startsWith("sha256="));
+            received += document.get("events").size();
+        }
+        assertEquals(25, received);
+
+        final WebhookEntity statistics = awaitSettled(endpoint);
+        assertEquals(Long.valueOf(25), statistics.getDelivered());
+        assertEquals(Long.valueOf(0), statistics.getDropped());
+    }
+
+    @Test
+    public void testRetriesFailedDelivery() throws Exception {
+        failuresToRespond.set(2);
+        final WebhookEndpoint endpoint = createEndpoint(null, 10, 5);
+        endpoint.offer(event(1));
+
+        final Delivery delivery = deliveries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(delivery);
+        assertNull(delivery.signature);
+
+        final WebhookEntity statistics = awaitSettled(endpoint);
+        assertEquals(Long.valueOf(1), statistics.getDelivered());
+        assertEquals(Long.valueOf(2), statistics.getFailedAttempts());
+    }
+
+    @Test
+    public void testDropsBatchAfterMaximumAttempts() throws Exception {
+        failuresToRespond.set(Integer.MAX_VALUE);
+        final WebhookEndpoint endpoint = createEndpoint(null, 10, 2);
+        endpoint.offer(event(1));
+
+        final WebhookEntity statistics = awaitSettled(endpoint);
+        assertEquals(Long.valueOf(0), statistics.getDelivered());
+        assertEquals(Long.valueOf(1), statistics.getDropped());
+        assertEquals(Long.valueOf(2), statistics.getFailedAttempts());
+    }
+
+    @Test
+    public void testBackoffGrowsExponentiallyUpToMaximum() {
+        final WebhookEndpoint endpoint = createEndpoint(null, 10, 5);
+        for (int attempt = 1; attempt < 40; attempt++) {
+            final long expected = Math.min(50, 10L << Math.min(attempt - 1, 30));
+            final long backoff = endpoint.getBackoff(attempt);
+            assertTrue(backoff >= expected / 2);
+            assertTrue(backoff <= expected);
+        }
+    }
+
+    private static WebhookEntity awaitSettled(final WebhookEndpoint endpoint) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        WebhookEntity statistics = endpoint.toEntity();
+        while ((statistics.getQueued() > 0 || statistics.getInFlight() > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            statistics = endpoint.toEntity();
+        }
+        return statistics;
+    }
+
+    private static class Delivery {
+        final byte[] body;
+        final String signature;
+
+        Delivery(final byte[] body, final String signature) {
+            this.body = body;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.dao;
+
+import org.jivesoftware.openfire.plugin.rest.entity.PropertyPredicateEntity;
+import org.jivesoftware.openfire.plugin.rest.entity.UserQueryEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies how {@link UserQueryDAO} compiles queries into SQL.
+ */
+public class UserQueryDAOTest {
+
+    private static final String SELECT = "SELECT u.username, u.name, u.email FROM ofUser u";
+
+    @Test
+    public void testQueryWithoutConditions() {
+        final List<String> parameters = new ArrayList<>();
+        assertEquals(SELECT + " ORDER BY u.username", UserQueryDAO.toSql(new UserQueryEntity(), parameters));
+        assertEquals(List.of(), parameters);
+    }
+
+    @Test
+    public void testQueryWithAllConditions() {
+        final UserQueryEntity query = new UserQueryEntity();
+        query.setAfter("john");
+        query.setCreatedAfter(new Date(1000L));
+        query.setName("Doe");
+        query.setProperties(List.of(
+            new PropertyPredicateEntity("department", PropertyPredicateEntity.OPERATOR_EQUALS, "Sales"),
+            new PropertyPredicateEntity("phone", PropertyPredicateEntity.OPERATOR_PREFIX, "+31_"),
+            new PropertyPredicateEntity("manager", PropertyPredicateEntity.OPERATOR_EXISTS, null)));
+
+        final List<String> parameters = new ArrayList<>();
+        assertEquals(SELECT + " WHERE u.username > ? AND u.creationDate >= ? AND LOWER(u.name) LIKE ? ESCAPE '!'"
+                + " AND EXISTS (SELECT 1 FROM ofUserProp q0 WHERE q0.username = u.username AND q0.name = ? AND q0.propValue = ?)"
+                + " AND EXISTS (SELECT 1 FROM ofUserProp q1 WHERE q1.username = u.username AND q1.name = ? AND q1.propValue LIKE ? ESCAPE '!')"
+                + " AND EXISTS (SELECT 1 FROM ofUserProp q2 WHERE q2.username = u.username AND q2.name = ?)"
+                + " ORDER BY u.username",
+            UserQueryDAO.toSql(query, parameters));
+        assertEquals(List.of("john", "000000000001000", "%doe%", "department", "Sales", "phone", "+31!_%", "manager"), parameters);
+    }
+
+    @Test
+    public void testEscapeLike() {
+        assertEquals("100!%!_done!!", UserQueryDAO.escapeLike("100%_done!"));
+    }
+}
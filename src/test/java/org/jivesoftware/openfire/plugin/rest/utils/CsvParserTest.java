@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies the parsing of lines of comma-separated values by {@link CsvParser}.
+ */
+public class CsvParserTest {
+
+    @Test
+    public void testPlainValues() {
+        assertEquals(List.of("john", "secret", "John Doe", ""), CsvParser.parseLine("john,secret,John Doe,"));
+    }
+
+    @Test
+    public void testEmptyLine() {
+        assertEquals(List.of(""), CsvParser.parseLine(""));
+    }
+
+    @Test
+    public void testQuotedValues() {
+        assertEquals(List.of("john", "Doe, John", "say \"hi\""), CsvParser.parseLine("john,\"Doe, John\",\"say \"\"hi\"\"\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedQuote() {
+        CsvParser.parseLine("john,\"Doe, John");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.utils;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies the changes that {@link PropertyDiff} computes.
+ */
+public class PropertyDiffTest {
+
+    @Test
+    public void testReplaceWithSameProperties() {
+        final Map<String, String> current = Map.of("a", "1", "b", "2");
+        assertTrue(PropertyDiff.replace(current, Map.of("a", "1", "b", "2")).isEmpty());
+    }
+
+    @Test
+    public void testReplaceChangesOnlyWhatDiffers() {
+        final PropertyDiff diff = PropertyDiff.replace(Map.of("a", "1", "b", "2", "c", "3"), Map.of("a", "1", "b", "changed", "d", "4"));
+        assertEquals(Map.of("d", "4"), diff.getInserts());
+        assertEquals(Map.of("b", "changed"), diff.getUpdates());
+        assertEquals(Set.of("c"), diff.getDeletes());
+    }
+
+    @Test
+    public void testReplaceWithNullValueDeletes() {
+        final Map<String, String> desired = new HashMap<>();
+        desired.put("a", null);
+        final PropertyDiff diff = PropertyDiff.replace(Map.of("a", "1"), desired);
+        assertEquals(Set.of("a"), diff.getDeletes());
+        assertTrue(diff.getInserts().isEmpty());
+    }
+
+    @Test
+    public void testPatchKeysOtherProperties() {
+        final Map<String, String> changes = new HashMap<>();
+        changes.put("b", "changed");
+        changes.put("c", null);
+        changes.put("d", null);
+        changes.put("e", "5");
+        final PropertyDiff diff = PropertyDiff.patch(Map.of("a", "1", "b", "2", "c", "3"), changes);
+        assertEquals(Map.of("e", "5"), diff.getInserts());
+        assertEquals(Map.of("b", "changed"), diff.getUpdates());
+        assertEquals(Set.of("c"), diff.getDeletes());
+    }
+}
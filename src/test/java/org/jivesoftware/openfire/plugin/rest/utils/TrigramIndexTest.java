@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 Ignite Realtime Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jivesoftware.openfire.plugin.rest.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies the substring search of {@link TrigramIndex}.
+ */
+public class TrigramIndexTest {
+
+    private static final int USERNAME = 1;
+    private static final int NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+
+    private TrigramIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TrigramIndex(3);
+        index.put("john", "john", "John Doe", "john@example.org");
+        index.put("jane", "jane", "Jane Doe", "jane@example.com");
+        index.put("kate", "kate", null, "k.smith@example.org");
+    }
+
+    @Test
+    public void testSearchBySubstring() {
+        assertEquals(List.of("jane", "john"), index.search("doe", NAME));
+        assertEquals(List.of("john", "kate"), index.search("example.org", EMAIL));
+    }
+
+    @Test
+    public void testSearchIsCaseInsensitive() {
+        assertEquals(List.of("john"), index.search("JOHN D", NAME));
+    }
+
+    @Test
+    public void testSearchOnlySelectedFields() {
+        assertEquals(List.of(), index.search("smith", USERNAME | NAME));
+        assertEquals(List.of("kate"), index.search("smith", USERNAME | EMAIL));
+    }
+
+    @Test
+    public void testShortQuery() {
+        assertEquals(List.of("jane", "john"), index.search("j", USERNAME));
+    }
+
+    @Test
+    public void testTrigramsOutOfSequenceDoNotMatch() {
+        index.put("anna", "annanas", null, null);
+        // 'nas' and 'ann' both occur, but 'annas' does not.
+        assertEquals(List.of(), index.search("annas", USERNAME));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        index.put("john", "john", "Johnny Walker", "john@example.org");
+        assertEquals(List.of("jane"), index.search("doe", NAME));
+        assertFalse(index.putIfAbsent("john", "john", "John Doe", null));
+
+        index.remove("jane");
+        assertEquals(List.of(), index.search("doe", NAME));
+        assertEquals(2, index.size());
+        assertTrue(index.putIfAbsent("jane", "jane", "Jane Doe", null));
+    }
+}